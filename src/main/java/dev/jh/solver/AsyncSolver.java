@@ -0,0 +1,110 @@
+package dev.jh.solver;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import dev.jh.solver.rules.Rule;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * AsyncSolver solves puzzles on a shared pool of threads, returning futures instead of blocking the caller.
+ * Puzzles wait in a bounded queue for a free thread.  Once the queue is full the solver is overloaded, and new
+ * puzzles are rejected right away with a failed future instead of piling up - callers can check
+ * {@link #isOverloaded()} to slow down before that happens.
+ *
+ * Solvers aren't thread-safe, so each thread gets its own from the supplier.
+ *
+ * @param <R> Type of rule in the puzzles.
+ */
+public class AsyncSolver<R extends Rule> implements AutoCloseable {
+    private final ThreadPoolExecutor executor;
+    private final ThreadLocal<Solver<R>> solvers;
+
+    /**
+     * Creates an async solver with its own threads.
+     *
+     * @param solvers Creates a solver for each thread.
+     * @param threads Number of threads solving puzzles.
+     * @param queueCapacity Number of puzzles that can wait for a thread before new puzzles are rejected.
+     */
+    public AsyncSolver(Supplier<? extends Solver<R>> solvers, int threads, int queueCapacity) {
+        Preconditions.checkArgument(threads > 0, "threads must be >= 1");
+        Preconditions.checkArgument(queueCapacity > 0, "queueCapacity must be >= 1");
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat("puzzle-solver-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.solvers = ThreadLocal.withInitial(solvers::get);
+    }
+
+    /**
+     * Queues the puzzle to be solved.
+     *
+     * @param puzzle Puzzle to solve.
+     * @return Future that completes with the solution, or fails with the solver's exception.  Fails with a
+     * {@link RejectedExecutionException} if the solver is overloaded or closed.  Cancelling the future before the
+     * puzzle reaches a thread skips solving it.
+     */
+    public CompletableFuture<Grid> solve(Puzzle<R> puzzle) {
+        CompletableFuture<Grid> future = new CompletableFuture<>();
+
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+
+                try {
+                    future.complete(solvers.get().solve(puzzle));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            String message = executor.isShutdown()
+                    ? "Solver is closed."
+                    : "Solver is overloaded - " + queued() + " puzzles are waiting.";
+            future.completeExceptionally(new RejectedExecutionException(message, e));
+        }
+
+        return future;
+    }
+
+    /**
+     * Returns the number of puzzles waiting for a thread.
+     *
+     * @return Number of queued puzzles.
+     */
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns whether the queue is full, so the next puzzle would be rejected unless a thread frees up first.
+     *
+     * @return Whether the solver is overloaded.
+     */
+    public boolean isOverloaded() {
+        return executor.getQueue().remainingCapacity() == 0;
+    }
+
+    /**
+     * Stops accepting puzzles and waits for the queued puzzles to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -153,6 +153,13 @@ public class Grid {
             return this;
         }
 
+        public Square get(int row, int column) {
+            Preconditions.checkPositionIndex(row, height, "row");
+            Preconditions.checkPositionIndex(column, width, "column");
+
+            return squares[row][column];
+        }
+
         public Builder setSquares(ImmutableList<ImmutableList<Square>> squares) {
             Preconditions.checkArgument(squares.size() == height, "Height must match");
 
@@ -0,0 +1,196 @@
+package dev.jh.solver;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
+import dev.jh.solver.approach.picross.PicrossApproach;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static dev.jh.solver.LineType.COLUMN;
+import static dev.jh.solver.LineType.ROW;
+import static dev.jh.solver.Square.EMPTY;
+
+/**
+ * HintFinder finds the next squares a player could deduce from the grid they've filled in so far, without solving
+ * the puzzle.  Approaches are tried from cheapest to most expensive, and each approach is tried on every unfinished
+ * line before moving on to the next one, so the hint uses the simplest reasoning that makes progress anywhere on the
+ * grid.  The search stops at the first line an approach changes.
+ *
+ * Hints only look at one line at a time, so a grid that needs reasoning across lines to make progress has no hint.
+ * Lines that already contradict their rule are skipped - use a {@link SolutionVerifier} to point out mistakes.
+ */
+public class HintFinder {
+    private final ImmutableList<PicrossApproach> approaches;
+
+    public HintFinder() {
+        this(ImmutableList.copyOf(PicrossApproach.values()));
+    }
+
+    /**
+     * Creates a hint finder that tries the given approaches in order.
+     *
+     * @param approaches Approaches to try, cheapest first.
+     */
+    public HintFinder(ImmutableList<PicrossApproach> approaches) {
+        this.approaches = approaches;
+    }
+
+    /**
+     * Returns the next squares that can be deduced from one line of the grid.
+     *
+     * @param puzzle Puzzle the player is solving.
+     * @param grid Squares the player has filled in, with the puzzle's size.
+     * @return Hint, or empty if no approach can deduce anything from a single line.
+     */
+    public Optional<Hint> next(Puzzle<PicrossRule> puzzle, Grid grid) {
+        Preconditions.checkArgument(grid.height == puzzle.height && grid.width == puzzle.width,
+                "Grid is %sx%s, but the puzzle is %sx%s.", grid.height, grid.width, puzzle.height, puzzle.width);
+
+        // Lines are read from the grid once.  Approaches only change a line when they return CHANGED, which ends the
+        // search, or CONTRADICTION, which drops the line, so the same lines are reused for every approach.
+        Line[] lines = new Line[puzzle.height + puzzle.width];
+        for (int row = 0; row < puzzle.height; row ++) {
+            lines[row] = unfinished(Line.row(grid, row));
+        }
+        for (int column = 0; column < puzzle.width; column ++) {
+            lines[puzzle.height + column] = unfinished(Line.column(grid, column));
+        }
+
+        Changes changes = new Changes();
+        for (PicrossApproach approach : approaches) {
+            for (int i = 0; i < lines.length; i ++) {
+                if (lines[i] == null) {
+                    continue;
+                }
+
+                LineType type = i < puzzle.height ? ROW : COLUMN;
+                int index = type == ROW ? i : i - puzzle.height;
+                PicrossRule rule = type == ROW ? puzzle.rowRule(index) : puzzle.columnRule(index);
+
+                Status status = approach.apply(rule, lines[i], changes);
+                if (status == Status.CONTRADICTION) {
+                    lines[i] = null;
+                } else if (status == Status.CHANGED) {
+                    return Optional.of(hint(type, index, approach, lines[i], changes));
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the line, or null if it doesn't have any EMPTY squares left to deduce.
+     */
+    private static Line unfinished(Line line) {
+        for (int i = 0; i < line.length; i ++) {
+            if (line.get(i) == EMPTY) {
+                return line;
+            }
+        }
+
+        return null;
+    }
+
+    private static Hint hint(LineType type, int index, PicrossApproach approach, Line line, Changes changes) {
+        ImmutableList.Builder<Cell> cells = ImmutableList.builderWithExpectedSize(changes.size());
+        for (int change = 0; change < changes.size(); change ++) {
+            int square = changes.get(change);
+            cells.add(type == ROW
+                    ? new Cell(index, square, line.get(square))
+                    : new Cell(square, index, line.get(square)));
+        }
+
+        return new Hint(type, index, approach, cells.build());
+    }
+
+    /**
+     * Hint is a set of squares that one approach deduced from one line.
+     */
+    public static final class Hint {
+        /** Line the squares were deduced from. */
+        public final LineType type;
+        public final int index;
+        /** Approach that deduced the squares. */
+        public final PicrossApproach approach;
+        /** Deduced squares, in order along the line. */
+        public final ImmutableList<Cell> cells;
+
+        public Hint(LineType type, int index, PicrossApproach approach, ImmutableList<Cell> cells) {
+            this.type = type;
+            this.index = index;
+            this.approach = approach;
+            this.cells = cells;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Hint hint = (Hint) o;
+            return index == hint.index &&
+                    type == hint.type &&
+                    approach == hint.approach &&
+                    Objects.equals(cells, hint.cells);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, index, approach, cells);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("type", type)
+                    .add("index", index)
+                    .add("approach", approach)
+                    .add("cells", cells)
+                    .toString();
+        }
+    }
+
+    /**
+     * Cell is a square that a hint deduced, and what it should be.
+     */
+    public static final class Cell {
+        public final int row;
+        public final int column;
+        public final Square square;
+
+        public Cell(int row, int column, Square square) {
+            this.row = row;
+            this.column = column;
+            this.square = square;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Cell cell = (Cell) o;
+            return row == cell.row &&
+                    column == cell.column &&
+                    square == cell.square;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(row, column, square);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("row", row)
+                    .add("column", column)
+                    .add("square", square)
+                    .toString();
+        }
+    }
+}
@@ -3,17 +3,19 @@ package dev.jh.solver;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import static dev.jh.solver.LineType.COLUMN;
 import static dev.jh.solver.LineType.ROW;
 
 /**
- * Line represents a row or column in a puzzle.
+ * Line represents a row or column in a puzzle.  A line starts out with a snapshot of the grid's squares, and changes
+ * to the line don't touch the grid until {@link #toGrid()} builds a new one.
+ *
+ * Squares are kept in a plain array, so reading and writing squares doesn't allocate.  Solvers that work on lines
+ * from somewhere other than a grid keep one line per length and overwrite all of its squares for each line they
+ * solve, rather than creating a new line each time.
  *
  * TODO: some puzzles, like mega picross, contain clues that span more than one line.
  */
@@ -23,16 +25,16 @@ public class Line {
     private final LineType type;
     private final int index;
     private final Grid grid;
-    private final Map<RowColumn, Square> changes;
+    private final Square[] squares;
 
 
-    private Line(LineType type, Grid grid, int index, int length) {
-        this.length = length;
+    private Line(LineType type, Grid grid, int index, Square[] squares) {
+        this.length = squares.length;
 
         this.type = type;
         this.index = index;
         this.grid = grid;
-        this.changes = new HashMap<>();
+        this.squares = squares;
     }
 
     /**
@@ -43,9 +45,7 @@ public class Line {
      */
     public Square get(int index) {
         Preconditions.checkPositionIndex(index, length, "Index");
-        RowColumn rowColumn = RowColumn.forType(type, this.index, index);
-
-        return changes.getOrDefault(rowColumn, grid.get(rowColumn.row, rowColumn.column));
+        return squares[index];
     }
 
     /**
@@ -56,10 +56,8 @@ public class Line {
      * @return This line.
      */
     public Line set(int index, Square square) {
-        if (get(index) != square) {
-            changes.put(RowColumn.forType(type, this.index, index), square);
-        }
-
+        Preconditions.checkPositionIndex(index, length, "Index");
+        squares[index] = square;
         return this;
     }
 
@@ -73,11 +71,7 @@ public class Line {
      */
     public Line fill(int start, int end, Square square) {
         Preconditions.checkPositionIndexes(start, end, length);
-
-        for (int i = start; i < end; i ++) {
-            set(i, square);
-        }
-
+        Arrays.fill(squares, start, end, square);
         return this;
     }
 
@@ -100,19 +94,23 @@ public class Line {
     /**
      * Returns a new Grid containing the squares that were modified by this line.
      *
-     * @return Changed grid.
+     * @return Changed grid, or the line's grid if nothing changed.
      */
     public Grid toGrid() {
-        if (changes.isEmpty()) {
-            return grid;
-        }
-
-        Grid.Builder changedGrid = grid.copy();
-        for (Map.Entry<RowColumn, Square> change : changes.entrySet()) {
-            changedGrid.setSquare(change.getKey().row, change.getKey().column, change.getValue());
+        Grid.Builder changedGrid = null;
+        for (int i = 0; i < length; i ++) {
+            int row = type == ROW ? index : i;
+            int column = type == ROW ? i : index;
+
+            if (grid.squares.get(row).get(column) != squares[i]) {
+                if (changedGrid == null) {
+                    changedGrid = grid.copy();
+                }
+                changedGrid.setSquare(row, column, squares[i]);
+            }
         }
 
-        return changedGrid.build();
+        return changedGrid == null ? grid : changedGrid.build();
     }
 
     @Override
@@ -141,73 +139,34 @@ public class Line {
     }
 
     private String lineToString() {
-        return IntStream.range(0, length)
-                .mapToObj(i -> Character.toString(get(i).name))
-                .collect(Collectors.joining());
+        StringBuilder str = new StringBuilder(length);
+        for (Square square : squares) {
+            str.append(square.name);
+        }
+
+        return str.toString();
     }
 
     public static Line row(Grid grid, int index) {
-        return new Line(ROW, grid, index, grid.width);
+        return new Line(ROW, grid, index, grid.squares.get(index).toArray(new Square[0]));
     }
 
     public static Line column(Grid grid, int index) {
-        return new Line(COLUMN, grid, index, grid.height);
-    }
-
-    /**
-     * Returns a copy of this line.  Since Lines are mutable, this method is useful for forking lines.
-     * @return
-     */
-    public Line copy() {
-        Line copy = new Line(type, grid, index, length);
-
-        for (Map.Entry<RowColumn, Square> entry : changes.entrySet()) {
-            int index = type == ROW ? entry.getKey().column : entry.getKey().row;
-            copy.set(index, entry.getValue());
+        Square[] squares = new Square[grid.height];
+        for (int row = 0; row < grid.height; row ++) {
+            squares[row] = grid.squares.get(row).get(index);
         }
 
-        return copy;
+        return new Line(COLUMN, grid, index, squares);
     }
 
     /**
-     * RowColumn contains a row and column, and a way to compute row and column based on LineType.
+     * Returns a snapshot of this line.  Since Lines are mutable, this method is useful for forking lines.  Copying
+     * only copies the line's squares, not its grid.
+     *
+     * @return Copy of this line.
      */
-    private static class RowColumn {
-        public final int row;
-        public final int column;
-
-        private RowColumn(int row, int column) {
-            this.row = row;
-            this.column = column;
-        }
-
-        @Override
-        public boolean equals(Object other) {
-            if (this == other) return true;
-            if (other == null || getClass() != other.getClass()) return false;
-            RowColumn rowColumn = (RowColumn) other;
-            return row == rowColumn.row && column == rowColumn.column;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(row, column);
-        }
-
-        @Override
-        public String toString() {
-            return MoreObjects.toStringHelper(this)
-                    .add("row", row)
-                    .add("column", column)
-                    .toString();
-        }
-
-        public static RowColumn forType(LineType type, int lineIndex, int index) {
-            if (type == ROW) {
-                return new RowColumn(lineIndex, index);
-            } else {
-                return new RowColumn(index, lineIndex);
-            }
-        }
+    public Line copy() {
+        return new Line(type, grid, index, squares.clone());
     }
 }
@@ -2,7 +2,12 @@ package dev.jh.solver;
 
 import com.google.common.collect.ImmutableList;
 import dev.jh.solver.approach.Approach;
+import dev.jh.solver.board.Board;
+import dev.jh.solver.board.PackedBoard;
+import dev.jh.solver.event.SolveEvent;
+import dev.jh.solver.line.BatchLineSolver;
 import dev.jh.solver.rules.picross.PicrossRule;
+import dev.jh.solver.trace.Tracer;
 
 import java.util.Optional;
 
@@ -10,32 +15,121 @@ import static dev.jh.solver.approach.picross.PicrossApproach.*;
 
 public class PicrossSolver implements Solver<PicrossRule> {
 
+    /** Approaches applied to each line, in order. */
+    public static final ImmutableList<Approach<PicrossRule>> APPROACHES = ImmutableList.of(
+            FULL_LINE,
+            FULL_LINE_WITH_GAPS,
+            OVERLAP,
+            COMPLETED_LINE,
+            MAXED_SEGMENT,
+            UNREACHABLE
+    );
+
+    private final Optional<BatchLineSolver> batchLineSolver;
+    private final Board.Factory boardFactory;
+    private final Tracer.Factory tracerFactory;
+
+    public PicrossSolver() {
+        this(Optional.empty(), PackedBoard::onHeap, Tracer.Factory.DISABLED);
+    }
+
+    /**
+     * Creates a solver that finishes puzzles by solving batches of rows and columns with the given batch line solver
+     * until none of the lines change.
+     *
+     * @param batchLineSolver Batch line solver.
+     */
+    public PicrossSolver(BatchLineSolver batchLineSolver) {
+        this(Optional.of(batchLineSolver), PackedBoard::onHeap, Tracer.Factory.DISABLED);
+    }
+
+    /**
+     * Creates a solver that keeps the squares it's working on in boards created by the given factory.
+     * Use {@link PackedBoard#offHeap} or {@link PackedBoard#mapped} to keep very large puzzles off of the heap.
+     *
+     * @param batchLineSolver Batch line solver.
+     * @param boardFactory Creates the board for each puzzle.
+     */
+    public PicrossSolver(BatchLineSolver batchLineSolver, Board.Factory boardFactory) {
+        this(Optional.of(batchLineSolver), boardFactory, Tracer.Factory.DISABLED);
+    }
+
+    private PicrossSolver(Optional<BatchLineSolver> batchLineSolver, Board.Factory boardFactory,
+                          Tracer.Factory tracerFactory) {
+        this.batchLineSolver = batchLineSolver;
+        this.boardFactory = boardFactory;
+        this.tracerFactory = tracerFactory;
+    }
+
     @Override
     public Grid solve(Puzzle<PicrossRule> puzzle) {
-        Grid grid = Grid.empty(puzzle.height, puzzle.width).build();
-
-        ImmutableList<Approach<PicrossRule>> approaches = ImmutableList.of(
-                FULL_LINE,
-                FULL_LINE_WITH_GAPS,
-                OVERLAP
-        );
-
-        for (Approach<PicrossRule> approach : approaches) {
-            for (int column = 0; column < grid.width; column ++) {
-                Optional<Line> filled = approach.apply(puzzle.columnRule(column), grid.column(column));
-                if (filled.isPresent()) {
-                    grid = filled.get().toGrid();
-                }
-            }
+        Board board = boardFactory.create(puzzle.height, puzzle.width);
+
+        Tracer tracer = tracerFactory.create(puzzle, Propagator.approachNames(APPROACHES));
+        SolveEvent event = SolveEvent.begin(this, puzzle);
 
-            for (int row = 0; row < grid.height; row ++) {
-                Optional<Line> filled = approach.apply(puzzle.rowRule(row), grid.row(row));
-                if (filled.isPresent()) {
-                    grid = filled.get().toGrid();
-                }
+        try {
+            Propagator propagator = new Propagator(puzzle, board, APPROACHES, batchLineSolver, tracer);
+            if (!propagator.propagate()) {
+                throw new IllegalStateException("Puzzle has no solution.");
             }
+
+            event.solved = true;
+        } finally {
+            tracer.close();
+            event.commit();
         }
 
-        return grid;
+        board.flush();
+        return board.toGrid();
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private Optional<BatchLineSolver> batchLineSolver = Optional.empty();
+        private Board.Factory boardFactory = PackedBoard::onHeap;
+        private Tracer.Factory tracerFactory = Tracer.Factory.DISABLED;
+
+        private Builder() {}
+
+        /**
+         * Finishes each round of propagation by solving batches of rows and columns with the given solver.
+         *
+         * @param batchLineSolver Batch line solver.
+         * @return This builder.
+         */
+        public Builder batchLineSolver(BatchLineSolver batchLineSolver) {
+            this.batchLineSolver = Optional.of(batchLineSolver);
+            return this;
+        }
+
+        /**
+         * Keeps the squares the solver is working on in boards created by the given factory.
+         *
+         * @param boardFactory Creates the board for each puzzle.
+         * @return This builder.
+         */
+        public Builder boardFactory(Board.Factory boardFactory) {
+            this.boardFactory = boardFactory;
+            return this;
+        }
+
+        /**
+         * Traces solves with tracers created by the given factory.
+         *
+         * @param tracerFactory Creates the tracer for each puzzle.
+         * @return This builder.
+         */
+        public Builder tracerFactory(Tracer.Factory tracerFactory) {
+            this.tracerFactory = tracerFactory;
+            return this;
+        }
+
+        public PicrossSolver build() {
+            return new PicrossSolver(batchLineSolver, boardFactory, tracerFactory);
+        }
     }
 }
@@ -0,0 +1,949 @@
+package dev.jh.solver;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.approach.Approach;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
+import dev.jh.solver.approach.picross.SegmentRangeApproach;
+import dev.jh.solver.board.Board;
+import dev.jh.solver.event.ApproachEvent;
+import dev.jh.solver.event.LineSolveEvent;
+import dev.jh.solver.event.PropagationRoundEvent;
+import dev.jh.solver.line.BatchLineSolver;
+import dev.jh.solver.line.LineTable;
+import dev.jh.solver.line.PackedLine;
+import dev.jh.solver.line.SegmentRanges;
+import dev.jh.solver.rules.picross.PicrossRule;
+import dev.jh.solver.trace.Tracer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+import static dev.jh.solver.LineType.COLUMN;
+import static dev.jh.solver.LineType.ROW;
+
+/**
+ * Propagator applies approaches to the dirty lines of a puzzle until there aren't any dirty lines left.  Only the
+ * lines crossing a changed square are marked dirty, so lines that can't have changed aren't solved again.
+ *
+ * The propagator keeps {@link SegmentRanges} for every row and column, tightening them as squares are set,
+ * and deduces squares from them before applying the rest of the approaches.  Lines short enough for a
+ * {@link LineTable} are solved with a single lookup instead, and their ranges are tightened from the solved line.
+ *
+ * Searches can {@link #assume} squares on top of a propagated board, and either {@link #undo} back to a
+ * {@link #mark()} or {@link #copy()} the propagator to explore a branch independently.
+ */
+public class Propagator {
+    /** Reason for squares that depend on every assumption. */
+    public static final long ALL_REASONS = -1L;
+
+    private static final SegmentRangeApproach SEGMENT_RANGE = new SegmentRangeApproach();
+
+    /** Sources for squares that were assumed, and squares set by the batch line solver. */
+    private static final int ASSUMED = -1;
+    private static final int BATCH = -2;
+
+    private Puzzle<PicrossRule> puzzle;
+    private final Board board;
+    private final ImmutableList<Approach<PicrossRule>> approaches;
+    private final Optional<BatchLineSolver> batchLineSolver;
+    private final Tracer tracer;
+    private final ImmutableList<String> approachNames;
+
+    private final SegmentRanges[] rowRanges;
+    private final SegmentRanges[] columnRanges;
+    /** Tables for each row and column, or null if the line is too long for one. */
+    private final LineTable[] rowTables;
+    private final LineTable[] columnTables;
+    private final BitSet dirtyRows;
+    private final BitSet dirtyColumns;
+    private final Changes changes;
+    /** Lines handed to the approaches, overwritten for each row or column so solving a line doesn't allocate one. */
+    private final Line rowLine;
+    private final Line columnLine;
+    /** Lines read off of the board, reused for every line that's solved. */
+    private final PackedLine rowPacked;
+    private final PackedLine columnPacked;
+    /** Lines that tables solve into and that writes compare against the board, reused like the lines above. */
+    private final PackedLine rowScratch;
+    private final PackedLine columnScratch;
+    /** Number of squares set so far, for events to report how many squares they changed. */
+    private long squaresSet;
+    /** Number of propagation rounds run so far. */
+    private long rounds;
+    /** Whether lines are solved by the approaches first, before the segment ranges, and never by tables. */
+    private boolean simplestFirst;
+
+    /** Reason for each square as row * width + column, or null if reasons aren't tracked. */
+    private long[] reasons;
+    /** Reason given to squares as they're set. */
+    private long currentReason;
+    /** Reason for the last contradiction. */
+    private long conflict;
+
+    /** Line each square was deduced from as a line id, or null if dependencies aren't tracked. */
+    private int[] sources;
+    /** Order each square was set in, so dependencies can be replayed in order. */
+    private int[] setOrder;
+    private int nextOrder;
+    /** Source given to squares as they're set. */
+    private int currentSource = ASSUMED;
+
+    /** Squares set since the first mark as row * width + column, so they can be undone. */
+    private int[] trail;
+    private int trailSize;
+    /** Ranges as they were before being tightened since the first mark. */
+    private final List<SavedRanges> savedRanges;
+    /** Generation that each line's ranges were last saved in - rows first, then columns. */
+    private final int[] savedAt;
+    private int generation;
+    private boolean trailing;
+
+    public Propagator(Puzzle<PicrossRule> puzzle, Board board, ImmutableList<Approach<PicrossRule>> approaches,
+                      Optional<BatchLineSolver> batchLineSolver) {
+        this(puzzle, board, approaches, batchLineSolver, Tracer.DISABLED);
+    }
+
+    /**
+     * Creates a propagator that reports each line it solves to the given tracer.  Approach ids passed to the tracer
+     * are the ones in {@link Tracer}, followed by the given approaches in order.
+     *
+     * @param puzzle Puzzle to propagate.
+     * @param board Board to write squares to.
+     * @param approaches Approaches to apply to each line.
+     * @param batchLineSolver Batch line solver to finish each round with, if any.
+     * @param tracer Tracer.
+     */
+    public Propagator(Puzzle<PicrossRule> puzzle, Board board, ImmutableList<Approach<PicrossRule>> approaches,
+                      Optional<BatchLineSolver> batchLineSolver, Tracer tracer) {
+        this.puzzle = puzzle;
+        this.board = board;
+        this.approaches = approaches;
+        this.batchLineSolver = batchLineSolver;
+        this.tracer = tracer;
+        this.approachNames = approachNames(approaches);
+
+        this.rowRanges = new SegmentRanges[puzzle.height];
+        this.columnRanges = new SegmentRanges[puzzle.width];
+        for (int row = 0; row < puzzle.height; row ++) {
+            rowRanges[row] = new SegmentRanges(puzzle.rowRule(row), puzzle.width);
+        }
+        for (int column = 0; column < puzzle.width; column ++) {
+            columnRanges[column] = new SegmentRanges(puzzle.columnRule(column), puzzle.height);
+        }
+
+        this.rowTables = new LineTable[puzzle.height];
+        this.columnTables = new LineTable[puzzle.width];
+        if (puzzle.width <= LineTable.MAX_LENGTH) {
+            for (int row = 0; row < puzzle.height; row ++) {
+                rowTables[row] = LineTable.of(puzzle.rowRule(row), puzzle.width);
+            }
+        }
+        if (puzzle.height <= LineTable.MAX_LENGTH) {
+            for (int column = 0; column < puzzle.width; column ++) {
+                columnTables[column] = LineTable.of(puzzle.columnRule(column), puzzle.height);
+            }
+        }
+
+        this.dirtyRows = new BitSet(puzzle.height);
+        this.dirtyColumns = new BitSet(puzzle.width);
+        this.dirtyRows.set(0, puzzle.height);
+        this.dirtyColumns.set(0, puzzle.width);
+        this.changes = new Changes();
+        this.rowLine = Grid.empty(1, puzzle.width).build().row(0);
+        this.columnLine = Grid.empty(1, puzzle.height).build().row(0);
+        this.rowPacked = new PackedLine(puzzle.width);
+        this.columnPacked = new PackedLine(puzzle.height);
+        this.rowScratch = new PackedLine(puzzle.width);
+        this.columnScratch = new PackedLine(puzzle.height);
+
+        this.trail = new int[0];
+        this.savedRanges = new ArrayList<>();
+        this.savedAt = new int[puzzle.height + puzzle.width];
+    }
+
+    private Propagator(Propagator propagator) {
+        this.puzzle = propagator.puzzle;
+        this.board = propagator.board.copy();
+        this.approaches = propagator.approaches;
+        this.batchLineSolver = propagator.batchLineSolver;
+        this.tracer = Tracer.DISABLED;
+        this.approachNames = propagator.approachNames;
+
+        this.rowRanges = new SegmentRanges[puzzle.height];
+        this.columnRanges = new SegmentRanges[puzzle.width];
+        for (int row = 0; row < puzzle.height; row ++) {
+            rowRanges[row] = propagator.rowRanges[row].copy();
+        }
+        for (int column = 0; column < puzzle.width; column ++) {
+            columnRanges[column] = propagator.columnRanges[column].copy();
+        }
+
+        this.rowTables = propagator.rowTables.clone();
+        this.columnTables = propagator.columnTables.clone();
+        this.simplestFirst = propagator.simplestFirst;
+
+        this.dirtyRows = (BitSet) propagator.dirtyRows.clone();
+        this.dirtyColumns = (BitSet) propagator.dirtyColumns.clone();
+        this.changes = new Changes();
+        this.rowLine = Grid.empty(1, puzzle.width).build().row(0);
+        this.columnLine = Grid.empty(1, puzzle.height).build().row(0);
+        this.rowPacked = new PackedLine(puzzle.width);
+        this.columnPacked = new PackedLine(puzzle.height);
+        this.rowScratch = new PackedLine(puzzle.width);
+        this.columnScratch = new PackedLine(puzzle.height);
+
+        this.trail = new int[0];
+        this.savedRanges = new ArrayList<>();
+        this.savedAt = new int[puzzle.height + puzzle.width];
+    }
+
+    /**
+     * Returns the puzzle being propagated.
+     *
+     * @return Puzzle.
+     */
+    public Puzzle<PicrossRule> puzzle() {
+        return puzzle;
+    }
+
+    /**
+     * Returns the board that the propagator writes squares to.
+     *
+     * @return Board.
+     */
+    public Board board() {
+        return board;
+    }
+
+    /**
+     * Returns the ranges of the segments in the given line's rule.
+     *
+     * @param type Type of line.
+     * @param index Index of the row or column.
+     * @return Segment ranges for the line.
+     */
+    public SegmentRanges ranges(LineType type, int index) {
+        return type == ROW ? rowRanges[index] : columnRanges[index];
+    }
+
+    /**
+     * Sets the square on the board and marks its row and column dirty, so the next call to {@link #propagate()}
+     * follows the consequences of the assumption.
+     *
+     * @param row Row of the square.
+     * @param column Column of the square.
+     * @param square FILLED or GAP.
+     */
+    public void assume(int row, int column, Square square) {
+        assume(row, column, square, ALL_REASONS);
+    }
+
+    /**
+     * Assumes a square like {@link #assume(int, int, Square)}, giving the reason for the assumption when reasons are
+     * being tracked.
+     *
+     * @param row Row of the square.
+     * @param column Column of the square.
+     * @param square FILLED or GAP.
+     * @param reason Reason for the assumption - usually a single bit for the search decision that assumed it.
+     */
+    public void assume(int row, int column, Square square, long reason) {
+        Preconditions.checkArgument(square != Square.EMPTY, "Can't assume an EMPTY square.");
+        Preconditions.checkArgument(board.get(row, column) == Square.EMPTY,
+                "Square at (%s, %s) is already decided.", row, column);
+
+        currentReason = reason;
+        currentSource = ASSUMED;
+        set(row, column, square);
+        dirtyRows.set(row);
+        dirtyColumns.set(column);
+    }
+
+    /**
+     * Solves lines with the approaches before falling back on the segment ranges, and never with line tables, so a
+     * tracer sees each square credited to the simplest approach that could deduce it.  Lines settle on the same
+     * squares either way, just more slowly.
+     */
+    public void solveSimplestFirst() {
+        simplestFirst = true;
+        Arrays.fill(rowTables, null);
+        Arrays.fill(columnTables, null);
+    }
+
+    /**
+     * Returns the number of propagation rounds run so far.  Each round solves every dirty column, then every dirty
+     * row.
+     *
+     * @return Number of rounds.
+     */
+    public long rounds() {
+        return rounds;
+    }
+
+    /**
+     * Starts tracking the reason for each square that gets set.  A reason is a set of bits, one for each assumption
+     * the square depends on.  Squares deduced from a line depend on everything the line's decided squares depend on,
+     * so when a line contradicts its rule, the union of its squares' reasons is a set of assumptions that can't all
+     * hold at once.  Squares set before tracking starts, or by a batch line solver, depend on every assumption.
+     */
+    public void trackReasons() {
+        if (reasons == null) {
+            reasons = new long[puzzle.height * puzzle.width];
+            Arrays.fill(reasons, ALL_REASONS);
+            for (int row = 0; row < puzzle.height; row ++) {
+                for (int column = 0; column < puzzle.width; column ++) {
+                    if (board.get(row, column) == Square.EMPTY) {
+                        reasons[row * puzzle.width + column] = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the reason for a decided square, if reasons are being tracked.
+     *
+     * @param row Row of the square.
+     * @param column Column of the square.
+     * @return Bits for the assumptions the square depends on.
+     */
+    public long reason(int row, int column) {
+        Preconditions.checkState(reasons != null, "Reasons aren't being tracked.");
+        return reasons[row * puzzle.width + column];
+    }
+
+    /**
+     * Returns the assumptions that led to the last contradiction, if reasons are being tracked.
+     *
+     * @return Bits for the assumptions that can't all hold at once.
+     */
+    public long conflict() {
+        Preconditions.checkState(reasons != null, "Reasons aren't being tracked.");
+        return conflict;
+    }
+
+    /**
+     * Starts tracking the line each square was deduced from, so {@link #changeRule} can retract only the squares that
+     * depended on a changed rule.  Must be called before anything is propagated.
+     */
+    public void trackDependencies() {
+        Preconditions.checkState(squaresSet == 0, "Dependencies must be tracked from the start.");
+
+        if (sources == null) {
+            sources = new int[puzzle.height * puzzle.width];
+            setOrder = new int[puzzle.height * puzzle.width];
+        }
+    }
+
+    /**
+     * Changes the rule for a row or column, retracting every square that was deduced from the old rule.  A square
+     * deduced from a line depends on the squares that were already on that line, so squares are replayed in the order
+     * they were set: a square is retracted if it came from the changed line, or from a line that already had a
+     * retracted square on it.  Squares from a batch line solver are retracted once anything before them is, and
+     * assumed squares are kept.  Everything else still follows from rules that haven't changed.
+     *
+     * Lines with retracted squares start their ranges over and are marked dirty, along with the changed line, so the
+     * next {@link #propagate()} only redoes the work that the change invalidated.
+     *
+     * @param type Type of line.
+     * @param index Index of the row or column.
+     * @param rule New rule for the line.
+     * @return Number of squares retracted.
+     */
+    public int changeRule(LineType type, int index, PicrossRule rule) {
+        Preconditions.checkState(sources != null, "Dependencies aren't being tracked.");
+        Preconditions.checkState(!trailing, "Can't change rules after marking.");
+        Preconditions.checkElementIndex(index, type == ROW ? puzzle.height : puzzle.width);
+
+        int length = type == ROW ? puzzle.width : puzzle.height;
+        Preconditions.checkArgument(rule.minimumLength() <= length, "Rule doesn't fit in a line of %s squares.", length);
+
+        puzzle = puzzle.withRule(type, index, rule);
+        int changed = type == ROW ? index : puzzle.height + index;
+
+        // Replay the decided squares in the order they were set.
+        long[] decided = new long[puzzle.height * puzzle.width];
+        int count = 0;
+        for (int row = 0; row < puzzle.height; row ++) {
+            for (int column = 0; column < puzzle.width; column ++) {
+                if (board.get(row, column) != Square.EMPTY) {
+                    int cell = row * puzzle.width + column;
+                    decided[count ++] = (long) setOrder[cell] << 32 | cell;
+                }
+            }
+        }
+        Arrays.sort(decided, 0, count);
+
+        BitSet tainted = new BitSet(puzzle.height + puzzle.width);
+        int retracted = 0;
+        for (int i = 0; i < count; i ++) {
+            int cell = (int) decided[i];
+            int source = sources[cell];
+
+            boolean dependent = source == changed
+                    || (source >= 0 && tainted.get(source))
+                    || (source == BATCH && !tainted.isEmpty());
+            if (dependent) {
+                int row = cell / puzzle.width;
+                int column = cell % puzzle.width;
+
+                board.set(row, column, Square.EMPTY);
+                tainted.set(row);
+                tainted.set(puzzle.height + column);
+                retracted ++;
+            }
+        }
+        tainted.set(changed);
+
+        for (int line = tainted.nextSetBit(0); line != -1; line = tainted.nextSetBit(line + 1)) {
+            if (line < puzzle.height) {
+                rowRanges[line] = new SegmentRanges(puzzle.rowRule(line), puzzle.width);
+                dirtyRows.set(line);
+            } else {
+                int column = line - puzzle.height;
+                columnRanges[column] = new SegmentRanges(puzzle.columnRule(column), puzzle.height);
+                dirtyColumns.set(column);
+            }
+        }
+
+        if (length <= LineTable.MAX_LENGTH && !simplestFirst) {
+            LineTable table = LineTable.of(rule, length);
+            if (type == ROW) {
+                rowTables[index] = table;
+            } else {
+                columnTables[index] = table;
+            }
+        }
+
+        board.flush();
+        return retracted;
+    }
+
+    /**
+     * Marks the current state of the propagator so it can be restored with {@link #undo(Mark)}.  Marks can only be
+     * taken once propagation is done, since undoing doesn't bring back dirty lines.
+     *
+     * @return Mark for the current state.
+     */
+    public Mark mark() {
+        Preconditions.checkState(dirtyRows.isEmpty() && dirtyColumns.isEmpty(), "Propagate before marking.");
+
+        trailing = true;
+        generation ++;
+        return new Mark(trailSize, savedRanges.size());
+    }
+
+    /**
+     * Restores the board and segment ranges to the state they were in when the mark was taken.  The mark stays valid,
+     * so a search can undo one branch and try another from the same mark.
+     *
+     * @param mark Mark returned by {@link #mark()}.
+     */
+    public void undo(Mark mark) {
+        Preconditions.checkArgument(mark.squares <= trailSize && mark.ranges <= savedRanges.size(),
+                "Mark has already been undone.");
+
+        int width = puzzle.width;
+        for (int i = trailSize - 1; i >= mark.squares; i --) {
+            board.set(trail[i] / width, trail[i] % width, Square.EMPTY);
+        }
+        trailSize = mark.squares;
+
+        for (int i = savedRanges.size() - 1; i >= mark.ranges; i --) {
+            SavedRanges saved = savedRanges.remove(i);
+            if (saved.line < puzzle.height) {
+                rowRanges[saved.line] = saved.ranges;
+            } else {
+                columnRanges[saved.line - puzzle.height] = saved.ranges;
+            }
+        }
+
+        dirtyRows.clear();
+        dirtyColumns.clear();
+
+        // Ranges tightened after this point need to be saved again.
+        generation ++;
+    }
+
+    /**
+     * Returns the squares set since the mark was taken, in the order they were set.
+     *
+     * @param mark Mark returned by {@link #mark()} that hasn't been undone past.
+     * @return Squares as row * width + column.
+     */
+    public int[] setSince(Mark mark) {
+        Preconditions.checkArgument(mark.squares <= trailSize, "Mark has already been undone.");
+
+        return Arrays.copyOfRange(trail, mark.squares, trailSize);
+    }
+
+    /**
+     * Returns a copy of this propagator with its own board, ranges, and dirty lines, so it can explore a different
+     * branch of a search.  The copy doesn't share marks with this propagator, isn't traced, and doesn't track
+     * reasons or dependencies.  It does share the batch line solver, so copies that propagate on different threads
+     * shouldn't use one.
+     *
+     * @return Copy of the propagator.
+     */
+    public Propagator copy() {
+        return new Propagator(this);
+    }
+
+    /**
+     * Returns whether every square on the board is decided and every line matches its rule.
+     *
+     * @return Whether the board is a solution to the puzzle.
+     */
+    public boolean isSolved() {
+        for (int row = 0; row < puzzle.height; row ++) {
+            if (!matches(puzzle.rowRule(row), read(ROW, row, rowPacked))) {
+                return false;
+            }
+        }
+
+        for (int column = 0; column < puzzle.width; column ++) {
+            if (!matches(puzzle.columnRule(column), read(COLUMN, column, columnPacked))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Solves dirty lines until none are left.
+     *
+     * @return Whether the squares on the board are consistent with the puzzle - false if a line contradicts its rule.
+     */
+    public boolean propagate() {
+        while (!dirtyRows.isEmpty() || !dirtyColumns.isEmpty()) {
+            PropagationRoundEvent event = null;
+            if (PropagationRoundEvent.TYPE.isEnabled()) {
+                event = new PropagationRoundEvent();
+                event.height = puzzle.height;
+                event.width = puzzle.width;
+                event.dirtyRows = dirtyRows.cardinality();
+                event.dirtyColumns = dirtyColumns.cardinality();
+                event.begin();
+            }
+
+            long before = squaresSet;
+            boolean consistent = propagateRound();
+            rounds ++;
+
+            if (event != null) {
+                event.cellsChanged = squaresSet - before;
+                event.commit();
+            }
+
+            if (!consistent) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Solves every dirty column, then every dirty row, then the batches if there's a batch line solver.
+     */
+    private boolean propagateRound() {
+        if (!applyApproaches(COLUMN, dirtyColumns, dirtyRows) || !applyApproaches(ROW, dirtyRows, dirtyColumns)) {
+            return false;
+        }
+
+        if (batchLineSolver.isPresent()) {
+            if (!solveBatch(ROW, dirtyRows, dirtyColumns) || !solveBatch(COLUMN, dirtyColumns, dirtyRows)) {
+                return false;
+            }
+        }
+
+        board.flush();
+        return true;
+    }
+
+    /**
+     * Applies the segment ranges and each approach to each dirty line, writing changed squares to the board, until
+     * the line stops changing.  Approaches only see a copy of the line, so the memory used for each approach depends
+     * on the length of the line instead of the size of the board.  Dirty lines stay dirty if there's a batch line
+     * solver so it sees them too.
+     */
+    private boolean applyApproaches(LineType type, BitSet dirty, BitSet crossingDirty) {
+        for (int index = dirty.nextSetBit(0); index != -1; index = dirty.nextSetBit(index + 1)) {
+            LineSolveEvent event = null;
+            if (LineSolveEvent.TYPE.isEnabled()) {
+                event = new LineSolveEvent();
+                event.lineType = type.name();
+                event.index = index;
+                event.length = type == ROW ? puzzle.width : puzzle.height;
+                event.begin();
+            }
+
+            long before = squaresSet;
+            boolean consistent = solveLine(type, index, crossingDirty);
+
+            if (event != null) {
+                event.cellsChanged = squaresSet - before;
+                event.commit();
+            }
+
+            if (!consistent) {
+                return false;
+            }
+
+            if (batchLineSolver.isEmpty()) {
+                dirty.clear(index);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Solves one line with its table, or with the segment ranges and approaches until it stops changing.
+     *
+     * @return Whether the line is consistent with its rule.
+     */
+    private boolean solveLine(LineType type, int index, BitSet crossingDirty) {
+        PicrossRule rule = type == ROW ? puzzle.rowRule(index) : puzzle.columnRule(index);
+        LineTable table = type == ROW ? rowTables[index] : columnTables[index];
+        SegmentRanges ranges = ranges(type, index);
+        PackedLine packed = read(type, index, type == ROW ? rowPacked : columnPacked);
+        tracer.line(type, index);
+        currentSource = type == ROW ? index : puzzle.height + index;
+
+        if (reasons != null) {
+            // Everything deduced from the line, including a contradiction, depends on the line's decided squares.
+            currentReason = lineReason(type, index, packed);
+            conflict = currentReason;
+        }
+
+        if (table != null) {
+            // The table already has every deduction for the line, so there's nothing left for the approaches.
+            ApproachEvent event = beginApproach(Tracer.LINE_TABLE, type, index);
+            PackedLine solved = (type == ROW ? rowScratch : columnScratch).copyFrom(packed);
+            if (!table.solve(solved)) {
+                endApproach(event, Tracer.LINE_TABLE, Status.CONTRADICTION, 0);
+                return false;
+            }
+
+            int cells = differences(packed, solved);
+            endApproach(event, Tracer.LINE_TABLE, cells == 0 ? Status.UNCHANGED : Status.CHANGED, cells);
+            write(type, index, packed, solved, crossingDirty);
+
+            save(type, index, ranges);
+            return ranges.tighten(solved);
+        }
+
+        boolean changed;
+        do {
+            if (simplestFirst) {
+                // Only fall back on the ranges once none of the approaches can make progress on their own.
+                Status status = applyEach(rule, type, index, packed, crossingDirty);
+                if (status == Status.CONTRADICTION) {
+                    return false;
+                }
+
+                if (status == Status.CHANGED) {
+                    changed = true;
+                    continue;
+                }
+            }
+
+            save(type, index, ranges);
+            if (!ranges.tighten(packed)) {
+                return false;
+            }
+
+            ApproachEvent event = beginApproach(Tracer.SEGMENT_RANGES, type, index);
+            Line line = toLine(type, packed);
+            Status status = SEGMENT_RANGE.apply(ranges, line, changes);
+            endApproach(event, Tracer.SEGMENT_RANGES, status, changes.size());
+            if (status == Status.CONTRADICTION) {
+                return false;
+            }
+
+            changed = write(type, index, status, line, packed, crossingDirty);
+
+            if (!simplestFirst) {
+                status = applyEach(rule, type, index, packed, crossingDirty);
+                if (status == Status.CONTRADICTION) {
+                    return false;
+                }
+
+                changed |= status == Status.CHANGED;
+            }
+        } while (changed);
+
+        return true;
+    }
+
+    /**
+     * Applies each approach to the line once, in order.
+     *
+     * @return CONTRADICTION if an approach contradicts the line, CHANGED if any of them changed it, or UNCHANGED.
+     */
+    private Status applyEach(PicrossRule rule, LineType type, int index, PackedLine packed, BitSet crossingDirty) {
+        boolean changed = false;
+        for (int approach = 0; approach < approaches.size(); approach ++) {
+            ApproachEvent event = beginApproach(Tracer.FIRST_APPROACH + approach, type, index);
+            Line line = toLine(type, packed);
+            Status status = approaches.get(approach).apply(rule, line, changes);
+            endApproach(event, Tracer.FIRST_APPROACH + approach, status, changes.size());
+            if (status == Status.CONTRADICTION) {
+                return Status.CONTRADICTION;
+            }
+
+            changed |= write(type, index, status, line, packed, crossingDirty);
+        }
+
+        return changed ? Status.CHANGED : Status.UNCHANGED;
+    }
+
+    /**
+     * Starts an event for applying an approach, or returns null if approach events are disabled.
+     */
+    private ApproachEvent beginApproach(int approach, LineType type, int index) {
+        if (!ApproachEvent.TYPE.isEnabled()) {
+            return null;
+        }
+
+        ApproachEvent event = new ApproachEvent();
+        event.approach = approachNames.get(approach);
+        event.lineType = type.name();
+        event.index = index;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Reports the result of applying an approach to the tracer, and commits its event if there is one.
+     */
+    private void endApproach(ApproachEvent event, int approach, Status status, int cells) {
+        tracer.approach(approach, status);
+
+        if (event != null) {
+            event.status = status.name();
+            event.cellsChanged = status == Status.CHANGED ? cells : 0;
+            event.commit();
+        }
+    }
+
+    private static int differences(PackedLine before, PackedLine after) {
+        int differences = 0;
+        for (int word = 0; word < before.words(); word ++) {
+            differences += Long.bitCount((before.filledWord(word) ^ after.filledWord(word))
+                    | (before.gapWord(word) ^ after.gapWord(word)));
+        }
+
+        return differences;
+    }
+
+    /**
+     * Writes the changed squares in the line to the packed copy of the line and the board.
+     *
+     * @return Whether anything changed.
+     */
+    private boolean write(LineType type, int index, Status status, Line line, PackedLine packed,
+                          BitSet crossingDirty) {
+        if (status != Status.CHANGED) {
+            return false;
+        }
+
+        for (int change = 0; change < changes.size(); change ++) {
+            int i = changes.get(change);
+            Square square = line.get(i);
+
+            packed.set(i, square);
+            set(type == ROW ? index : i, type == ROW ? i : index, square);
+            tracer.change(i, square);
+            crossingDirty.set(i);
+        }
+
+        return true;
+    }
+
+    /**
+     * Solves dirty lines as one batch, marking the crossing lines of every changed square dirty.
+     * Every row has the same length, as does every column.
+     */
+    private boolean solveBatch(LineType type, BitSet dirty, BitSet crossingDirty) {
+        List<Integer> indexes = new ArrayList<>(dirty.cardinality());
+        List<PicrossRule> rules = new ArrayList<>(dirty.cardinality());
+        List<PackedLine> lines = new ArrayList<>(dirty.cardinality());
+
+        for (int index = dirty.nextSetBit(0); index != -1; index = dirty.nextSetBit(index + 1)) {
+            indexes.add(index);
+            rules.add(type == ROW ? puzzle.rowRule(index) : puzzle.columnRule(index));
+            lines.add(read(type, index, new PackedLine(type == ROW ? board.width() : board.height())));
+        }
+        dirty.clear();
+
+        try {
+            if (batchLineSolver.get().solve(rules, lines) == 0) {
+                return true;
+            }
+        } catch (IllegalStateException e) {
+            // One of the rules can't be placed on its line.
+            conflict = ALL_REASONS;
+            return false;
+        }
+
+        // The batch doesn't say which lines each square came from.
+        currentReason = ALL_REASONS;
+        currentSource = BATCH;
+
+        PackedLine current = type == ROW ? rowScratch : columnScratch;
+        for (int line = 0; line < lines.size(); line ++) {
+            read(type, indexes.get(line), current);
+            if (tracer != Tracer.DISABLED) {
+                // Only compare lines with the board when tracing, to tell wasted batch lines apart.
+                boolean unchanged = current.equals(lines.get(line));
+                tracer.line(type, indexes.get(line));
+                tracer.approach(Tracer.BATCH, unchanged ? Status.UNCHANGED : Status.CHANGED);
+            }
+
+            write(type, indexes.get(line), current, lines.get(line), crossingDirty);
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads the line off of the board into the given line, which is usually one of the propagator's buffers.
+     */
+    private PackedLine read(LineType type, int index, PackedLine line) {
+        return type == ROW ? board.readRow(index, line) : board.readColumn(index, line);
+    }
+
+    /**
+     * Writes squares in the line that differ from the board, marking the crossing lines of changed squares dirty.
+     * Compares the line with the board's current squares 64 at a time, so unchanged stretches are skipped.
+     *
+     * @param current Squares on the board's line, as read before solving it.
+     * @param line Solved line.
+     */
+    private void write(LineType type, int index, PackedLine current, PackedLine line, BitSet crossingDirty) {
+        for (int word = 0; word < line.words(); word ++) {
+            long changed = (line.filledWord(word) ^ current.filledWord(word))
+                    | (line.gapWord(word) ^ current.gapWord(word));
+
+            for (; changed != 0; changed &= changed - 1) {
+                int i = (word << 6) + Long.numberOfTrailingZeros(changed);
+                int row = type == ROW ? index : i;
+                int column = type == ROW ? i : index;
+
+                set(row, column, line.get(i));
+                crossingDirty.set(i);
+                tracer.change(i, line.get(i));
+            }
+        }
+    }
+
+    /**
+     * Returns the names of the approaches a propagator with the given approaches reports to its tracer, indexed by
+     * approach id.
+     *
+     * @param approaches Approaches applied to each line.
+     * @return Approach names.
+     */
+    public static ImmutableList<String> approachNames(ImmutableList<Approach<PicrossRule>> approaches) {
+        ImmutableList.Builder<String> names = ImmutableList.<String>builder()
+                .add("SEGMENT_RANGES", "LINE_TABLE", "BATCH");
+        for (Approach<PicrossRule> approach : approaches) {
+            names.add(approach.toString());
+        }
+
+        return names.build();
+    }
+
+    /**
+     * Sets a square on the board, remembering it so it can be undone.
+     */
+    private void set(int row, int column, Square square) {
+        board.set(row, column, square);
+        squaresSet ++;
+
+        if (reasons != null) {
+            reasons[row * puzzle.width + column] = currentReason;
+        }
+
+        if (sources != null) {
+            sources[row * puzzle.width + column] = currentSource;
+            setOrder[row * puzzle.width + column] = nextOrder ++;
+        }
+
+        if (trailing) {
+            if (trailSize == trail.length) {
+                trail = Arrays.copyOf(trail, Math.max(16, trail.length * 2));
+            }
+
+            trail[trailSize ++] = row * puzzle.width + column;
+        }
+    }
+
+    /**
+     * Returns the union of the reasons for the decided squares on the line.
+     */
+    private long lineReason(LineType type, int index, PackedLine line) {
+        long reason = 0;
+        for (int word = 0; word < line.words(); word ++) {
+            for (long decided = line.filledWord(word) | line.gapWord(word); decided != 0; decided &= decided - 1) {
+                int i = (word << 6) + Long.numberOfTrailingZeros(decided);
+                reason |= type == ROW ? reasons[index * puzzle.width + i] : reasons[i * puzzle.width + index];
+            }
+        }
+
+        return reason;
+    }
+
+    /**
+     * Saves the line's ranges before they're tightened, once per generation.
+     */
+    private void save(LineType type, int index, SegmentRanges ranges) {
+        int line = type == ROW ? index : puzzle.height + index;
+        if (trailing && savedAt[line] != generation) {
+            savedAt[line] = generation;
+            savedRanges.add(new SavedRanges(line, ranges.copy()));
+        }
+    }
+
+    /**
+     * Returns whether the line is solved and its runs of FILLED squares match the rule's segments.
+     */
+    private static boolean matches(PicrossRule rule, PackedLine line) {
+        return line.isSolved() && SolutionVerifier.matches(rule, line);
+    }
+
+    private Line toLine(LineType type, PackedLine packed) {
+        return packed.writeTo(type == ROW ? rowLine : columnLine);
+    }
+
+    /**
+     * Mark is a point that the propagator can be restored to.
+     */
+    public static final class Mark {
+        private final int squares;
+        private final int ranges;
+
+        private Mark(int squares, int ranges) {
+            this.squares = squares;
+            this.ranges = ranges;
+        }
+    }
+
+    private static final class SavedRanges {
+        private final int line;
+        private final SegmentRanges ranges;
+
+        private SavedRanges(int line, SegmentRanges ranges) {
+            this.line = line;
+            this.ranges = ranges;
+        }
+    }
+}
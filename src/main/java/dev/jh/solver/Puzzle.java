@@ -34,6 +34,28 @@ public class Puzzle<R extends Rule> {
         return columnRules.get(Preconditions.checkPositionIndex(column, columnRules.size(), "Column"));
     }
 
+    /**
+     * Returns a copy of this puzzle with a different rule for one row or column.
+     *
+     * @param type Type of line.
+     * @param index Index of the row or column.
+     * @param rule New rule for the line.
+     * @return Changed puzzle.
+     */
+    public Puzzle<R> withRule(LineType type, int index, R rule) {
+        Preconditions.checkElementIndex(index, type == LineType.ROW ? height : width);
+
+        Builder<R> builder = newBuilder(this.type, height, width);
+        for (int row = 0; row < height; row ++) {
+            builder.addRowRule(type == LineType.ROW && row == index ? rule : rowRule(row));
+        }
+        for (int column = 0; column < width; column ++) {
+            builder.addColumnRule(type == LineType.COLUMN && column == index ? rule : columnRule(column));
+        }
+
+        return builder.build();
+    }
+
     public static <R extends Rule> Builder<R> newBuilder(PuzzleType type, int height, int width) {
         return new Builder<>(type, height, width);
     }
@@ -53,12 +75,12 @@ public class Puzzle<R extends Rule> {
             this.columnRules = new ArrayList<>(width);
         }
 
-        public Builder addRowRule(R rule) {
+        public Builder<R> addRowRule(R rule) {
             this.rowRules.add(rule);
             return this;
         }
 
-        public Builder addColumnRule(R rule) {
+        public Builder<R> addColumnRule(R rule) {
             this.columnRules.add(rule);
             return this;
         }
@@ -0,0 +1,196 @@
+package dev.jh.solver;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.line.PackedLine;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * SolutionVerifier checks grids against a puzzle's rules directly, without solving the puzzle.  Each line is packed
+ * into 64-bit words of FILLED squares, and its runs are found a word at a time by scanning for the next set and clear
+ * bits, so checking a line costs a few operations per run rather than per square.
+ *
+ * Any square that isn't FILLED counts as a gap, so grids that only mark their FILLED squares can be verified too.
+ */
+public class SolutionVerifier {
+    private final ForkJoinPool pool;
+
+    public SolutionVerifier() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a verifier that checks batches of grids in the given pool.
+     *
+     * @param pool Pool to verify batches in.
+     */
+    public SolutionVerifier(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the first line of the grid that doesn't match its rule, checking rows before columns.
+     *
+     * @param puzzle Puzzle the grid should solve.
+     * @param grid Grid to check, with the puzzle's size.
+     * @return First mismatching line, or empty if the grid solves the puzzle.
+     */
+    public Optional<Mismatch> verify(Puzzle<PicrossRule> puzzle, Grid grid) {
+        Preconditions.checkArgument(grid.height == puzzle.height && grid.width == puzzle.width,
+                "Grid is %sx%s, but the puzzle is %sx%s.", grid.height, grid.width, puzzle.height, puzzle.width);
+
+        PackedLine row = new PackedLine(grid.width);
+        long[][] columns = new long[grid.width][PackedLine.words(grid.height)];
+
+        for (int r = 0; r < grid.height; r ++) {
+            long word = 0;
+            List<Square> squares = grid.squares.get(r);
+
+            for (int c = 0; c < grid.width; c ++) {
+                if (squares.get(c) == Square.FILLED) {
+                    word |= 1L << c;
+                    columns[c][r >>> 6] |= 1L << r;
+                }
+
+                if ((c & 63) == 63 || c == grid.width - 1) {
+                    row.setWord(c >>> 6, word, ~word & PackedLine.mask(grid.width, c >>> 6));
+                    word = 0;
+                }
+            }
+
+            if (!matches(puzzle.rowRule(r), row)) {
+                return Optional.of(new Mismatch(LineType.ROW, r));
+            }
+        }
+
+        PackedLine column = new PackedLine(grid.height);
+        for (int c = 0; c < grid.width; c ++) {
+            for (int word = 0; word < column.words(); word ++) {
+                column.setWord(word, columns[c][word], ~columns[c][word] & PackedLine.mask(grid.height, word));
+            }
+
+            if (!matches(puzzle.columnRule(c), column)) {
+                return Optional.of(new Mismatch(LineType.COLUMN, c));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Verifies a batch of grids against the same puzzle in parallel.
+     *
+     * @param puzzle Puzzle the grids should solve.
+     * @param grids Grids to check.
+     * @return First mismatching line of each grid, in the same order as the grids.
+     */
+    public ImmutableList<Optional<Mismatch>> verifyAll(Puzzle<PicrossRule> puzzle, List<Grid> grids) {
+        // Running the parallel stream from inside the pool keeps its work in the pool.
+        return pool.submit(() -> IntStream.range(0, grids.size())
+                .parallel()
+                .mapToObj(i -> verify(puzzle, grids.get(i)))
+                .collect(ImmutableList.toImmutableList()))
+                .join();
+    }
+
+    /**
+     * Returns whether the runs of FILLED squares on the line match the rule's segments.  Squares that aren't FILLED
+     * count as gaps.  A rule with a single segment of 0 matches a line with no FILLED squares.
+     *
+     * @param rule Rule.
+     * @param line Line to check.
+     * @return Whether the line's runs match the rule.
+     */
+    public static boolean matches(PicrossRule rule, PackedLine line) {
+        int segments = rule.minimumLength() == 0 ? 0 : rule.segments.size();
+        int segment = 0;
+
+        for (int start = nextFilled(line, 0); start != -1; ) {
+            int end = nextUnfilled(line, start);
+            if (segment == segments || rule.segments.get(segment) != end - start) {
+                return false;
+            }
+
+            segment ++;
+            start = end == line.length ? -1 : nextFilled(line, end);
+        }
+
+        return segment == segments;
+    }
+
+    /**
+     * Returns the first FILLED square at or after the index, or -1 if there isn't one.
+     */
+    private static int nextFilled(PackedLine line, int index) {
+        int word = index >>> 6;
+        long bits = line.filledWord(word) & (-1L << index);
+
+        while (bits == 0) {
+            if (++ word == line.words()) {
+                return -1;
+            }
+            bits = line.filledWord(word);
+        }
+
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Returns the first square at or after the index that isn't FILLED, or the line's length if there isn't one.
+     */
+    private static int nextUnfilled(PackedLine line, int index) {
+        int word = index >>> 6;
+        long bits = ~line.filledWord(word) & (-1L << index);
+
+        while (bits == 0) {
+            if (++ word == line.words()) {
+                return line.length;
+            }
+            bits = ~line.filledWord(word);
+        }
+
+        return Math.min(line.length, (word << 6) + Long.numberOfTrailingZeros(bits));
+    }
+
+    /**
+     * Mismatch is a line whose squares don't match its rule.
+     */
+    public static final class Mismatch {
+        public final LineType type;
+        public final int index;
+
+        public Mismatch(LineType type, int index) {
+            this.type = type;
+            this.index = index;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Mismatch mismatch = (Mismatch) o;
+            return index == mismatch.index &&
+                    type == mismatch.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, index);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("type", type)
+                    .add("index", index)
+                    .toString();
+        }
+    }
+}
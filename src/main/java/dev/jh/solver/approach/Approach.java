@@ -1,10 +1,13 @@
 package dev.jh.solver.approach;
 
 import dev.jh.solver.Line;
+import dev.jh.solver.Square;
 import dev.jh.solver.rules.Rule;
 
 import java.util.Optional;
 
+import static dev.jh.solver.Square.EMPTY;
+
 public interface Approach<R extends Rule> {
 
     /**
@@ -15,4 +18,47 @@ public interface Approach<R extends Rule> {
      * @return New changed line, or empty.
      */
     Optional<Line> apply(R rule, Line line);
+
+    /**
+     * Applies the given rule to the line, recording the index of every square that changed.  Unlike
+     * {@link #apply(Rule, Line)}, callers can tell an approach that applied but didn't change anything apart from
+     * one that made progress, so they can skip work for lines that didn't change.
+     *
+     * The default diffs the line against a snapshot kept in the changes buffer, so it doesn't allocate.  Approaches
+     * that know which squares they set should override it and record changes as they go.
+     *
+     * @param rule Rule to apply to the line
+     * @param line Line to apply the rule to
+     * @param changes Buffer that's cleared, then filled with the indexes of changed squares.
+     * @return Status describing whether the approach applied and changed the line.
+     */
+    default Status apply(R rule, Line line, Changes changes) {
+        changes.clear();
+
+        // Approaches on the solver's hot path override this, so only the rest pay for snapshotting the line.
+        Square[] before = changes.before(line.length);
+        for (int i = 0; i < line.length; i ++) {
+            before[i] = line.get(i);
+        }
+
+        Optional<Line> applied = apply(rule, line);
+        if (applied.isEmpty()) {
+            return Status.NOT_APPLICABLE;
+        }
+
+        for (int i = 0; i < line.length; i ++) {
+            Square after = applied.get().get(i);
+            if (after == before[i]) {
+                continue;
+            }
+
+            if (before[i] != EMPTY) {
+                return Status.CONTRADICTION;
+            }
+
+            changes.add(i);
+        }
+
+        return changes.isEmpty() ? Status.UNCHANGED : Status.CHANGED;
+    }
 }
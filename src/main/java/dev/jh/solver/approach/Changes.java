@@ -0,0 +1,102 @@
+package dev.jh.solver.approach;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import dev.jh.solver.Line;
+import dev.jh.solver.Square;
+
+import java.util.Arrays;
+
+/**
+ * Changes is a reusable buffer holding the indexes of squares that an approach changed on a line.
+ * Solvers keep one buffer and clear it between lines, so recording changes doesn't allocate.
+ */
+public class Changes {
+    private int[] indexes = new int[16];
+    private int size = 0;
+    /** Squares on the line before an approach that only has the Optional API ran, for diffing afterwards. */
+    private Square[] before = new Square[0];
+
+    /**
+     * Records that the square at the given index changed.
+     *
+     * @param index Index of the changed square in the line.
+     * @return This buffer.
+     */
+    public Changes add(int index) {
+        if (size == indexes.length) {
+            indexes = Arrays.copyOf(indexes, size * 2);
+        }
+
+        indexes[size ++] = index;
+        return this;
+    }
+
+    /**
+     * Sets the square on the line if it's EMPTY, and records the change.
+     *
+     * @param line Line to set the square on.
+     * @param index Index of the square in the line.
+     * @param square FILLED or GAP.
+     * @return Whether the square is now the given square - false if it was already set to something else.
+     */
+    public boolean set(Line line, int index, Square square) {
+        Square current = line.get(index);
+        if (current == Square.EMPTY) {
+            line.set(index, square);
+            add(index);
+        }
+
+        return current == Square.EMPTY || current == square;
+    }
+
+    /**
+     * Returns the index of the nth change.
+     *
+     * @param change Change number, from 0 to {@link #size()} exclusive.
+     * @return Index of the changed square in the line.
+     */
+    public int get(int change) {
+        Preconditions.checkElementIndex(change, size, "Change");
+        return indexes[change];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all of the changes from this buffer.
+     *
+     * @return This buffer.
+     */
+    public Changes clear() {
+        size = 0;
+        return this;
+    }
+
+    /**
+     * Returns a buffer with room for a line's squares, reused between calls.
+     *
+     * @param length Length of the line.
+     * @return Buffer of at least the given length.
+     */
+    Square[] before(int length) {
+        if (before.length < length) {
+            before = new Square[length];
+        }
+
+        return before;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("indexes", Arrays.toString(Arrays.copyOf(indexes, size)))
+                .toString();
+    }
+}
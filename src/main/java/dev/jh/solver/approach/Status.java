@@ -0,0 +1,15 @@
+package dev.jh.solver.approach;
+
+/**
+ * Status describes the result of applying an approach to a line.
+ */
+public enum Status {
+    /** The approach doesn't apply to the rule and line. */
+    NOT_APPLICABLE,
+    /** The approach applies, but every square it would set was already set. */
+    UNCHANGED,
+    /** The approach changed at least one square. */
+    CHANGED,
+    /** The approach would change a FILLED square to a GAP or a GAP to a FILLED square - the line can't be solved. */
+    CONTRADICTION
+}
@@ -0,0 +1,69 @@
+package dev.jh.solver.approach.picross;
+
+import dev.jh.solver.Line;
+import dev.jh.solver.approach.Approach;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.Optional;
+
+import static dev.jh.solver.Square.EMPTY;
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+
+/**
+ * Approach that marks the rest of a line with GAPs once its FILLED squares already match every segment in the rule.
+ * Example: 2 1 on '.. .  ' is complete, so the line becomes '..x.xx'.
+ */
+public class CompletedLineApproach implements Approach<PicrossRule> {
+
+    @Override
+    public Optional<Line> apply(PicrossRule rule, Line line) {
+        return apply(rule, line, new Changes()) == Status.CHANGED ? Optional.of(line) : Optional.empty();
+    }
+
+    @Override
+    public Status apply(PicrossRule rule, Line line, Changes changes) {
+        changes.clear();
+        if (!isComplete(rule, line)) {
+            return Status.NOT_APPLICABLE;
+        }
+
+        for (int i = 0; i < line.length; i ++) {
+            if (line.get(i) == EMPTY) {
+                line.set(i, GAP);
+                changes.add(i);
+            }
+        }
+
+        return changes.isEmpty() ? Status.UNCHANGED : Status.CHANGED;
+    }
+
+    /**
+     * Returns whether the runs of FILLED squares on the line are exactly the segments in the rule.
+     *
+     * @param rule Rule to check.
+     * @param line Line to check.
+     * @return Whether the line's FILLED squares match the rule.
+     */
+    static boolean isComplete(PicrossRule rule, Line line) {
+        int segment = 0;
+        int run = 0;
+
+        for (int i = 0; i <= line.length; i ++) {
+            if (i < line.length && line.get(i) == FILLED) {
+                run ++;
+            } else if (run > 0) {
+                if (segment >= rule.segments.size() || rule.segments.get(segment) != run) {
+                    return false;
+                }
+
+                segment ++;
+                run = 0;
+            }
+        }
+
+        return segment == rule.segments.size();
+    }
+}
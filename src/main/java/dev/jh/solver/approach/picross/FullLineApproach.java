@@ -2,11 +2,15 @@ package dev.jh.solver.approach.picross;
 
 import dev.jh.solver.Line;
 import dev.jh.solver.approach.Approach;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
 import dev.jh.solver.rules.picross.PicrossRule;
 
 import java.util.Optional;
 
+import static dev.jh.solver.Square.EMPTY;
 import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
 
 /**
  * Approach that fills in all of the squares in a row or column if the rule size matches the row / column size.
@@ -16,10 +20,35 @@ public class FullLineApproach implements Approach<PicrossRule> {
 
     @Override
     public Optional<Line> apply(PicrossRule rule, Line line) {
-        if (rule.segments.size() != 1 || rule.segments.get(0) != line.length) {
+        if (!applies(rule, line)) {
             return Optional.empty();
         }
 
         return Optional.of(line.fill(0, line.length, FILLED));
     }
+
+    @Override
+    public Status apply(PicrossRule rule, Line line, Changes changes) {
+        changes.clear();
+        if (!applies(rule, line)) {
+            return Status.NOT_APPLICABLE;
+        }
+
+        for (int i = 0; i < line.length; i ++) {
+            if (line.get(i) == GAP) {
+                return Status.CONTRADICTION;
+            }
+
+            if (line.get(i) == EMPTY) {
+                line.set(i, FILLED);
+                changes.add(i);
+            }
+        }
+
+        return changes.isEmpty() ? Status.UNCHANGED : Status.CHANGED;
+    }
+
+    private boolean applies(PicrossRule rule, Line line) {
+        return rule.segments.size() == 1 && rule.segments.get(0) == line.length;
+    }
 }
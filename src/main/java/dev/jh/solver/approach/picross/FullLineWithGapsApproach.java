@@ -2,6 +2,8 @@ package dev.jh.solver.approach.picross;
 
 import dev.jh.solver.Line;
 import dev.jh.solver.approach.Approach;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
 import dev.jh.solver.rules.picross.PicrossRule;
 
 import java.util.Optional;
@@ -16,13 +18,7 @@ public class FullLineWithGapsApproach implements Approach<PicrossRule> {
 
     @Override
     public Optional<Line> apply(PicrossRule rule, Line line) {
-        // FullLineApproach handles single full-line segment.
-        if (rule.segments.size() == 1) {
-            return Optional.empty();
-        }
-
-        // Gaps take one square - check if the segments and gaps fill the whole line.
-        if (rule.minimumLength() != line.length) {
+        if (!applies(rule, line)) {
             return Optional.empty();
         }
 
@@ -35,4 +31,31 @@ public class FullLineWithGapsApproach implements Approach<PicrossRule> {
 
         return Optional.of(line);
     }
+
+    @Override
+    public Status apply(PicrossRule rule, Line line, Changes changes) {
+        changes.clear();
+        if (!applies(rule, line)) {
+            return Status.NOT_APPLICABLE;
+        }
+
+        int start = 0;
+        for (int segment : rule.segments) {
+            for (int i = start; i < start + segment; i ++) {
+                if (!changes.set(line, i, FILLED)) {
+                    return Status.CONTRADICTION;
+                }
+            }
+
+            start += segment + 1;
+        }
+
+        return changes.isEmpty() ? Status.UNCHANGED : Status.CHANGED;
+    }
+
+    private boolean applies(PicrossRule rule, Line line) {
+        // FullLineApproach handles single full-line segment.  Otherwise gaps take one square - check if the segments
+        // and gaps fill the whole line.
+        return rule.segments.size() != 1 && rule.minimumLength() == line.length;
+    }
 }
@@ -0,0 +1,98 @@
+package dev.jh.solver.approach.picross;
+
+import dev.jh.solver.Line;
+import dev.jh.solver.approach.Approach;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static dev.jh.solver.Square.EMPTY;
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+
+/**
+ * Approach that surrounds runs of FILLED squares with GAPs when the run is as long as the longest segment in the rule,
+ * since the run can't grow any longer.
+ * Example: 3 1 on '  ...  ' becomes ' x...x '.
+ */
+public class MaxedSegmentApproach implements Approach<PicrossRule> {
+
+    @Override
+    public Optional<Line> apply(PicrossRule rule, Line line) {
+        return apply(rule, line, new Changes()) == Status.CHANGED ? Optional.of(line) : Optional.empty();
+    }
+
+    @Override
+    public Status apply(PicrossRule rule, Line line, Changes changes) {
+        changes.clear();
+
+        // CompletedLineApproach fills every remaining square in lines that are already complete.
+        if (CompletedLineApproach.isComplete(rule, line)) {
+            return Status.NOT_APPLICABLE;
+        }
+
+        int longest = Collections.max(rule.segments);
+        boolean maxed = false;
+        int run = 0;
+
+        for (int i = 0; i <= line.length; i ++) {
+            if (i < line.length && line.get(i) == FILLED) {
+                run ++;
+                continue;
+            }
+
+            if (run == longest) {
+                maxed = true;
+                gap(line, i - run - 1, changes);
+                gap(line, i, changes);
+            }
+
+            run = 0;
+        }
+
+        return !maxed ? Status.NOT_APPLICABLE
+                : changes.isEmpty() ? Status.UNCHANGED
+                : Status.CHANGED;
+    }
+
+    /**
+     * Returns whether the approach changes the line, without changing it.
+     *
+     * @param rule Rule to check.
+     * @param line Line to check.
+     * @return Whether a run of FILLED squares is as long as the longest segment and has an EMPTY neighbor.
+     */
+    static boolean applies(PicrossRule rule, Line line) {
+        int longest = Collections.max(rule.segments);
+        int run = 0;
+
+        for (int i = 0; i <= line.length; i ++) {
+            if (i < line.length && line.get(i) == FILLED) {
+                run ++;
+                continue;
+            }
+
+            if (run == longest && (isEmpty(line, i - run - 1) || isEmpty(line, i))) {
+                return true;
+            }
+
+            run = 0;
+        }
+
+        return false;
+    }
+
+    private static void gap(Line line, int index, Changes changes) {
+        if (isEmpty(line, index)) {
+            line.set(index, GAP);
+            changes.add(index);
+        }
+    }
+
+    private static boolean isEmpty(Line line, int index) {
+        return index >= 0 && index < line.length && line.get(index) == EMPTY;
+    }
+}
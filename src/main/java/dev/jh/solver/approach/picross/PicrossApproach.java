@@ -1,20 +1,33 @@
 package dev.jh.solver.approach.picross;
 
 import dev.jh.solver.Line;
+import dev.jh.solver.Square;
 import dev.jh.solver.approach.Approach;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
 import dev.jh.solver.rules.picross.PicrossRule;
 
 import java.util.Optional;
 
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+
 public enum PicrossApproach implements Approach<PicrossRule> {
 
-    FULL_LINE(new FullLineApproach()),
-    FULL_LINE_WITH_GAPS(new FullLineWithGapsApproach()),
-    OVERLAP(new OverlapApproach());
+    FULL_LINE(FILLED, new FullLineApproach()),
+    FULL_LINE_WITH_GAPS(FILLED, new FullLineWithGapsApproach()),
+    OVERLAP(FILLED, new OverlapApproach()),
+    COMPLETED_LINE(GAP, new CompletedLineApproach()),
+    MAXED_SEGMENT(GAP, new MaxedSegmentApproach()),
+    UNREACHABLE(GAP, new UnreachableApproach());
+
+    /** Type of square that the approach places on lines. */
+    public final Square places;
 
     private final Approach<PicrossRule> approach;
 
-    PicrossApproach(Approach<PicrossRule> approach) {
+    PicrossApproach(Square places, Approach<PicrossRule> approach) {
+        this.places = places;
         this.approach = approach;
     }
 
@@ -22,4 +35,9 @@ public enum PicrossApproach implements Approach<PicrossRule> {
     public Optional<Line> apply(PicrossRule rule, Line line) {
         return approach.apply(rule, line);
     }
+
+    @Override
+    public Status apply(PicrossRule rule, Line line, Changes changes) {
+        return approach.apply(rule, line, changes);
+    }
 }
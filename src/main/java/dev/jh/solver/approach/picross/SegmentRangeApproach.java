@@ -0,0 +1,84 @@
+package dev.jh.solver.approach.picross;
+
+import dev.jh.solver.Line;
+import dev.jh.solver.approach.Approach;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
+import dev.jh.solver.line.PackedLine;
+import dev.jh.solver.line.SegmentRanges;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.Optional;
+
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+
+/**
+ * Approach that reads squares straight off of the range of starts for each segment.  Squares between a segment's
+ * latest start and the end of its earliest placement are always FILLED, and squares outside of every segment's
+ * range are always GAPs.
+ *
+ * Solvers that keep {@link SegmentRanges} up to date for each line pass them to
+ * {@link #apply(SegmentRanges, Line, Changes)} so the ranges aren't worked out again on every call.
+ * Example: 3 on '     ' has a range of 0-2, so the line becomes '  .  '.
+ */
+public class SegmentRangeApproach implements Approach<PicrossRule> {
+
+    @Override
+    public Optional<Line> apply(PicrossRule rule, Line line) {
+        Status status = apply(rule, line, new Changes());
+        return status == Status.CHANGED ? Optional.of(line) : Optional.empty();
+    }
+
+    @Override
+    public Status apply(PicrossRule rule, Line line, Changes changes) {
+        SegmentRanges ranges = new SegmentRanges(rule, line.length);
+        if (!ranges.tighten(PackedLine.of(line))) {
+            changes.clear();
+            return Status.CONTRADICTION;
+        }
+
+        return apply(ranges, line, changes);
+    }
+
+    /**
+     * Sets the squares on the line that the ranges decide.
+     *
+     * @param ranges Ranges of each segment in the line's rule, tightened for the squares on the line.
+     * @param line Line to apply the ranges to.
+     * @param changes Buffer that's cleared, then filled with the indexes of changed squares.
+     * @return Status describing whether the ranges changed the line.
+     */
+    public Status apply(SegmentRanges ranges, Line line, Changes changes) {
+        changes.clear();
+
+        int reachable = 0;
+        for (int segment = 0; segment < ranges.count(); segment ++) {
+            int earliest = ranges.earliest(segment);
+            int latest = ranges.latest(segment);
+            int length = ranges.segment(segment);
+
+            for (int i = reachable; i < earliest; i ++) {
+                if (!changes.set(line, i, GAP)) {
+                    return Status.CONTRADICTION;
+                }
+            }
+
+            for (int i = latest; i < earliest + length; i ++) {
+                if (!changes.set(line, i, FILLED)) {
+                    return Status.CONTRADICTION;
+                }
+            }
+
+            reachable = Math.max(reachable, latest + length);
+        }
+
+        for (int i = reachable; i < line.length; i ++) {
+            if (!changes.set(line, i, GAP)) {
+                return Status.CONTRADICTION;
+            }
+        }
+
+        return changes.isEmpty() ? Status.UNCHANGED : Status.CHANGED;
+    }
+}
@@ -0,0 +1,64 @@
+package dev.jh.solver.approach.picross;
+
+import dev.jh.solver.Line;
+import dev.jh.solver.approach.Approach;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
+import dev.jh.solver.line.Placements;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.Optional;
+
+import static dev.jh.solver.Square.EMPTY;
+import static dev.jh.solver.Square.GAP;
+
+/**
+ * Approach that marks squares with GAPs when no segment can reach them.  Each segment can only cover squares between
+ * its left-most and right-most placements on the line, so squares outside of every segment's range are GAPs.
+ * Example: 2 on '.    ' can only cover the first two squares, so the line becomes '. xxx'.
+ *
+ * Approaches are shared between solvers on different threads, so each thread keeps its own placement buffers.
+ */
+public class UnreachableApproach implements Approach<PicrossRule> {
+    private final ThreadLocal<Placements> placements = ThreadLocal.withInitial(Placements::new);
+
+    @Override
+    public Optional<Line> apply(PicrossRule rule, Line line) {
+        return apply(rule, line, new Changes()) == Status.CHANGED ? Optional.of(line) : Optional.empty();
+    }
+
+    @Override
+    public Status apply(PicrossRule rule, Line line, Changes changes) {
+        changes.clear();
+
+        // CompletedLineApproach and MaxedSegmentApproach handle complete lines and runs that can't grow.
+        if (CompletedLineApproach.isComplete(rule, line) || MaxedSegmentApproach.applies(rule, line)) {
+            return Status.NOT_APPLICABLE;
+        }
+
+        Placements placements = this.placements.get();
+        if (!placements.place(rule, line)) {
+            return Status.CONTRADICTION;
+        }
+
+        // Left-most starts only move right from one segment to the next, so the squares before each segment's
+        // left-most start that the segments before it can't reach are GAPs.
+        int reachable = 0;
+        for (int segment = 0; segment < rule.segments.size(); segment ++) {
+            gap(line, reachable, placements.left(segment), changes);
+            reachable = Math.max(reachable, placements.right(segment) + rule.segments.get(segment));
+        }
+        gap(line, reachable, line.length, changes);
+
+        return changes.isEmpty() ? Status.UNCHANGED : Status.CHANGED;
+    }
+
+    private static void gap(Line line, int from, int to, Changes changes) {
+        for (int i = from; i < to; i ++) {
+            if (line.get(i) == EMPTY) {
+                line.set(i, GAP);
+                changes.add(i);
+            }
+        }
+    }
+}
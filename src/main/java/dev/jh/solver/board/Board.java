@@ -0,0 +1,90 @@
+package dev.jh.solver.board;
+
+import dev.jh.solver.Grid;
+import dev.jh.solver.Square;
+import dev.jh.solver.line.PackedLine;
+
+/**
+ * Board is the mutable rectangle of squares that a solver reads and writes while it works on a puzzle.
+ * Unlike a {@link Grid}, a board changes in place, so solvers don't need to copy it to change a square.
+ */
+public interface Board {
+
+    int height();
+
+    int width();
+
+    /**
+     * Returns the square at the given row and column.
+     *
+     * @param row Row index
+     * @param column Column index
+     * @return Square at the row and column
+     */
+    Square get(int row, int column);
+
+    /**
+     * Sets the square at the given row and column.
+     *
+     * @param row Row index
+     * @param column Column index
+     * @param square New square
+     */
+    void set(int row, int column, Square square);
+
+    /**
+     * Copies the squares in the given row into the line, which must be {@link #width()} long.
+     *
+     * @param row Row index
+     * @param line Line to copy squares into.
+     * @return The given line.
+     */
+    PackedLine readRow(int row, PackedLine line);
+
+    /**
+     * Copies the squares in the given column into the line, which must be {@link #height()} long.
+     *
+     * @param column Column index
+     * @param line Line to copy squares into.
+     * @return The given line.
+     */
+    PackedLine readColumn(int column, PackedLine line);
+
+    /**
+     * Returns a copy of this board that can be changed independently.
+     *
+     * @return Copy of the board.
+     */
+    Board copy();
+
+    /**
+     * Makes sure changes to the board have reached the board's storage.  Only does work for file-backed boards.
+     */
+    default void flush() {
+    }
+
+    /**
+     * Returns an immutable grid containing the squares on this board.
+     *
+     * @return Grid containing the board's squares.
+     */
+    default Grid toGrid() {
+        Grid.Builder grid = Grid.empty(height(), width());
+
+        for (int row = 0; row < height(); row ++) {
+            for (int column = 0; column < width(); column ++) {
+                grid.setSquare(row, column, get(row, column));
+            }
+        }
+
+        return grid.build();
+    }
+
+    /**
+     * Factory creates boards for puzzles of a given size.
+     */
+    @FunctionalInterface
+    interface Factory {
+        Board create(int height, int width);
+    }
+}
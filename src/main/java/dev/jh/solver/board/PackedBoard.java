@@ -0,0 +1,291 @@
+package dev.jh.solver.board;
+
+import com.google.common.base.Preconditions;
+import dev.jh.solver.Square;
+import dev.jh.solver.line.PackedLine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static dev.jh.solver.Square.EMPTY;
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * PackedBoard stores two bits per square: each line is a plane of FILLED bits followed by a plane of GAP bits,
+ * 64 squares to a word.  The board keeps a row-major copy and a transposed column-major copy of its squares
+ * in sync on every change, so reading a row or a column reads contiguous words either way.
+ *
+ * Boards can be stored on the heap, in direct memory outside of the heap, or in a memory-mapped file.
+ * Off-heap and mapped boards keep heap usage independent of the size of the puzzle, and mapped boards keep their
+ * squares if the solver dies - mapping the same file again picks up where it left off.
+ */
+public class PackedBoard implements Board {
+    /** Identifies board files - 'PICROSS' followed by the file format version. */
+    private static final long MAGIC = 0x504943524F535302L;
+    private static final int HEADER_BYTES = 16;
+
+    private final int height;
+    private final int width;
+    private final Planes rows;
+    private final Planes columns;
+    private final List<MappedByteBuffer> mapped;
+    private final Storage copyStorage;
+
+    private PackedBoard(int height, int width, Storage storage, Storage copyStorage) {
+        Preconditions.checkArgument(height > 0, "height must be >= 1");
+        Preconditions.checkArgument(width > 0, "width must be >= 1");
+
+        this.height = height;
+        this.width = width;
+        this.mapped = new ArrayList<>();
+        this.copyStorage = copyStorage;
+        this.rows = new Planes(height, width, storage, 0);
+        this.columns = new Planes(width, height, storage, rows.bytes());
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public Square get(int row, int column) {
+        Preconditions.checkElementIndex(row, height, "Row");
+        Preconditions.checkElementIndex(column, width, "Column");
+
+        return rows.get(row, column);
+    }
+
+    @Override
+    public void set(int row, int column, Square square) {
+        Preconditions.checkElementIndex(row, height, "Row");
+        Preconditions.checkElementIndex(column, width, "Column");
+        Preconditions.checkNotNull(square, "square must be non-null.");
+
+        rows.set(row, column, square);
+        columns.set(column, row, square);
+    }
+
+    @Override
+    public PackedLine readRow(int row, PackedLine line) {
+        Preconditions.checkElementIndex(row, height, "Row");
+        Preconditions.checkArgument(line.length == width, "Line length must be " + width);
+
+        return rows.read(row, line);
+    }
+
+    @Override
+    public PackedLine readColumn(int column, PackedLine line) {
+        Preconditions.checkElementIndex(column, width, "Column");
+        Preconditions.checkArgument(line.length == height, "Line length must be " + height);
+
+        return columns.read(column, line);
+    }
+
+    /**
+     * Returns a copy of this board.  Copies of mapped boards are stored off-heap, since they can't share the file.
+     *
+     * @return Copy of the board.
+     */
+    @Override
+    public PackedBoard copy() {
+        PackedBoard copy = new PackedBoard(height, width, copyStorage, copyStorage);
+        rows.copyTo(copy.rows);
+        columns.copyTo(copy.columns);
+
+        return copy;
+    }
+
+    @Override
+    public void flush() {
+        for (MappedByteBuffer buffer : mapped) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Returns a new board stored on the heap.
+     *
+     * @param height Board height.
+     * @param width Board width.
+     * @return Empty board.
+     */
+    public static PackedBoard onHeap(int height, int width) {
+        return new PackedBoard(height, width, PackedBoard::heap, PackedBoard::heap);
+    }
+
+    /**
+     * Returns a new board stored in direct memory outside of the heap.
+     *
+     * @param height Board height.
+     * @param width Board width.
+     * @return Empty board.
+     */
+    public static PackedBoard offHeap(int height, int width) {
+        return new PackedBoard(height, width, PackedBoard::direct, PackedBoard::direct);
+    }
+
+    /**
+     * Returns a board stored in the given memory-mapped file.  If the file already holds a board with the same
+     * height and width, the board contains the squares from the file - otherwise the file is created.
+     *
+     * @param path Path to the board file.
+     * @param height Board height.
+     * @param width Board width.
+     * @return Board backed by the file.
+     * @throws IOException If the file can't be mapped or holds a board with a different size.
+     */
+    public static PackedBoard mapped(Path path, int height, int width) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE)) {
+            boolean existing = channel.size() > 0;
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (existing) {
+                if (header.getLong(0) != MAGIC || header.getInt(8) != height || header.getInt(12) != width) {
+                    throw new IOException(path + " doesn't contain a " + height + "x" + width + " board.");
+                }
+            } else {
+                header.putLong(0, MAGIC).putInt(8, height).putInt(12, width);
+            }
+
+            try {
+                return new PackedBoard(height, width, (board, position, bytes) -> {
+                    try {
+                        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + position, bytes);
+                        board.mapped.add(buffer);
+                        return buffer.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, PackedBoard::direct);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static LongBuffer heap(PackedBoard board, long position, long bytes) {
+        return LongBuffer.allocate((int) (bytes / Long.BYTES));
+    }
+
+    private static LongBuffer direct(PackedBoard board, long position, long bytes) {
+        return ByteBuffer.allocateDirect((int) bytes)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asLongBuffer();
+    }
+
+    /**
+     * Storage allocates the buffer that holds a chunk of lines, starting at the given byte position of the board.
+     */
+    @FunctionalInterface
+    private interface Storage {
+        LongBuffer allocate(PackedBoard board, long position, long bytes);
+    }
+
+    /**
+     * Planes holds the FILLED and GAP planes for every line in one direction.  Lines are split into chunks
+     * of at most {@link #MAX_CHUNK_BYTES} bytes since a single buffer can't hold more than 2GB.
+     */
+    private class Planes {
+        private static final int MAX_CHUNK_BYTES = 1 << 30;
+
+        private final int lineWords;
+        private final int linesPerChunk;
+        private final LongBuffer[] chunks;
+        private final long bytes;
+
+        private Planes(int lines, int length, Storage storage, long position) {
+            int lineBytes = PackedLine.words(length) * 2 * Long.BYTES;
+
+            this.lineWords = PackedLine.words(length);
+            this.linesPerChunk = Math.max(1, MAX_CHUNK_BYTES / lineBytes);
+            this.chunks = new LongBuffer[(lines + linesPerChunk - 1) / linesPerChunk];
+            this.bytes = (long) lines * lineBytes;
+
+            for (int chunk = 0; chunk < chunks.length; chunk ++) {
+                int chunkLines = Math.min(linesPerChunk, lines - chunk * linesPerChunk);
+                long chunkPosition = position + (long) chunk * linesPerChunk * lineBytes;
+
+                chunks[chunk] = storage.allocate(PackedBoard.this, chunkPosition, (long) chunkLines * lineBytes);
+            }
+        }
+
+        private long bytes() {
+            return bytes;
+        }
+
+        private Square get(int line, int index) {
+            LongBuffer chunk = chunks[line / linesPerChunk];
+            int word = offset(line) + (index >>> 6);
+            long bit = 1L << index;
+
+            if ((chunk.get(word) & bit) != 0) {
+                return FILLED;
+            }
+
+            if ((chunk.get(word + lineWords) & bit) != 0) {
+                return GAP;
+            }
+
+            return EMPTY;
+        }
+
+        private void set(int line, int index, Square square) {
+            LongBuffer chunk = chunks[line / linesPerChunk];
+            int word = offset(line) + (index >>> 6);
+            long bit = 1L << index;
+
+            long filled = chunk.get(word) & ~bit;
+            long gaps = chunk.get(word + lineWords) & ~bit;
+
+            chunk.put(word, square == FILLED ? filled | bit : filled);
+            chunk.put(word + lineWords, square == GAP ? gaps | bit : gaps);
+        }
+
+        private PackedLine read(int line, PackedLine packed) {
+            LongBuffer chunk = chunks[line / linesPerChunk];
+            int offset = offset(line);
+
+            for (int word = 0; word < lineWords; word ++) {
+                packed.setWord(word, chunk.get(offset + word), chunk.get(offset + lineWords + word));
+            }
+
+            return packed;
+        }
+
+        private void copyTo(Planes planes) {
+            for (int chunk = 0; chunk < chunks.length; chunk ++) {
+                LongBuffer source = chunks[chunk].duplicate();
+                LongBuffer target = planes.chunks[chunk].duplicate();
+                source.clear();
+                target.clear();
+                target.put(source);
+            }
+        }
+
+        /**
+         * Returns the index of the first word of the given line in its chunk.
+         */
+        private int offset(int line) {
+            return (line % linesPerChunk) * lineWords * 2;
+        }
+    }
+}
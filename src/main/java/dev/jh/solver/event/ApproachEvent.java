@@ -0,0 +1,35 @@
+package dev.jh.solver.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * ApproachEvent covers applying one approach to one row or column.
+ */
+@Name("dev.jh.solver.Approach")
+@Label("Approach Application")
+@Category("Nonogram Solver")
+@Description("Applying one approach to a row or column")
+public class ApproachEvent extends Event {
+    /** Checked before creating events, so approaches don't allocate while the event is disabled. */
+    public static final EventType TYPE = EventType.getEventType(ApproachEvent.class);
+
+    @Label("Approach")
+    public String approach;
+
+    @Label("Line Type")
+    public String lineType;
+
+    @Label("Line Index")
+    public int index;
+
+    @Label("Status")
+    public String status;
+
+    @Label("Cells Changed")
+    public int cellsChanged;
+}
@@ -0,0 +1,32 @@
+package dev.jh.solver.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * LineSolveEvent covers solving one row or column until it stops changing.
+ */
+@Name("dev.jh.solver.LineSolve")
+@Label("Line Solve")
+@Category("Nonogram Solver")
+@Description("Solving one row or column until it stops changing")
+public class LineSolveEvent extends Event {
+    /** Checked before creating events, so lines don't allocate while the event is disabled. */
+    public static final EventType TYPE = EventType.getEventType(LineSolveEvent.class);
+
+    @Label("Line Type")
+    public String lineType;
+
+    @Label("Line Index")
+    public int index;
+
+    @Label("Length")
+    public int length;
+
+    @Label("Cells Changed")
+    public long cellsChanged;
+}
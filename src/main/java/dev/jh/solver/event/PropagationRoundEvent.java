@@ -0,0 +1,35 @@
+package dev.jh.solver.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * PropagationRoundEvent covers one pass of the propagator over the dirty rows and columns.
+ */
+@Name("dev.jh.solver.PropagationRound")
+@Label("Propagation Round")
+@Category("Nonogram Solver")
+@Description("One pass over the dirty rows and columns of a puzzle")
+public class PropagationRoundEvent extends Event {
+    /** Checked before creating events, so rounds don't allocate while the event is disabled. */
+    public static final EventType TYPE = EventType.getEventType(PropagationRoundEvent.class);
+
+    @Label("Height")
+    public int height;
+
+    @Label("Width")
+    public int width;
+
+    @Label("Dirty Rows")
+    public int dirtyRows;
+
+    @Label("Dirty Columns")
+    public int dirtyColumns;
+
+    @Label("Cells Changed")
+    public long cellsChanged;
+}
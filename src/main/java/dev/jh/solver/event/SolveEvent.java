@@ -0,0 +1,46 @@
+package dev.jh.solver.event;
+
+import dev.jh.solver.Puzzle;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * SolveEvent covers solving one puzzle.
+ */
+@Name("dev.jh.solver.Solve")
+@Label("Puzzle Solve")
+@Category("Nonogram Solver")
+@Description("Solving a puzzle from start to finish")
+public class SolveEvent extends Event {
+    @Label("Solver")
+    public String solver;
+
+    @Label("Height")
+    public int height;
+
+    @Label("Width")
+    public int width;
+
+    @Label("Solved")
+    public boolean solved;
+
+    /**
+     * Creates and begins an event for solving the puzzle.  Commit it once the solve is done.
+     *
+     * @param solver Solver that's solving the puzzle.
+     * @param puzzle Puzzle being solved.
+     * @return Started event.
+     */
+    public static SolveEvent begin(Object solver, Puzzle<?> puzzle) {
+        SolveEvent event = new SolveEvent();
+        event.solver = solver.getClass().getSimpleName();
+        event.height = puzzle.height;
+        event.width = puzzle.width;
+        event.begin();
+
+        return event;
+    }
+}
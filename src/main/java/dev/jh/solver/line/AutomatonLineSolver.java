@@ -0,0 +1,158 @@
+package dev.jh.solver.line;
+
+import com.google.common.base.Preconditions;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+import static dev.jh.solver.line.RuleAutomaton.FILLED_SYMBOL;
+import static dev.jh.solver.line.RuleAutomaton.GAP_SYMBOL;
+
+/**
+ * AutomatonLineSolver solves lines by running each rule's {@link RuleAutomaton} over the line.  A forward pass finds
+ * the states the automaton can be in before each square given the squares before it, and a backward pass finds the
+ * states that can still reach the accepting state given the squares after it.  A square can be FILLED if some
+ * transition on FILLED joins the two, and the same for GAPs, so squares with only one possibility are set.
+ * That deduces everything the line alone allows, in time proportional to the line's length times its rule's.
+ *
+ * Automata are compiled once per rule and shared, so lines that share a clue don't redo any setup.  The solver keeps
+ * the passes' state sets between calls so lines can be solved without allocating - it isn't thread-safe.
+ */
+public class AutomatonLineSolver implements BatchLineSolver {
+    /** States reachable before each square, as forward[square * states + state]. */
+    private boolean[] forward = new boolean[0];
+    /** States that can reach the accepting state before each square, as backward[square * states + state]. */
+    private boolean[] backward = new boolean[0];
+
+    @Override
+    public int solve(List<PicrossRule> rules, List<PackedLine> lines) {
+        Preconditions.checkArgument(rules.size() == lines.size(), "Must have a rule for each line.");
+
+        int changed = 0;
+        for (int i = 0; i < lines.size(); i ++) {
+            int squares = solve(RuleAutomaton.of(rules.get(i)), lines.get(i));
+            if (squares == -1) {
+                throw new IllegalStateException("Rule " + rules.get(i) + " can't be placed on " + lines.get(i));
+            }
+
+            if (squares > 0) {
+                changed ++;
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * Sets every square on the line that's the same in every placement of the rule.
+     *
+     * @param rule Rule.
+     * @param line Line to solve.
+     * @return Whether the rule can be placed on the line at all.  The line is unchanged if it can't.
+     */
+    public boolean solve(PicrossRule rule, PackedLine line) {
+        return solve(RuleAutomaton.of(rule), line) != -1;
+    }
+
+    /**
+     * Runs both passes of the automaton over the line and sets the squares they decide.
+     *
+     * @return Number of squares set, or -1 if the automaton can't accept the line.
+     */
+    private int solve(RuleAutomaton automaton, PackedLine line) {
+        int states = automaton.states();
+        int length = line.length;
+        ensureCapacity((length + 1) * states);
+
+        Arrays.fill(forward, 0, (length + 1) * states, false);
+        Arrays.fill(backward, 0, (length + 1) * states, false);
+
+        forward[0] = true;
+        for (int square = 0; square < length; square ++) {
+            int from = square * states;
+            boolean canFill = !isGap(line, square);
+            boolean canGap = !isFilled(line, square);
+
+            for (int state = 0; state < states; state ++) {
+                if (!forward[from + state]) {
+                    continue;
+                }
+
+                int next = automaton.next(state, FILLED_SYMBOL);
+                if (canFill && next != -1) {
+                    forward[from + states + next] = true;
+                }
+
+                next = automaton.next(state, GAP_SYMBOL);
+                if (canGap && next != -1) {
+                    forward[from + states + next] = true;
+                }
+            }
+        }
+
+        if (!forward[length * states + states - 1]) {
+            return -1;
+        }
+
+        backward[length * states + states - 1] = true;
+        for (int square = length - 1; square >= 0; square --) {
+            int from = square * states;
+            boolean canFill = !isGap(line, square);
+            boolean canGap = !isFilled(line, square);
+
+            for (int state = 0; state < states; state ++) {
+                int filled = automaton.next(state, FILLED_SYMBOL);
+                int gap = automaton.next(state, GAP_SYMBOL);
+                backward[from + state] = canFill && filled != -1 && backward[from + states + filled]
+                        || canGap && gap != -1 && backward[from + states + gap];
+            }
+        }
+
+        // Only squares on paths that both passes agree on are possible.
+        int changed = 0;
+        for (int square = 0; square < length; square ++) {
+            if (isFilled(line, square) || isGap(line, square)) {
+                continue;
+            }
+
+            int from = square * states;
+            boolean canFill = false;
+            boolean canGap = false;
+            for (int state = 0; state < states && !(canFill && canGap); state ++) {
+                if (!forward[from + state]) {
+                    continue;
+                }
+
+                int filled = automaton.next(state, FILLED_SYMBOL);
+                int gap = automaton.next(state, GAP_SYMBOL);
+                canFill |= filled != -1 && backward[from + states + filled];
+                canGap |= gap != -1 && backward[from + states + gap];
+            }
+
+            if (canFill != canGap) {
+                line.set(square, canFill ? FILLED : GAP);
+                changed ++;
+            }
+        }
+
+        return changed;
+    }
+
+    private static boolean isFilled(PackedLine line, int square) {
+        return (line.filledWord(square >>> 6) & 1L << square) != 0;
+    }
+
+    private static boolean isGap(PackedLine line, int square) {
+        return (line.gapWord(square >>> 6) & 1L << square) != 0;
+    }
+
+    private void ensureCapacity(int size) {
+        if (forward.length < size) {
+            forward = new boolean[size];
+            backward = new boolean[size];
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package dev.jh.solver.line;
+
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.List;
+
+/**
+ * BatchLineSolver applies rules to a batch of lines that share the same length, like all of the rows or all of the
+ * columns in a puzzle.  Lines are solved in place: squares that are always FILLED or always GAPs given the rule
+ * and the squares already on the line are set.
+ */
+public interface BatchLineSolver {
+
+    /**
+     * Solves each line in the batch with the rule at the same index.
+     *
+     * @param rules Rule for each line.
+     * @param lines Lines to solve.  Every line must have the same length.
+     * @return Number of lines that changed.
+     * @throws IllegalStateException if a rule can't be placed on its line.
+     */
+    int solve(List<PicrossRule> rules, List<PackedLine> lines);
+
+    /**
+     * Returns the preferred batch line solver.
+     *
+     * @return New batch line solver.
+     */
+    static BatchLineSolver create() {
+        return new PackedBatchLineSolver();
+    }
+}
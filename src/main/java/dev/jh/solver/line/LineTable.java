@@ -0,0 +1,209 @@
+package dev.jh.solver.line;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.Objects;
+
+/**
+ * LineTable solves short lines by looking up every deduction for a rule at once.  Each table covers one rule on one
+ * line length, and has an entry for every combination of EMPTY, FILLED, and GAP squares on the line.  An entry holds
+ * the squares that are FILLED and the squares that are GAPs in every way the rule can be placed on that line,
+ * which is as much as can be deduced from the line alone.
+ *
+ * Entries are filled in the first time they're looked up, and tables are shared by every thread.  Entries are written
+ * as single ints, so two threads racing to fill the same entry compute and write the same value.  Shared tables are
+ * held in a cache bounded by their total number of entries, and the least recently used are evicted first - a solver
+ * keeps the tables it already has, so an evicted table is only rebuilt for the next puzzle that needs it.
+ */
+public final class LineTable {
+    /** Longest line with a table.  Tables have 3^length entries, so each table for a 10 square line takes 236KB. */
+    public static final int MAX_LENGTH = 10;
+
+    private static final int COMPUTED = 1 << 30;
+    private static final int CONTRADICTION = 1 << 29;
+
+    /** Base 3 value of each mask, so a line's FILLED and GAP bits map to a dense index into the table. */
+    private static final int[] BASE3 = new int[1 << MAX_LENGTH];
+    static {
+        for (int mask = 1; mask < BASE3.length; mask ++) {
+            int bit = Integer.numberOfTrailingZeros(mask);
+            BASE3[mask] = BASE3[mask & (mask - 1)] + pow3(bit);
+        }
+    }
+
+    /** Most entries in the shared tables at once, so they take at most 16MB. */
+    private static final long MAX_SHARED_ENTRIES = 1 << 22;
+
+    private static final LoadingCache<Key, LineTable> TABLES = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_SHARED_ENTRIES)
+            .weigher((Key key, LineTable table) -> table.entries.length)
+            .build(CacheLoader.from(key -> new LineTable(key.rule, key.length)));
+
+    private final PicrossRule rule;
+    private final int length;
+    /** Every placement of the rule on an empty line, as a mask of FILLED squares. */
+    private final int[] solutions;
+    private final int[] entries;
+
+    private LineTable(PicrossRule rule, int length) {
+        this.rule = rule;
+        this.length = length;
+        this.solutions = solutions(rule, length);
+        this.entries = new int[pow3(length)];
+    }
+
+    /**
+     * Returns the shared table for the rule on lines with the given length, creating it on first use or after it's
+     * been evicted.
+     *
+     * @param rule Rule.
+     * @param length Line length, at most {@link #MAX_LENGTH}.
+     * @return Table for the rule and length.
+     */
+    public static LineTable of(PicrossRule rule, int length) {
+        Preconditions.checkArgument(length > 0 && length <= MAX_LENGTH, "length must be between 1 and " + MAX_LENGTH);
+
+        return TABLES.getUnchecked(new Key(rule, length));
+    }
+
+    /**
+     * Sets every square on the line that's the same in every placement of the rule.
+     *
+     * @param line Line to solve, with the table's length.
+     * @return Whether the rule can be placed on the line at all.  The line is unchanged if it can't.
+     */
+    public boolean solve(PackedLine line) {
+        Preconditions.checkArgument(line.length == length, "Line length must be " + length);
+
+        int filled = (int) line.filled[0];
+        int gaps = (int) line.gaps[0];
+        int index = BASE3[filled] + 2 * BASE3[gaps];
+
+        int entry = entries[index];
+        if (entry == 0) {
+            entry = compute(filled, gaps);
+            entries[index] = entry;
+        }
+
+        if ((entry & CONTRADICTION) != 0) {
+            return false;
+        }
+
+        int mask = (1 << length) - 1;
+        line.setWord(0, entry & mask, (entry >>> length) & mask);
+        return true;
+    }
+
+    /**
+     * Intersects the placements that agree with the line's squares.
+     */
+    private int compute(int filled, int gaps) {
+        int mask = (1 << length) - 1;
+        int alwaysFilled = mask;
+        int alwaysGaps = mask;
+        boolean placeable = false;
+
+        for (int solution : solutions) {
+            if ((solution & gaps) == 0 && (~solution & filled) == 0) {
+                alwaysFilled &= solution;
+                alwaysGaps &= ~solution & mask;
+                placeable = true;
+            }
+        }
+
+        if (!placeable) {
+            return COMPUTED | CONTRADICTION;
+        }
+
+        return COMPUTED | alwaysFilled | (alwaysGaps << length);
+    }
+
+    private static int[] solutions(PicrossRule rule, int length) {
+        int[] segments = rule.segments.stream().mapToInt(Integer::intValue).toArray();
+
+        int[] solutions = new int[count(segments, 0, 0, length)];
+        place(segments, 0, 0, 0, length, solutions, 0);
+        return solutions;
+    }
+
+    /**
+     * Returns the number of ways the segments starting at the given one can be placed from the given start.
+     */
+    private static int count(int[] segments, int segment, int start, int length) {
+        if (segment == segments.length) {
+            return 1;
+        }
+
+        int count = 0;
+        for (int i = start; i + segments[segment] <= length; i ++) {
+            count += count(segments, segment + 1, i + segments[segment] + 1, length);
+        }
+
+        return count;
+    }
+
+    /**
+     * Writes every placement of the segments starting at the given one into solutions, returning the next free index.
+     */
+    private static int place(int[] segments, int segment, int start, int placed, int length, int[] solutions,
+                             int next) {
+        if (segment == segments.length) {
+            solutions[next] = placed;
+            return next + 1;
+        }
+
+        for (int i = start; i + segments[segment] <= length; i ++) {
+            int bits = ((1 << segments[segment]) - 1) << i;
+            next = place(segments, segment + 1, i + segments[segment] + 1, placed | bits, length, solutions, next);
+        }
+
+        return next;
+    }
+
+    private static int pow3(int exponent) {
+        int pow = 1;
+        for (int i = 0; i < exponent; i ++) {
+            pow *= 3;
+        }
+
+        return pow;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("rule", rule)
+                .add("length", length)
+                .add("solutions", solutions.length)
+                .toString();
+    }
+
+    private static final class Key {
+        private final PicrossRule rule;
+        private final int length;
+
+        private Key(PicrossRule rule, int length) {
+            this.rule = rule;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return length == key.length &&
+                    Objects.equals(rule, key.rule);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rule, length);
+        }
+    }
+}
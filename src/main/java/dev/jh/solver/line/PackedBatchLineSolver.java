@@ -0,0 +1,145 @@
+package dev.jh.solver.line;
+
+import com.google.common.base.Preconditions;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.List;
+
+/**
+ * Batch line solver that works on 64 squares at a time.  Segment placements are found line by line, but every
+ * line in the batch is packed into the same contiguous words so the step that combines placements with the squares
+ * already on the lines is a single branch-free loop over the whole batch.  HotSpot can vectorize that loop, so large
+ * batches of long lines share SIMD lanes without depending on the incubating Vector API.
+ *
+ * Scratch space is kept between calls and sized for the largest batch seen - instances aren't thread-safe.
+ */
+public class PackedBatchLineSolver implements BatchLineSolver {
+
+    private final Placements placements = new Placements();
+
+    private long[] filled = new long[0];
+    private long[] gaps = new long[0];
+    private long[] overlap = new long[0];
+    private long[] covered = new long[0];
+    private long[] valid = new long[0];
+
+    @Override
+    public int solve(List<PicrossRule> rules, List<PackedLine> lines) {
+        Preconditions.checkArgument(rules.size() == lines.size(), "Must have a rule for each line.");
+        if (lines.isEmpty()) {
+            return 0;
+        }
+
+        int length = lines.get(0).length;
+        int words = PackedLine.words(length);
+        ensureCapacity(lines.size() * words, words);
+
+        for (int word = 0; word < words; word ++) {
+            valid[word] = PackedLine.mask(length, word);
+        }
+
+        // Place the segments of every line, recording overlapping and reachable squares for each line.
+        for (int line = 0; line < lines.size(); line ++) {
+            PackedLine packed = lines.get(line);
+            PicrossRule rule = rules.get(line);
+            Preconditions.checkArgument(packed.length == length, "Every line in a batch must have the same length.");
+
+            if (!placements.place(rule, packed)) {
+                throw new IllegalStateException("Rule " + rule + " can't be placed on " + packed);
+            }
+
+            int offset = line * words;
+            System.arraycopy(packed.filled, 0, filled, offset, words);
+            System.arraycopy(packed.gaps, 0, gaps, offset, words);
+            clear(overlap, offset, words);
+            clear(covered, offset, words);
+
+            for (int segment = 0; segment < rule.segments.size(); segment ++) {
+                int segmentLength = placements.segments[segment];
+                int left = placements.left[segment];
+                int right = placements.right[segment];
+
+                setRange(overlap, offset, right, left + segmentLength);
+                setRange(covered, offset, left, right + segmentLength);
+            }
+        }
+
+        // Combine the placements with the squares on each line.
+        for (int line = 0; line < lines.size(); line ++) {
+            int offset = line * words;
+            for (int word = 0; word < words; word ++) {
+                filled[offset + word] |= overlap[offset + word];
+                gaps[offset + word] |= ~covered[offset + word] & valid[word];
+            }
+        }
+
+        int changed = 0;
+        for (int line = 0; line < lines.size(); line ++) {
+            PackedLine packed = lines.get(line);
+            int offset = line * words;
+
+            if (copyBack(filled, offset, packed.filled) | copyBack(gaps, offset, packed.gaps)) {
+                changed ++;
+            }
+        }
+
+        return changed;
+    }
+
+    private void ensureCapacity(int batchWords, int lineWords) {
+        if (filled.length < batchWords) {
+            filled = new long[batchWords];
+            gaps = new long[batchWords];
+            overlap = new long[batchWords];
+            covered = new long[batchWords];
+        }
+
+        if (valid.length < lineWords) {
+            valid = new long[lineWords];
+        }
+    }
+
+    private static void clear(long[] bits, int offset, int words) {
+        for (int word = offset; word < offset + words; word ++) {
+            bits[word] = 0L;
+        }
+    }
+
+    /**
+     * Enables bits from start (inclusive) to end (exclusive) in the line starting at the given word offset.
+     */
+    private static void setRange(long[] bits, int offset, int start, int end) {
+        if (start >= end) {
+            return;
+        }
+
+        int startWord = offset + (start >>> 6);
+        int endWord = offset + ((end - 1) >>> 6);
+        long startMask = -1L << start;
+        long endMask = -1L >>> -end;
+
+        if (startWord == endWord) {
+            bits[startWord] |= startMask & endMask;
+            return;
+        }
+
+        bits[startWord] |= startMask;
+        for (int word = startWord + 1; word < endWord; word ++) {
+            bits[word] = -1L;
+        }
+        bits[endWord] |= endMask;
+    }
+
+    /**
+     * Copies one line's words out of the batch, returning whether any of them changed.
+     */
+    private static boolean copyBack(long[] batch, int offset, long[] line) {
+        boolean changed = false;
+        for (int word = 0; word < line.length; word ++) {
+            changed |= line[word] != batch[offset + word];
+            line[word] = batch[offset + word];
+        }
+
+        return changed;
+    }
+}
@@ -0,0 +1,263 @@
+package dev.jh.solver.line;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import dev.jh.solver.Line;
+import dev.jh.solver.Square;
+
+import java.util.Arrays;
+
+import static dev.jh.solver.Square.EMPTY;
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+
+/**
+ * PackedLine is a mutable line of squares packed into two bit planes - one bit per square for FILLED squares,
+ * and one bit per square for GAPs.  EMPTY squares have neither bit set.
+ *
+ * Packing lines lets line solvers work on 64 squares at a time with bitwise operations instead of square by square.
+ */
+public class PackedLine {
+    public final int length;
+
+    final long[] filled;
+    final long[] gaps;
+
+    public PackedLine(int length) {
+        Preconditions.checkArgument(length > 0, "length must be >= 1");
+
+        this.length = length;
+        this.filled = new long[words(length)];
+        this.gaps = new long[words(length)];
+    }
+
+    /**
+     * Returns the square at the given index in this line.
+     *
+     * @param index Index of the square to fetch.
+     * @return Square at the given index.
+     */
+    public Square get(int index) {
+        Preconditions.checkElementIndex(index, length, "Index");
+
+        long bit = 1L << index;
+        if ((filled[index >>> 6] & bit) != 0) {
+            return FILLED;
+        }
+
+        if ((gaps[index >>> 6] & bit) != 0) {
+            return GAP;
+        }
+
+        return EMPTY;
+    }
+
+    /**
+     * Sets the square at the given index to the new square value.
+     *
+     * @param index Index of the square to set.
+     * @param square New square value.
+     * @return This line.
+     */
+    public PackedLine set(int index, Square square) {
+        Preconditions.checkElementIndex(index, length, "Index");
+        Preconditions.checkNotNull(square, "square must be non-null.");
+
+        int word = index >>> 6;
+        long bit = 1L << index;
+
+        filled[word] &= ~bit;
+        gaps[word] &= ~bit;
+
+        if (square == FILLED) {
+            filled[word] |= bit;
+        } else if (square == GAP) {
+            gaps[word] |= bit;
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns the number of 64-bit words in each of this line's bit planes.
+     *
+     * @return Number of words.
+     */
+    public int words() {
+        return filled.length;
+    }
+
+    /**
+     * Returns the FILLED bits for 64 squares starting at word * 64.
+     *
+     * @param word Index of the word.
+     * @return FILLED bits.
+     */
+    public long filledWord(int word) {
+        return filled[word];
+    }
+
+    /**
+     * Returns the GAP bits for 64 squares starting at word * 64.
+     *
+     * @param word Index of the word.
+     * @return GAP bits.
+     */
+    public long gapWord(int word) {
+        return gaps[word];
+    }
+
+    /**
+     * Sets 64 squares starting at word * 64.  Bits past the end of the line are ignored.
+     *
+     * @param word Index of the word.
+     * @param filled FILLED bits.
+     * @param gaps GAP bits.
+     * @return This line.
+     */
+    public PackedLine setWord(int word, long filled, long gaps) {
+        Preconditions.checkElementIndex(word, this.filled.length, "Word");
+        Preconditions.checkArgument((filled & gaps) == 0, "Squares can't be both FILLED and GAPs.");
+
+        this.filled[word] = filled & mask(length, word);
+        this.gaps[word] = gaps & mask(length, word);
+        return this;
+    }
+
+    /**
+     * Returns whether every square in this line is either FILLED or a GAP.
+     *
+     * @return Whether the line is solved.
+     */
+    public boolean isSolved() {
+        for (int word = 0; word < filled.length; word ++) {
+            if ((filled[word] | gaps[word]) != mask(length, word)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Copies the squares in this line to the given line, which must have the same length.
+     *
+     * @param line Line to write squares to.
+     * @return The given line.
+     */
+    public Line writeTo(Line line) {
+        Preconditions.checkArgument(line.length == length, "Line length must be " + length);
+
+        for (int i = 0; i < length; i ++) {
+            line.set(i, get(i));
+        }
+
+        return line;
+    }
+
+    /**
+     * Copies the squares in the given line, which must have the same length, into this line.
+     *
+     * @param line Line to copy squares from.
+     * @return This line.
+     */
+    public PackedLine copyFrom(PackedLine line) {
+        Preconditions.checkArgument(line.length == length, "Line length must be " + length);
+
+        System.arraycopy(line.filled, 0, filled, 0, filled.length);
+        System.arraycopy(line.gaps, 0, gaps, 0, gaps.length);
+        return this;
+    }
+
+    /**
+     * Returns a copy of this line.
+     *
+     * @return Copy of this line.
+     */
+    public PackedLine copy() {
+        PackedLine copy = new PackedLine(length);
+        System.arraycopy(filled, 0, copy.filled, 0, filled.length);
+        System.arraycopy(gaps, 0, copy.gaps, 0, gaps.length);
+
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PackedLine that = (PackedLine) o;
+        return length == that.length &&
+                Arrays.equals(filled, that.filled) &&
+                Arrays.equals(gaps, that.gaps);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * length + Arrays.hashCode(filled)) + Arrays.hashCode(gaps);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder line = new StringBuilder(length);
+        for (int i = 0; i < length; i ++) {
+            line.append(get(i).name);
+        }
+
+        return MoreObjects.toStringHelper(this)
+                .add("line", line)
+                .toString();
+    }
+
+    /**
+     * Returns a packed copy of the squares in the given line.
+     *
+     * @param line Line to pack.
+     * @return Packed line.
+     */
+    public static PackedLine of(Line line) {
+        PackedLine packed = new PackedLine(line.length);
+        for (int i = 0; i < line.length; i ++) {
+            packed.set(i, line.get(i));
+        }
+
+        return packed;
+    }
+
+    /**
+     * Parses the given string into a packed line, using the same square names as {@link Square#named(char)}.
+     *
+     * @param str String to parse.
+     * @return Packed line.
+     */
+    public static PackedLine parse(String str) {
+        PackedLine packed = new PackedLine(str.length());
+        for (int i = 0; i < str.length(); i ++) {
+            packed.set(i, Square.named(str.charAt(i)));
+        }
+
+        return packed;
+    }
+
+    /**
+     * Returns the number of 64-bit words needed to hold a line with the given length.
+     *
+     * @param length Line length.
+     * @return Number of words.
+     */
+    public static int words(int length) {
+        return (length + 63) >>> 6;
+    }
+
+    /**
+     * Returns a mask with bits enabled for squares in the given word that are part of a line with the given length.
+     *
+     * @param length Line length.
+     * @param word Index of the word.
+     * @return Mask of valid squares in the word.
+     */
+    public static long mask(int length, int word) {
+        int remaining = length - (word << 6);
+        return remaining >= 64 ? -1L : (1L << remaining) - 1;
+    }
+}
@@ -0,0 +1,288 @@
+package dev.jh.solver.line;
+
+import dev.jh.solver.Line;
+import dev.jh.solver.Square;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.Arrays;
+
+/**
+ * Placements finds the left-most and right-most start of each segment in a rule that's consistent with the squares
+ * already decided on a line.  Squares covered by a segment in both its left-most and right-most placements are
+ * always FILLED, and squares that no segment can cover between its left-most and right-most placement are always GAPs.
+ *
+ * Placements keeps scratch space between calls so lines can be solved without allocating - it isn't thread-safe.
+ */
+public class Placements {
+    private static final byte EMPTY_SQUARE = 0;
+    private static final byte FILLED_SQUARE = 1;
+    private static final byte GAP_SQUARE = 2;
+
+    /** Left-most start of each segment, valid after a successful call to {@link #place}. */
+    int[] left = new int[0];
+    /** Right-most start of each segment, valid after a successful call to {@link #place}. */
+    int[] right = new int[0];
+    /** Segment lengths, valid after a call to {@link #place}. */
+    int[] segments = new int[0];
+
+    private int[] reversedSegments = new int[0];
+    private int[] reversedLeft = new int[0];
+    private byte[] squares = new byte[0];
+    private byte[] reversedSquares = new byte[0];
+    private int[] free = new int[0];
+    private long[] fits = new long[0];
+    private long[] ways = new long[0];
+
+    /**
+     * Computes the left-most and right-most start of each segment in the rule.
+     *
+     * @param rule Rule to place.
+     * @param line Line to place the rule's segments on.
+     * @return Whether the rule can be placed on the line at all.
+     */
+    public boolean place(PicrossRule rule, PackedLine line) {
+        int length = line.length;
+        ensureCapacity(length, rule.segments.size());
+
+        for (int i = 0; i < length; i ++) {
+            long bit = 1L << i;
+            byte square = (line.filled[i >>> 6] & bit) != 0 ? FILLED_SQUARE
+                    : (line.gaps[i >>> 6] & bit) != 0 ? GAP_SQUARE
+                    : EMPTY_SQUARE;
+
+            squares[i] = square;
+            reversedSquares[length - 1 - i] = square;
+        }
+
+        return place(rule, length);
+    }
+
+    /**
+     * Computes the left-most and right-most start of each segment in the rule, reading the squares straight off of
+     * a line instead of packing it first.
+     *
+     * @param rule Rule to place.
+     * @param line Line to place the rule's segments on.
+     * @return Whether the rule can be placed on the line at all.
+     */
+    public boolean place(PicrossRule rule, Line line) {
+        int length = line.length;
+        ensureCapacity(length, rule.segments.size());
+
+        for (int i = 0; i < length; i ++) {
+            Square current = line.get(i);
+            byte square = current == Square.FILLED ? FILLED_SQUARE
+                    : current == Square.GAP ? GAP_SQUARE
+                    : EMPTY_SQUARE;
+
+            squares[i] = square;
+            reversedSquares[length - 1 - i] = square;
+        }
+
+        return place(rule, length);
+    }
+
+    /**
+     * Places the rule on the squares read by one of the public overloads.
+     */
+    private boolean place(PicrossRule rule, int length) {
+        int count = rule.segments.size();
+        for (int segment = 0; segment < count; segment ++) {
+            segments[segment] = rule.segments.get(segment);
+            reversedSegments[count - 1 - segment] = segments[segment];
+        }
+
+        if (!leftMost(squares, segments, length, count, left)) {
+            return false;
+        }
+
+        // The right-most placement is the left-most placement of the reversed rule on the reversed line.
+        leftMost(reversedSquares, reversedSegments, length, count, reversedLeft);
+        for (int segment = 0; segment < count; segment ++) {
+            right[segment] = length - reversedLeft[count - 1 - segment] - segments[segment];
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the left-most start of the segment, as of the last successful call to {@link #place}.
+     *
+     * @param segment Index of the segment in the rule.
+     * @return Index of the first square the segment covers in its left-most placement.
+     */
+    public int left(int segment) {
+        return left[segment];
+    }
+
+    /**
+     * Returns the right-most start of the segment, as of the last successful call to {@link #place}.
+     *
+     * @param segment Index of the segment in the rule.
+     * @return Index of the first square the segment covers in its right-most placement.
+     */
+    public int right(int segment) {
+        return right[segment];
+    }
+
+    /**
+     * Counts the ways the rule can be placed on the line, saturating at {@link Long#MAX_VALUE}.  Lines with fewer
+     * placements left are more constrained.
+     *
+     * @param rule Rule to place.
+     * @param line Line to place the rule's segments on.
+     * @return Number of placements consistent with the line's squares.
+     */
+    public long count(PicrossRule rule, PackedLine line) {
+        int length = line.length;
+        int count = rule.minimumLength() == 0 ? 0 : rule.segments.size();
+        ensureCapacity(length, count);
+
+        for (int i = 0; i < length; i ++) {
+            long bit = 1L << i;
+            squares[i] = (line.filled[i >>> 6] & bit) != 0 ? FILLED_SQUARE
+                    : (line.gaps[i >>> 6] & bit) != 0 ? GAP_SQUARE
+                    : EMPTY_SQUARE;
+        }
+
+        for (int segment = 0; segment < count; segment ++) {
+            segments[segment] = rule.segments.get(segment);
+        }
+
+        free[length] = 0;
+        for (int i = length - 1; i >= 0; i --) {
+            free[i] = squares[i] == GAP_SQUARE ? 0 : free[i + 1] + 1;
+        }
+
+        // ways[segment * (length + 1) + i] is the number of ways squares i.. can hold segments segment..count-1.
+        int stride = length + 1;
+        if (ways.length < (count + 1) * stride) {
+            ways = new long[(count + 1) * stride];
+        }
+
+        ways[count * stride + length] = 1;
+        for (int i = length - 1; i >= 0; i --) {
+            ways[count * stride + i] = squares[i] == FILLED_SQUARE ? 0 : ways[count * stride + i + 1];
+        }
+
+        for (int segment = count - 1; segment >= 0; segment --) {
+            ways[segment * stride + length] = 0;
+
+            for (int i = length - 1; i >= 0; i --) {
+                long skip = squares[i] == FILLED_SQUARE ? 0 : ways[segment * stride + i + 1];
+
+                long start = 0;
+                int end = i + segments[segment];
+                if (end <= length && free[i] >= segments[segment]) {
+                    if (end == length) {
+                        start = segment == count - 1 ? 1 : 0;
+                    } else if (squares[end] != FILLED_SQUARE) {
+                        start = ways[(segment + 1) * stride + end + 1];
+                    }
+                }
+
+                long total = skip + start;
+                ways[segment * stride + i] = total < 0 ? Long.MAX_VALUE : total;
+            }
+        }
+
+        return ways[0];
+    }
+
+    /**
+     * Finds the left-most start of each segment.  Works backwards through the line first, recording whether the
+     * squares from each index onward can hold each suffix of the segments, then greedily places each segment
+     * at the first start that leaves room for the rest of the rule.
+     */
+    private boolean leftMost(byte[] squares, int[] segments, int length, int count, int[] starts) {
+        // free[i] is the number of squares starting at i before the next GAP.
+        free[length] = 0;
+        for (int i = length - 1; i >= 0; i --) {
+            free[i] = squares[i] == GAP_SQUARE ? 0 : free[i + 1] + 1;
+        }
+
+        // Bit (segment * (length + 1) + i) is on if squares i.. can hold segments segment..count-1.
+        int stride = length + 1;
+        Arrays.fill(fits, 0, words((count + 1) * stride), 0L);
+
+        setBit(count * stride + length);
+        for (int i = length - 1; i >= 0 && squares[i] != FILLED_SQUARE; i --) {
+            setBit(count * stride + i);
+        }
+
+        for (int segment = count - 1; segment >= 0; segment --) {
+            for (int i = length - 1; i >= 0; i --) {
+                boolean skip = squares[i] != FILLED_SQUARE && getBit(segment * stride + i + 1);
+                if (skip || startsAt(squares, segments, length, count, segment, i)) {
+                    setBit(segment * stride + i);
+                }
+            }
+        }
+
+        if (!getBit(0)) {
+            return false;
+        }
+
+        int position = 0;
+        for (int segment = 0; segment < count; segment ++) {
+            int start = position;
+            while (!startsAt(squares, segments, length, count, segment, start)) {
+                start ++;
+            }
+
+            starts[segment] = start;
+            position = start + segments[segment] + 1;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns whether the segment can start at the given index, leaving room for the rest of the segments after it.
+     */
+    private boolean startsAt(byte[] squares, int[] segments, int length, int count, int segment, int start) {
+        int end = start + segments[segment];
+        if (end > length || free[start] < segments[segment]) {
+            return false;
+        }
+
+        if (end == length) {
+            return segment == count - 1;
+        }
+
+        return squares[end] != FILLED_SQUARE && getBit((segment + 1) * (length + 1) + end + 1);
+    }
+
+    private void ensureCapacity(int length, int count) {
+        if (squares.length < length) {
+            squares = new byte[length];
+            reversedSquares = new byte[length];
+            free = new int[length + 1];
+        }
+
+        if (segments.length < count) {
+            left = new int[count];
+            right = new int[count];
+            segments = new int[count];
+            reversedSegments = new int[count];
+            reversedLeft = new int[count];
+        }
+
+        int bits = (count + 1) * (length + 1);
+        if (fits.length < words(bits)) {
+            fits = new long[words(bits)];
+        }
+    }
+
+    private boolean getBit(int bit) {
+        return (fits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private void setBit(int bit) {
+        fits[bit >>> 6] |= 1L << bit;
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+}
@@ -0,0 +1,107 @@
+package dev.jh.solver.line;
+
+import com.google.common.base.MoreObjects;
+import dev.jh.solver.Square;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * RuleAutomaton is a rule compiled into a deterministic automaton over the squares on a line.  A rule's lines are any
+ * number of GAPs, then each segment's FILLED squares with at least one GAP between segments, then any number of GAPs.
+ * State i has matched the first i squares of the rule's tightest placement - its segments separated by single GAPs -
+ * so the automaton has one state per square of that placement plus the starting state, and only the last state
+ * accepts.  GAPs loop on the starting state, on the state after each separating GAP, and on the last state.
+ *
+ * Automata only depend on the rule, not the line length, so one automaton serves every line with the same rule.
+ * They're compiled the first time they're looked up, and shared by every thread.
+ */
+public final class RuleAutomaton {
+    /** Symbols, indexing the transition table. */
+    static final int FILLED_SYMBOL = 0;
+    static final int GAP_SYMBOL = 1;
+
+    private static final ConcurrentMap<PicrossRule, RuleAutomaton> AUTOMATA = new ConcurrentHashMap<>();
+
+    private final PicrossRule rule;
+    private final int states;
+    /** Next state for each state and symbol as transitions[state * 2 + symbol], or -1 if the square can't follow. */
+    private final int[] transitions;
+
+    private RuleAutomaton(PicrossRule rule) {
+        this.rule = rule;
+
+        // A rule of 0 has an empty tightest placement, so its only state loops on GAPs.
+        int length = rule.minimumLength();
+        boolean[] filled = new boolean[length];
+        int square = 0;
+        for (int segment : rule.segments) {
+            if (segment == 0) {
+                continue;
+            }
+
+            if (square > 0) {
+                square ++;
+            }
+            for (int i = 0; i < segment; i ++) {
+                filled[square ++] = true;
+            }
+        }
+
+        this.states = length + 1;
+        this.transitions = new int[states * 2];
+        for (int state = 0; state < states; state ++) {
+            boolean last = state == length;
+            transitions[state * 2 + FILLED_SYMBOL] = !last && filled[state] ? state + 1 : -1;
+            transitions[state * 2 + GAP_SYMBOL] = !last && !filled[state] ? state + 1
+                    : state == 0 || last || !filled[state - 1] ? state
+                    : -1;
+        }
+    }
+
+    /**
+     * Returns the shared automaton for the rule, compiling it on first use.
+     *
+     * @param rule Rule.
+     * @return Automaton for the rule.
+     */
+    public static RuleAutomaton of(PicrossRule rule) {
+        return AUTOMATA.computeIfAbsent(rule, RuleAutomaton::new);
+    }
+
+    /**
+     * Returns the number of states.  State 0 is the starting state, and the last state is the only accepting state.
+     *
+     * @return Number of states.
+     */
+    public int states() {
+        return states;
+    }
+
+    /**
+     * Returns the state the automaton moves to after reading a square.
+     *
+     * @param state Current state.
+     * @param square FILLED or GAP.
+     * @return Next state, or -1 if the rule doesn't allow the square here.
+     */
+    public int next(int state, Square square) {
+        return transitions[state * 2 + (square == Square.FILLED ? FILLED_SYMBOL : GAP_SYMBOL)];
+    }
+
+    /**
+     * Returns the next state from the transition table, for solvers that already have the symbol.
+     */
+    int next(int state, int symbol) {
+        return transitions[state * 2 + symbol];
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("rule", rule)
+                .add("states", states)
+                .toString();
+    }
+}
@@ -0,0 +1,66 @@
+package dev.jh.solver.line;
+
+import com.google.common.base.Preconditions;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.List;
+
+import static dev.jh.solver.Square.EMPTY;
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+
+/**
+ * Batch line solver that solves each line square by square.  Produces the same lines as
+ * {@link PackedBatchLineSolver}, and serves as the reference implementation for it.
+ */
+public class ScalarBatchLineSolver implements BatchLineSolver {
+
+    private final Placements placements = new Placements();
+
+    @Override
+    public int solve(List<PicrossRule> rules, List<PackedLine> lines) {
+        Preconditions.checkArgument(rules.size() == lines.size(), "Must have a rule for each line.");
+
+        int changed = 0;
+        for (int i = 0; i < lines.size(); i ++) {
+            if (solve(rules.get(i), lines.get(i))) {
+                changed ++;
+            }
+        }
+
+        return changed;
+    }
+
+    private boolean solve(PicrossRule rule, PackedLine line) {
+        if (!placements.place(rule, line)) {
+            throw new IllegalStateException("Rule " + rule + " can't be placed on " + line);
+        }
+
+        boolean changed = false;
+        for (int square = 0; square < line.length; square ++) {
+            boolean covered = false;
+
+            for (int segment = 0; segment < rule.segments.size(); segment ++) {
+                int length = placements.segments[segment];
+                int left = placements.left[segment];
+                int right = placements.right[segment];
+
+                // Squares covered by both the left-most and right-most placement of a segment are always FILLED.
+                if (square >= right && square < left + length && line.get(square) != FILLED) {
+                    line.set(square, FILLED);
+                    changed = true;
+                }
+
+                covered |= square >= left && square < right + length;
+            }
+
+            // Squares that no segment can reach are always GAPs.
+            if (!covered && line.get(square) == EMPTY) {
+                line.set(square, GAP);
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+}
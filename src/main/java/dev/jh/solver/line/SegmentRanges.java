@@ -0,0 +1,303 @@
+package dev.jh.solver.line;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.Arrays;
+
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+
+/**
+ * SegmentRanges tracks the earliest and latest start of each segment in a rule on a line.  Ranges start out as wide
+ * as the rule allows and only ever shrink: {@link #tighten(PackedLine)} picks up where the last call left off
+ * instead of placing the segments from scratch, since squares on a line only go from EMPTY to FILLED or GAP.
+ *
+ * Ranges are conservative - the real left-most start of a segment is never before its earliest start,
+ * and the real right-most start is never after its latest start.
+ */
+public class SegmentRanges {
+    public final int length;
+
+    private final int[] segments;
+    private final int[] earliest;
+    private final int[] latest;
+
+    /** Whether any range moved during the current pass of {@link #tighten(PackedLine)}. */
+    private boolean moved;
+
+    public SegmentRanges(PicrossRule rule, int length) {
+        Preconditions.checkArgument(length > 0, "length must be >= 1");
+
+        this.length = length;
+        this.segments = rule.segments.stream().mapToInt(Integer::intValue).toArray();
+        this.earliest = new int[segments.length];
+        this.latest = new int[segments.length];
+
+        // Pack the segments as far left and as far right as they go.
+        int start = 0;
+        for (int segment = 0; segment < segments.length; segment ++) {
+            earliest[segment] = start;
+            start += segments[segment] + 1;
+        }
+
+        int end = length;
+        for (int segment = segments.length - 1; segment >= 0; segment --) {
+            latest[segment] = end - segments[segment];
+            end = latest[segment] - 1;
+        }
+    }
+
+    private SegmentRanges(SegmentRanges ranges) {
+        this.length = ranges.length;
+        this.segments = ranges.segments;
+        this.earliest = ranges.earliest.clone();
+        this.latest = ranges.latest.clone();
+    }
+
+    /**
+     * Returns the number of segments in the rule.
+     *
+     * @return Number of segments.
+     */
+    public int count() {
+        return segments.length;
+    }
+
+    /**
+     * Returns the length of the given segment.
+     *
+     * @param segment Index of the segment in the rule.
+     * @return Segment length.
+     */
+    public int segment(int segment) {
+        return segments[segment];
+    }
+
+    /**
+     * Returns the earliest index that the segment can start at.
+     *
+     * @param segment Index of the segment in the rule.
+     * @return Earliest start.
+     */
+    public int earliest(int segment) {
+        return earliest[segment];
+    }
+
+    /**
+     * Returns the latest index that the segment can start at.
+     *
+     * @param segment Index of the segment in the rule.
+     * @return Latest start.
+     */
+    public int latest(int segment) {
+        return latest[segment];
+    }
+
+    /**
+     * Shrinks the ranges to account for the squares on the line, until they stop changing.
+     *
+     * @param line Line the rule applies to.
+     * @return Whether every segment still has room on the line.  Ranges are meaningless once this returns false.
+     */
+    public boolean tighten(PackedLine line) {
+        Preconditions.checkArgument(line.length == length, "Line length must be " + length);
+
+        do {
+            moved = false;
+
+            if (!tightenEarliest(line) || !tightenLatest(line)) {
+                return false;
+            }
+        } while (moved);
+
+        return true;
+    }
+
+    /**
+     * Returns a copy of these ranges that can be tightened independently.
+     *
+     * @return Copy of the ranges.
+     */
+    public SegmentRanges copy() {
+        return new SegmentRanges(this);
+    }
+
+    /**
+     * Moves earliest starts right.  A segment can't start right after another segment, can't cover a GAP, and can't
+     * touch a FILLED square on either side.  FILLED squares that later segments can't reach must be covered by
+     * earlier segments, which pushes those earlier segments right.
+     */
+    private boolean tightenEarliest(PackedLine line) {
+        for (int segment = 0; segment < segments.length; segment ++) {
+            int start = earliest[segment];
+            if (segment > 0) {
+                start = Math.max(start, earliest[segment - 1] + segments[segment - 1] + 1);
+            }
+
+            raiseEarliest(segment, fitForward(line, segments[segment], start));
+            if (earliest[segment] > latest[segment]) {
+                return false;
+            }
+        }
+
+        int limit = length;
+        for (int segment = segments.length - 1; segment >= 0; segment --) {
+            int filled = lastFilled(line, limit);
+            if (filled != -1) {
+                raiseEarliest(segment, filled - segments[segment] + 1);
+                if (earliest[segment] > latest[segment]) {
+                    return false;
+                }
+            }
+
+            limit = earliest[segment];
+        }
+
+        // No segment can cover FILLED squares before the first segment.
+        return lastFilled(line, earliest[0]) == -1;
+    }
+
+    /**
+     * Moves latest starts left - the mirror image of {@link #tightenEarliest(PackedLine)}.
+     */
+    private boolean tightenLatest(PackedLine line) {
+        for (int segment = segments.length - 1; segment >= 0; segment --) {
+            int start = latest[segment];
+            if (segment < segments.length - 1) {
+                start = Math.min(start, latest[segment + 1] - segments[segment] - 1);
+            }
+
+            lowerLatest(segment, fitBackward(line, segments[segment], start));
+            if (latest[segment] < earliest[segment]) {
+                return false;
+            }
+        }
+
+        int limit = -1;
+        for (int segment = 0; segment < segments.length; segment ++) {
+            int filled = firstFilled(line, limit + 1);
+            if (filled != -1) {
+                lowerLatest(segment, filled);
+                if (latest[segment] < earliest[segment]) {
+                    return false;
+                }
+            }
+
+            limit = latest[segment] + segments[segment] - 1;
+        }
+
+        // No segment can cover FILLED squares after the last segment.
+        return firstFilled(line, limit + 1) == -1;
+    }
+
+    /**
+     * Returns the first start at or after the given start where a segment with the given length fits.
+     */
+    private int fitForward(PackedLine line, int segment, int start) {
+        while (start + segment <= length) {
+            int gap = lastGap(line, start, start + segment);
+            if (gap != -1) {
+                start = gap + 1;
+            } else if (start + segment < length && line.get(start + segment) == FILLED) {
+                start ++;
+            } else if (start > 0 && line.get(start - 1) == FILLED) {
+                start ++;
+            } else {
+                return start;
+            }
+        }
+
+        return start;
+    }
+
+    /**
+     * Returns the last start at or before the given start where a segment with the given length fits.
+     */
+    private int fitBackward(PackedLine line, int segment, int start) {
+        while (start >= 0) {
+            int gap = firstGap(line, start, start + segment);
+            if (gap != -1) {
+                start = gap - segment;
+            } else if (start > 0 && line.get(start - 1) == FILLED) {
+                start --;
+            } else if (start + segment < length && line.get(start + segment) == FILLED) {
+                start --;
+            } else {
+                return start;
+            }
+        }
+
+        return start;
+    }
+
+    private int lastGap(PackedLine line, int from, int to) {
+        for (int i = to - 1; i >= from; i --) {
+            if (line.get(i) == GAP) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private int firstGap(PackedLine line, int from, int to) {
+        for (int i = from; i < to; i ++) {
+            if (line.get(i) == GAP) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last FILLED square before the given index, or -1.
+     */
+    private int lastFilled(PackedLine line, int before) {
+        for (int i = before - 1; i >= 0; i --) {
+            if (line.get(i) == FILLED) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first FILLED square at or after the given index, or -1.
+     */
+    private int firstFilled(PackedLine line, int from) {
+        for (int i = Math.max(0, from); i < length; i ++) {
+            if (line.get(i) == FILLED) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private void raiseEarliest(int segment, int start) {
+        if (start > earliest[segment]) {
+            earliest[segment] = start;
+            moved = true;
+        }
+    }
+
+    private void lowerLatest(int segment, int start) {
+        if (start < latest[segment]) {
+            latest[segment] = start;
+            moved = true;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("segments", Arrays.toString(segments))
+                .add("earliest", Arrays.toString(earliest))
+                .add("latest", Arrays.toString(latest))
+                .toString();
+    }
+}
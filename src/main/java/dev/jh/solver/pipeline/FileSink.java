@@ -0,0 +1,99 @@
+package dev.jh.solver.pipeline;
+
+import com.google.common.base.MoreObjects;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * FileSink writes each job's solution to a file with the puzzle's name in a directory, or its error to a file with
+ * an '.error' extension.  It takes one job at a time, so a slow disk holds back the rest of the pipeline.
+ */
+public class FileSink implements Flow.Subscriber<PuzzleJob> {
+    private final Path directory;
+    private final CompletableFuture<Summary> done = new CompletableFuture<>();
+
+    private Flow.Subscription subscription;
+    private long solved;
+    private long failed;
+
+    /**
+     * Creates a sink that writes to the directory, which must exist.
+     *
+     * @param directory Directory to write solutions to.
+     */
+    public FileSink(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns a future that completes with the number of jobs written once every job has been written, or fails if
+     * the pipeline or a write fails.
+     *
+     * @return Future summary.
+     */
+    public CompletableFuture<Summary> done() {
+        return done;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(PuzzleJob job) {
+        try {
+            if (job.isFailed()) {
+                Files.write(directory.resolve(job.name + ".error"), job.error.get().getBytes(StandardCharsets.UTF_8));
+                failed ++;
+            } else {
+                Files.write(directory.resolve(job.name),
+                        PuzzleFormat.format(job.solution.get()).getBytes(StandardCharsets.UTF_8));
+                solved ++;
+            }
+        } catch (IOException e) {
+            subscription.cancel();
+            done.completeExceptionally(e);
+            return;
+        }
+
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        done.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        done.complete(new Summary(solved, failed));
+    }
+
+    /**
+     * Summary counts the jobs a sink wrote.
+     */
+    public static final class Summary {
+        public final long solved;
+        public final long failed;
+
+        public Summary(long solved, long failed) {
+            this.solved = solved;
+            this.failed = failed;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("solved", solved)
+                    .add("failed", failed)
+                    .toString();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package dev.jh.solver.pipeline;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * FileSource publishes a job for each puzzle file in a directory, in file name order.  Files are read one at a time
+ * as the buffer empties, so a directory with more puzzles than fit in memory is only read as fast as the pipeline
+ * takes them.
+ */
+public class FileSource extends SubmissionPublisher<PuzzleJob> {
+    private final Path directory;
+
+    /**
+     * Creates a source for the puzzle files in the directory.
+     *
+     * @param directory Directory of puzzle files.
+     * @param bufferCapacity Number of jobs that can wait for the first stage before reading blocks.
+     * @param delivery Executor that delivers jobs to the first stage.
+     */
+    public FileSource(Path directory, int bufferCapacity, Executor delivery) {
+        super(delivery, bufferCapacity);
+        this.directory = directory;
+    }
+
+    /**
+     * Reads every file and publishes it, blocking while the buffer is full.  Closes the source once every file has
+     * been published, or closes it exceptionally if the directory can't be read.
+     */
+    public void run() {
+        try {
+            List<Path> files;
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+
+            for (Path file : files) {
+                if (isClosed()) {
+                    return;
+                }
+
+                submit(PuzzleJob.of(file.getFileName().toString(), ImmutableList.copyOf(Files.readAllLines(file))));
+            }
+
+            close();
+        } catch (IOException | RuntimeException e) {
+            closeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package dev.jh.solver.pipeline;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import dev.jh.solver.PicrossSolver;
+import dev.jh.solver.Solver;
+import dev.jh.solver.SolutionVerifier;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Pipeline reads puzzle files from a directory, parses and solves them, and writes their solutions to another
+ * directory.  Parsing and solving run as separate {@link Stage}s with their own threads, and every hand-off between
+ * stages goes through a bounded buffer, so the slowest stage sets the pace and the number of puzzles in memory stays
+ * bounded no matter how many files there are.
+ *
+ * Solutions are checked against the puzzle's rules before they're written.  Puzzles that don't parse, can't be
+ * solved, or only solve partway are written as errors instead of stopping the pipeline.
+ */
+public class Pipeline {
+    private final int parseParallelism;
+    private final int solveParallelism;
+    private final int bufferCapacity;
+    private final ThreadLocal<Solver<PicrossRule>> solvers;
+    private final SolutionVerifier verifier = new SolutionVerifier();
+
+    private Pipeline(Builder builder) {
+        this.parseParallelism = builder.parseParallelism;
+        this.solveParallelism = builder.solveParallelism;
+        this.bufferCapacity = builder.bufferCapacity;
+        this.solvers = ThreadLocal.withInitial(builder.solvers::get);
+    }
+
+    /**
+     * Runs the pipeline over every file in the input directory in the background.
+     *
+     * @param input Directory of puzzle files.
+     * @param output Existing directory to write solutions and errors to.
+     * @return Future that completes once every puzzle has been written.
+     */
+    public CompletableFuture<FileSink.Summary> run(Path input, Path output) {
+        ExecutorService delivery = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat("pipeline-delivery-%d").setDaemon(true).build());
+
+        FileSource source = new FileSource(input, bufferCapacity, delivery);
+        Stage<PuzzleJob, PuzzleJob> parse = new Stage<>("pipeline-parse", this::parse, parseParallelism,
+                bufferCapacity, delivery);
+        Stage<PuzzleJob, PuzzleJob> solve = new Stage<>("pipeline-solve", this::solve, solveParallelism,
+                bufferCapacity, delivery);
+        FileSink sink = new FileSink(output);
+
+        source.subscribe(parse);
+        parse.subscribe(solve);
+        solve.subscribe(sink);
+
+        delivery.execute(source::run);
+        return sink.done().whenComplete((summary, e) -> delivery.shutdown());
+    }
+
+    private PuzzleJob parse(PuzzleJob job) {
+        try {
+            return job.parsed(PuzzleFormat.parse(job.lines));
+        } catch (IllegalArgumentException e) {
+            return job.failed("Invalid puzzle: " + e.getMessage());
+        }
+    }
+
+    private PuzzleJob solve(PuzzleJob job) {
+        if (job.isFailed()) {
+            return job;
+        }
+
+        try {
+            PuzzleJob solved = job.solved(solvers.get().solve(job.puzzle.get()));
+            return verifier.verify(job.puzzle.get(), solved.solution.get())
+                    .map(mismatch -> solved.failed("Solution doesn't match " + mismatch.type.name().toLowerCase()
+                            + " " + mismatch.index))
+                    .orElse(solved);
+        } catch (IllegalStateException e) {
+            return job.failed(e.getMessage());
+        }
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private int parseParallelism = 1;
+        private int solveParallelism = Runtime.getRuntime().availableProcessors();
+        private int bufferCapacity = 16;
+        private Supplier<? extends Solver<PicrossRule>> solvers = PicrossSolver::new;
+
+        private Builder() {}
+
+        /**
+         * Sets the number of threads parsing puzzles.  Defaults to 1.
+         *
+         * @param parseParallelism Number of parsing threads.
+         * @return This builder.
+         */
+        public Builder parseParallelism(int parseParallelism) {
+            Preconditions.checkArgument(parseParallelism > 0, "parseParallelism must be >= 1");
+            this.parseParallelism = parseParallelism;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads solving puzzles.  Defaults to the number of processors.
+         *
+         * @param solveParallelism Number of solving threads.
+         * @return This builder.
+         */
+        public Builder solveParallelism(int solveParallelism) {
+            Preconditions.checkArgument(solveParallelism > 0, "solveParallelism must be >= 1");
+            this.solveParallelism = solveParallelism;
+            return this;
+        }
+
+        /**
+         * Sets the number of puzzles that can wait between each pair of stages.  Defaults to 16.
+         *
+         * @param bufferCapacity Buffer capacity.
+         * @return This builder.
+         */
+        public Builder bufferCapacity(int bufferCapacity) {
+            Preconditions.checkArgument(bufferCapacity > 0, "bufferCapacity must be >= 1");
+            this.bufferCapacity = bufferCapacity;
+            return this;
+        }
+
+        /**
+         * Sets the solvers used to solve puzzles.  Each solving thread gets its own.  Defaults to {@link PicrossSolver}.
+         *
+         * @param solvers Creates a solver for each solving thread.
+         * @return This builder.
+         */
+        public Builder solvers(Supplier<? extends Solver<PicrossRule>> solvers) {
+            this.solvers = solvers;
+            return this;
+        }
+
+        public Pipeline build() {
+            return new Pipeline(this);
+        }
+    }
+}
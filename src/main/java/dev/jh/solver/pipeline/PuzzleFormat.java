@@ -0,0 +1,79 @@
+package dev.jh.solver.pipeline;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Grid;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static dev.jh.solver.PuzzleType.PICROSS;
+
+/**
+ * PuzzleFormat reads puzzles and writes solutions in the text format used by the puzzle files.
+ *
+ * Puzzles start with a 'height x width' line, followed by one line per row rule and then one line per column rule.
+ * Rules are space separated segment lengths.  Solutions start with the same 'height x width' line, followed by one
+ * line per row with a character per square.
+ */
+public final class PuzzleFormat {
+    private static final Pattern HEIGHT_WIDTH_PATTERN = Pattern.compile("(\\d+)\\s*x\\s*(\\d+)");
+
+    private PuzzleFormat() {}
+
+    /**
+     * Parses a puzzle.
+     *
+     * @param lines Lines of the puzzle file.
+     * @return Puzzle.
+     * @throws IllegalArgumentException If the lines aren't a puzzle.
+     */
+    public static Puzzle<PicrossRule> parse(List<String> lines) {
+        Iterator<String> lineIterator = lines.iterator();
+        Matcher heightWidthMatcher = HEIGHT_WIDTH_PATTERN.matcher(lineIterator.hasNext() ? lineIterator.next() : "");
+        if (!heightWidthMatcher.matches()) {
+            throw new IllegalArgumentException("First line must be 'height x width'");
+        }
+
+        int height = Integer.parseInt(heightWidthMatcher.group(1));
+        int width = Integer.parseInt(heightWidthMatcher.group(2));
+        if (lines.size() < 1 + height + width) {
+            throw new IllegalArgumentException("Puzzle needs " + (height + width) + " rules, but has "
+                    + (lines.size() - 1));
+        }
+
+        Puzzle.Builder<PicrossRule> puzzle = Puzzle.newBuilder(PICROSS, height, width);
+        for (int row = 0; row < height; row ++) {
+            puzzle.addRowRule(parseRule(lineIterator.next()));
+        }
+        for (int column = 0; column < width; column ++) {
+            puzzle.addColumnRule(parseRule(lineIterator.next()));
+        }
+
+        return puzzle.build();
+    }
+
+    /**
+     * Formats a solution, so it can be read back with {@link Grid#parse(ImmutableList)}.
+     *
+     * @param grid Solution.
+     * @return Solution text.
+     */
+    public static String format(Grid grid) {
+        return grid.height + "x" + grid.width + "\n" + grid;
+    }
+
+    private static PicrossRule parseRule(String line) {
+        try {
+            return new PicrossRule(Arrays.stream(line.trim().split("\\s+"))
+                    .map(Integer::parseInt)
+                    .collect(ImmutableList.toImmutableList()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid rule '" + line + "'", e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package dev.jh.solver.pipeline;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Grid;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.Optional;
+
+/**
+ * PuzzleJob is a puzzle on its way through a {@link Pipeline}.  Each stage returns a new job with its result filled
+ * in, or with an error that later stages pass along untouched.
+ */
+public final class PuzzleJob {
+    public final String name;
+    public final ImmutableList<String> lines;
+    public final Optional<Puzzle<PicrossRule>> puzzle;
+    public final Optional<Grid> solution;
+    public final Optional<String> error;
+
+    private PuzzleJob(String name, ImmutableList<String> lines, Optional<Puzzle<PicrossRule>> puzzle,
+                      Optional<Grid> solution, Optional<String> error) {
+        this.name = name;
+        this.lines = lines;
+        this.puzzle = puzzle;
+        this.solution = solution;
+        this.error = error;
+    }
+
+    /**
+     * Creates a job for the unparsed lines of a puzzle file.
+     *
+     * @param name Name of the puzzle, used to name its output.
+     * @param lines Lines of the puzzle file.
+     * @return Job.
+     */
+    public static PuzzleJob of(String name, ImmutableList<String> lines) {
+        return new PuzzleJob(name, lines, Optional.empty(), Optional.empty(), Optional.empty());
+    }
+
+    PuzzleJob parsed(Puzzle<PicrossRule> puzzle) {
+        return new PuzzleJob(name, lines, Optional.of(puzzle), solution, error);
+    }
+
+    PuzzleJob solved(Grid solution) {
+        return new PuzzleJob(name, lines, puzzle, Optional.of(solution), error);
+    }
+
+    PuzzleJob failed(String error) {
+        return new PuzzleJob(name, lines, puzzle, solution, Optional.of(error));
+    }
+
+    public boolean isFailed() {
+        return error.isPresent();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("name", name)
+                .add("solved", solution.isPresent())
+                .add("error", error.orElse(null))
+                .toString();
+    }
+}
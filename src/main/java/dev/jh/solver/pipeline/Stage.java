@@ -0,0 +1,132 @@
+package dev.jh.solver.pipeline;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Stage is a step of a pipeline that transforms each item on its own pool of worker threads.  It only requests as
+ * many items from upstream as it has workers, and asks for another once a worker has handed its result to the
+ * stage's bounded output buffer.  When a downstream stage falls behind, the buffer fills up, workers block handing
+ * off their results, and the stage stops requesting items - so a slow stage holds back the stages before it instead
+ * of letting items pile up in memory.
+ *
+ * Nothing is requested from upstream until the stage has a subscriber of its own, since a
+ * {@link SubmissionPublisher} drops items that nobody has subscribed to.  Items can come out in a different order
+ * than they went in.  If the function throws, the stage cancels its upstream and passes the error downstream.
+ *
+ * @param <I> Type of items the stage takes.
+ * @param <O> Type of items the stage produces.
+ */
+public class Stage<I, O> extends SubmissionPublisher<O> implements Flow.Processor<I, O> {
+    private final Function<? super I, ? extends O> function;
+    private final int parallelism;
+    private final ExecutorService workers;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile Flow.Subscription subscription;
+    private volatile boolean upstreamComplete;
+    private volatile boolean failed;
+
+    /**
+     * Creates a stage.
+     *
+     * @param name Name of the stage, used to name its worker threads.
+     * @param function Transforms each item.  Called from several threads at once.
+     * @param parallelism Number of worker threads, and items in progress at once.
+     * @param bufferCapacity Number of results that can wait for downstream before workers block.
+     * @param delivery Executor that delivers results downstream.  Shouldn't be bounded by the stages it feeds.
+     */
+    public Stage(String name, Function<? super I, ? extends O> function, int parallelism, int bufferCapacity,
+                 Executor delivery) {
+        super(delivery, bufferCapacity);
+        Preconditions.checkArgument(parallelism > 0, "parallelism must be >= 1");
+
+        this.function = function;
+        this.parallelism = parallelism;
+        this.workers = Executors.newFixedThreadPool(parallelism,
+                new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build());
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super O> subscriber) {
+        super.subscribe(subscriber);
+        start();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        start();
+    }
+
+    @Override
+    public void onNext(I item) {
+        if (failed) {
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        workers.execute(() -> {
+            try {
+                // Blocks while the output buffer is full, which holds back the next request.
+                submit(function.apply(item));
+            } catch (RuntimeException e) {
+                fail(e);
+            } finally {
+                if (inFlight.decrementAndGet() == 0 && upstreamComplete) {
+                    finish();
+                } else if (!upstreamComplete) {
+                    subscription.request(1);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        failed = true;
+        closeExceptionally(throwable);
+        workers.shutdown();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamComplete = true;
+        if (inFlight.get() == 0) {
+            finish();
+        }
+    }
+
+    /**
+     * Requests the first items once there's both an upstream and a downstream.
+     */
+    private void start() {
+        if (subscription != null && hasSubscribers() && started.compareAndSet(false, true)) {
+            subscription.request(parallelism);
+        }
+    }
+
+    private void fail(RuntimeException e) {
+        failed = true;
+        subscription.cancel();
+        closeExceptionally(e);
+        workers.shutdown();
+    }
+
+    private void finish() {
+        if (!failed) {
+            close();
+        }
+        workers.shutdown();
+    }
+}
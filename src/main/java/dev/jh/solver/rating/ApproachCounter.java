@@ -0,0 +1,39 @@
+package dev.jh.solver.rating;
+
+import dev.jh.solver.LineType;
+import dev.jh.solver.Square;
+import dev.jh.solver.approach.Status;
+import dev.jh.solver.trace.Tracer;
+
+/**
+ * ApproachCounter is a tracer that counts the squares each approach deduced.
+ */
+final class ApproachCounter implements Tracer {
+    private final long[] squares;
+    private int approach;
+
+    ApproachCounter(int approaches) {
+        this.squares = new long[approaches];
+    }
+
+    @Override
+    public void line(LineType type, int index) {
+    }
+
+    @Override
+    public void approach(int approach, Status status) {
+        this.approach = approach;
+    }
+
+    @Override
+    public void change(int index, Square square) {
+        squares[approach] ++;
+    }
+
+    /**
+     * Returns the number of squares the approach deduced.
+     */
+    long squares(int approach) {
+        return squares[approach];
+    }
+}
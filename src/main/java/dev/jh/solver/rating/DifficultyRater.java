@@ -0,0 +1,119 @@
+package dev.jh.solver.rating;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import dev.jh.solver.Grid;
+import dev.jh.solver.PicrossSolver;
+import dev.jh.solver.Propagator;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.board.PackedBoard;
+import dev.jh.solver.rules.picross.PicrossRule;
+import dev.jh.solver.search.Search;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+import static dev.jh.solver.approach.picross.PicrossApproach.*;
+
+/**
+ * DifficultyRater rates puzzles by solving them and counting the work the solver did along the way.  Lines are solved
+ * with the simplest approaches first, so each square is credited to the easiest approach that could deduce it, and
+ * puzzles that line solving can't finish are searched.  The score is:
+ *
+ * <pre>
+ *   100 * weight of the hardest approach that deduced a square
+ * + 100 * total weight of every deduced square / squares on the board
+ * +  10 * propagation rounds
+ * + 1000 * search decisions
+ * </pre>
+ *
+ * Approach weights go from 1 for approaches that look at a single clue to 4 for the segment ranges, which reason about
+ * every segment at once.  Rounds stand in for how many times a player has to go back over the board, and guessing is
+ * the hardest thing a player can be asked to do, so each decision outweighs everything else.
+ *
+ * Squares deduced on search branches that turned out to be wrong count too - they're work the solver did.
+ */
+public class DifficultyRater {
+    private static final ImmutableMap<String, Integer> WEIGHTS = ImmutableMap.<String, Integer>builder()
+            .put(FULL_LINE.toString(), 1)
+            .put(FULL_LINE_WITH_GAPS.toString(), 1)
+            .put(COMPLETED_LINE.toString(), 1)
+            .put(OVERLAP.toString(), 2)
+            .put(MAXED_SEGMENT.toString(), 2)
+            .put(UNREACHABLE.toString(), 3)
+            .put("SEGMENT_RANGES", 4)
+            .build();
+
+    private static final ImmutableList<String> APPROACH_NAMES = Propagator.approachNames(PicrossSolver.APPROACHES);
+
+    private final ForkJoinPool pool;
+
+    public DifficultyRater() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a rater that rates batches of puzzles in the given pool.
+     *
+     * @param pool Pool to rate batches in.
+     */
+    public DifficultyRater(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Solves the puzzle and rates it.
+     *
+     * @param puzzle Puzzle to rate.
+     * @return Rating.
+     * @throws IllegalStateException If the puzzle has no solution.
+     */
+    public Rating rate(Puzzle<PicrossRule> puzzle) {
+        ApproachCounter counter = new ApproachCounter(APPROACH_NAMES.size());
+        Propagator propagator = new Propagator(puzzle, PackedBoard.onHeap(puzzle.height, puzzle.width),
+                PicrossSolver.APPROACHES, Optional.empty(), counter);
+        propagator.solveSimplestFirst();
+
+        Search search = new Search(propagator, () -> false);
+        Grid solution = search.next().orElseThrow(() -> new IllegalStateException("Puzzle has no solution."));
+
+        ImmutableMap.Builder<String, Long> squares = ImmutableMap.builder();
+        int hardest = 0;
+        long weighted = 0;
+        for (int approach = 0; approach < APPROACH_NAMES.size(); approach ++) {
+            long count = counter.squares(approach);
+            if (count == 0) {
+                continue;
+            }
+
+            String name = APPROACH_NAMES.get(approach);
+            int weight = WEIGHTS.get(name);
+            squares.put(name, count);
+            hardest = Math.max(hardest, weight);
+            weighted += weight * count;
+        }
+
+        long score = 100L * hardest
+                + 100L * weighted / ((long) puzzle.height * puzzle.width)
+                + 10L * propagator.rounds()
+                + 1000L * search.statistics().decisions();
+
+        return new Rating(solution, squares.build(), propagator.rounds(), search.statistics(), score);
+    }
+
+    /**
+     * Rates a batch of puzzles in parallel.
+     *
+     * @param puzzles Puzzles to rate.
+     * @return Rating for each puzzle, in the same order as the puzzles.
+     * @throws IllegalStateException If any of the puzzles has no solution.
+     */
+    public ImmutableList<Rating> rateAll(List<Puzzle<PicrossRule>> puzzles) {
+        // Running the parallel stream from inside the pool keeps its work in the pool.
+        return pool.submit(() -> puzzles.parallelStream()
+                .map(this::rate)
+                .collect(ImmutableList.toImmutableList()))
+                .join();
+    }
+}
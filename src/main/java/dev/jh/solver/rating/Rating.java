@@ -0,0 +1,49 @@
+package dev.jh.solver.rating;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import dev.jh.solver.Grid;
+import dev.jh.solver.search.SearchStatistics;
+
+/**
+ * Rating is how much work the solver needed for a puzzle, and the difficulty score that work adds up to.
+ */
+public final class Rating {
+    /** Solution the solver found. */
+    public final Grid solution;
+    /** Squares deduced by each approach that deduced any, in the order the solver applies them. */
+    public final ImmutableMap<String, Long> squares;
+    /** Number of propagation rounds, including rounds run after search assumptions. */
+    public final long rounds;
+    /** Work done by search.  Puzzles that line solving finishes have no decisions. */
+    public final SearchStatistics search;
+    /** Difficulty score - higher is harder. */
+    public final long score;
+
+    Rating(Grid solution, ImmutableMap<String, Long> squares, long rounds, SearchStatistics search, long score) {
+        this.solution = solution;
+        this.squares = squares;
+        this.rounds = rounds;
+        this.search = search;
+        this.score = score;
+    }
+
+    /**
+     * Returns whether line solving alone couldn't finish the puzzle.
+     *
+     * @return Whether the solver had to search.
+     */
+    public boolean searched() {
+        return search.decisions() > 0;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("score", score)
+                .add("squares", squares)
+                .add("rounds", rounds)
+                .add("search", search)
+                .toString();
+    }
+}
@@ -0,0 +1,42 @@
+package dev.jh.solver.rules.picross;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import dev.jh.solver.Puzzle;
+
+/**
+ * PuzzleFingerprint hashes a puzzle's size and rules into a stable 64-bit value.  Puzzles with the same clues have the
+ * same fingerprint across runs and machines, so fingerprints can be stored on disk to recognize a puzzle again.
+ */
+public final class PuzzleFingerprint {
+
+    private PuzzleFingerprint() {}
+
+    /**
+     * Returns the fingerprint of the puzzle.
+     *
+     * @param puzzle Puzzle.
+     * @return Fingerprint.
+     */
+    public static long of(Puzzle<PicrossRule> puzzle) {
+        Hasher hasher = Hashing.murmur3_128().newHasher()
+                .putInt(puzzle.height)
+                .putInt(puzzle.width);
+
+        for (int row = 0; row < puzzle.height; row ++) {
+            putRule(hasher, puzzle.rowRule(row));
+        }
+        for (int column = 0; column < puzzle.width; column ++) {
+            putRule(hasher, puzzle.columnRule(column));
+        }
+
+        return hasher.hash().asLong();
+    }
+
+    private static void putRule(Hasher hasher, PicrossRule rule) {
+        hasher.putInt(rule.segments.size());
+        for (int segment : rule.segments) {
+            hasher.putInt(segment);
+        }
+    }
+}
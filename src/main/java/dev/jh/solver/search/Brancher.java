@@ -0,0 +1,23 @@
+package dev.jh.solver.search;
+
+import dev.jh.solver.Propagator;
+
+/**
+ * Brancher chooses the square a search decides next.  Searches only ask once propagation has settled, so a brancher
+ * can mark the propagator, try assumptions, and undo them as long as it leaves the propagator as it found it.
+ *
+ * Branchers are shared between searches that may run on different threads, so they shouldn't hold state.
+ */
+@FunctionalInterface
+public interface Brancher {
+    /** Decides squares in row-major order. */
+    Brancher FIRST_UNDECIDED = propagator -> Search.undecided(propagator.board());
+
+    /**
+     * Chooses the next square to decide.
+     *
+     * @param propagator Propagator with settled propagation.
+     * @return Square to decide as row * width + column, or -1 if every square is decided.
+     */
+    int choose(Propagator propagator);
+}
@@ -0,0 +1,125 @@
+package dev.jh.solver.search;
+
+import com.google.common.base.MoreObjects;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Checkpoint records the decisions on a search's stack, so a search can be resumed after the process that ran it
+ * goes away.  Checkpoints are only taken once propagation has settled, so the propagation queue is always empty, and
+ * the board is rebuilt by replaying the decisions - propagation is deterministic, so replaying them reaches the same
+ * squares.  That keeps a checkpoint proportional to the depth of the search instead of the size of the board.
+ *
+ * File format: a magic number, the puzzle's fingerprint, the number of decisions, and one int per decision from the
+ * bottom of the stack to the top.  Decisions are the square's row * width + column, or its complement once the
+ * FILLED branch has been exhausted and the GAP branch is being tried.
+ */
+public final class Checkpoint {
+    private static final int MAGIC = 0x50434b31;
+
+    public final long fingerprint;
+    private final int[] decisions;
+
+    Checkpoint(long fingerprint, int[] decisions) {
+        this.fingerprint = fingerprint;
+        this.decisions = decisions;
+    }
+
+    /**
+     * Returns the number of decisions in the checkpoint.
+     *
+     * @return Search depth.
+     */
+    public int depth() {
+        return decisions.length;
+    }
+
+    /**
+     * Returns the square decided at the given depth, as row * width + column.
+     */
+    int square(int depth) {
+        return decisions[depth] < 0 ? ~decisions[depth] : decisions[depth];
+    }
+
+    /**
+     * Returns whether the decision at the given depth is trying the GAP branch.
+     */
+    boolean triedGap(int depth) {
+        return decisions[depth] < 0;
+    }
+
+    /**
+     * Writes the checkpoint to the given path.  The checkpoint is written to a temporary file first and moved into
+     * place, so a crash while writing leaves the previous checkpoint intact.
+     *
+     * @param path Path to write the checkpoint to.
+     * @throws IOException If the checkpoint can't be written.
+     */
+    public void write(Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeLong(fingerprint);
+            out.writeInt(decisions.length);
+            for (int decision : decisions) {
+                out.writeInt(decision);
+            }
+        }
+
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a checkpoint written by {@link #write(Path)}.
+     *
+     * @param path Path to read the checkpoint from.
+     * @return Checkpoint.
+     * @throws IOException If the checkpoint can't be read or isn't a checkpoint.
+     */
+    public static Checkpoint read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " isn't a checkpoint.");
+            }
+
+            long fingerprint = in.readLong();
+            int[] decisions = new int[in.readInt()];
+            for (int i = 0; i < decisions.length; i ++) {
+                decisions[i] = in.readInt();
+            }
+
+            return new Checkpoint(fingerprint, decisions);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Checkpoint that = (Checkpoint) o;
+        return fingerprint == that.fingerprint &&
+                Arrays.equals(decisions, that.decisions);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(fingerprint) + Arrays.hashCode(decisions);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("fingerprint", Long.toHexString(fingerprint))
+                .add("decisions", Arrays.toString(decisions))
+                .toString();
+    }
+}
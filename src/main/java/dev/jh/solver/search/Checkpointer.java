@@ -0,0 +1,50 @@
+package dev.jh.solver.search;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Checkpointer writes a search's checkpoint to a file whenever the given interval has passed since the last one.
+ * Pass it to a {@link Search} to be called before each decision.
+ */
+public class Checkpointer implements Consumer<Search> {
+    private final Path path;
+    private final long intervalNanos;
+
+    private long lastWrite;
+
+    /**
+     * Creates a checkpointer.  The first checkpoint is written once the interval has passed.
+     *
+     * @param path File to write checkpoints to.
+     * @param interval Minimum time between checkpoints.
+     */
+    public Checkpointer(Path path, Duration interval) {
+        Preconditions.checkArgument(!interval.isNegative(), "interval must be >= 0");
+
+        this.path = path;
+        this.intervalNanos = interval.toNanos();
+        this.lastWrite = System.nanoTime();
+    }
+
+    @Override
+    public void accept(Search search) {
+        long now = System.nanoTime();
+        if (now - lastWrite < intervalNanos) {
+            return;
+        }
+
+        try {
+            search.checkpoint().write(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        lastWrite = now;
+    }
+}
@@ -0,0 +1,62 @@
+package dev.jh.solver.search;
+
+import dev.jh.solver.Grid;
+import dev.jh.solver.PicrossSolver;
+import dev.jh.solver.Propagator;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.Solver;
+import dev.jh.solver.board.PackedBoard;
+import dev.jh.solver.event.SolveEvent;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * CheckpointingSolver searches for a solution sequentially, writing a {@link Checkpoint} periodically so a solve that
+ * gets interrupted can pick up where it left off.  If the checkpoint file exists when a solve starts, the solve
+ * resumes from it.  The checkpoint is deleted once the solve finishes.
+ */
+public class CheckpointingSolver implements Solver<PicrossRule> {
+    private final Path path;
+    private final Duration interval;
+
+    /**
+     * Creates a solver that checkpoints to the given file.
+     *
+     * @param path Checkpoint file.
+     * @param interval Minimum time between checkpoints.
+     */
+    public CheckpointingSolver(Path path, Duration interval) {
+        this.path = path;
+        this.interval = interval;
+    }
+
+    @Override
+    public Grid solve(Puzzle<PicrossRule> puzzle) {
+        Propagator propagator = new Propagator(puzzle, PackedBoard.onHeap(puzzle.height, puzzle.width),
+                PicrossSolver.APPROACHES, Optional.empty());
+        Checkpointer checkpointer = new Checkpointer(path, interval);
+        SolveEvent event = SolveEvent.begin(this, puzzle);
+
+        try {
+            Search search = Files.exists(path)
+                    ? Search.resume(propagator, Checkpoint.read(path), () -> false, checkpointer)
+                    : new Search(propagator, () -> false, checkpointer);
+
+            Optional<Grid> solution = search.next();
+            Files.deleteIfExists(path);
+
+            event.solved = solution.isPresent();
+            return solution.orElseThrow(() -> new IllegalStateException("Puzzle has no solution."));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            event.commit();
+        }
+    }
+}
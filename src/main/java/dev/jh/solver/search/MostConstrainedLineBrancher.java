@@ -0,0 +1,69 @@
+package dev.jh.solver.search;
+
+import dev.jh.solver.Propagator;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.board.Board;
+import dev.jh.solver.line.PackedLine;
+import dev.jh.solver.line.Placements;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+/**
+ * MostConstrainedLineBrancher decides a square on the unsolved line with the fewest placements of its rule left.
+ * Either branch of a square on a tightly constrained line rules out a large share of the line's placements, so
+ * contradictions show up sooner than they would on a line with lots of freedom.
+ */
+public class MostConstrainedLineBrancher implements Brancher {
+
+    @Override
+    public int choose(Propagator propagator) {
+        Puzzle<PicrossRule> puzzle = propagator.puzzle();
+        Board board = propagator.board();
+        Placements placements = new Placements();
+
+        PackedLine row = new PackedLine(board.width());
+        PackedLine column = new PackedLine(board.height());
+
+        long fewest = Long.MAX_VALUE;
+        int square = -1;
+
+        for (int index = 0; index < board.height(); index ++) {
+            board.readRow(index, row);
+            if (!row.isSolved()) {
+                long count = placements.count(puzzle.rowRule(index), row);
+                if (count < fewest || square == -1) {
+                    fewest = count;
+                    square = index * board.width() + firstEmpty(row);
+                }
+            }
+        }
+
+        for (int index = 0; index < board.width(); index ++) {
+            board.readColumn(index, column);
+            if (!column.isSolved()) {
+                long count = placements.count(puzzle.columnRule(index), column);
+                if (count < fewest || square == -1) {
+                    fewest = count;
+                    square = firstEmpty(column) * board.width() + index;
+                }
+            }
+        }
+
+        return square;
+    }
+
+    private static int firstEmpty(PackedLine line) {
+        for (int word = 0; word < line.words(); word ++) {
+            long empty = ~(line.filledWord(word) | line.gapWord(word)) & PackedLine.mask(line.length, word);
+            if (empty != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(empty);
+            }
+        }
+
+        throw new IllegalStateException("Line is solved.");
+    }
+
+    @Override
+    public String toString() {
+        return "MOST_CONSTRAINED_LINE";
+    }
+}
@@ -0,0 +1,208 @@
+package dev.jh.solver.search;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import dev.jh.solver.Square;
+import dev.jh.solver.board.Board;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NogoodDatabase holds combinations of squares that a search has learned can't all be part of a solution.  Each
+ * nogood is a set of literals - a square and the value it can't have alongside the rest.  The database holds a
+ * bounded number of nogoods, evicting the one that was least recently added or used when it's full.
+ *
+ * Nogoods are indexed by each of their literals, so checking a branch only looks at the nogoods that mention it.
+ * The database isn't thread-safe.
+ */
+public class NogoodDatabase {
+    private final int capacity;
+    private final int maxLiterals;
+
+    /** Nogoods in least recently used order. */
+    private final LinkedHashMap<Nogood, Nogood> nogoods;
+    /** Nogoods containing each literal. */
+    private final Map<Integer, List<Nogood>> watches;
+
+    private long learned;
+    private long evicted;
+    private long pruned;
+
+    /**
+     * Creates an empty database.
+     *
+     * @param capacity Maximum number of nogoods to hold.
+     * @param maxLiterals Longest nogood worth keeping - long nogoods rarely match again.
+     */
+    public NogoodDatabase(int capacity, int maxLiterals) {
+        Preconditions.checkArgument(capacity > 0, "capacity must be >= 1");
+        Preconditions.checkArgument(maxLiterals > 0, "maxLiterals must be >= 1");
+
+        this.capacity = capacity;
+        this.maxLiterals = maxLiterals;
+        this.nogoods = new LinkedHashMap<>(16, 0.75f, true);
+        this.watches = new HashMap<>();
+    }
+
+    /**
+     * Returns the literal for a square as row * width + column having the given value.
+     *
+     * @param square Square as row * width + column.
+     * @param value FILLED or GAP.
+     * @return Literal.
+     */
+    public static int literal(int square, Square value) {
+        return square << 1 | (value == Square.GAP ? 1 : 0);
+    }
+
+    /**
+     * Adds a nogood, unless it's too long or already known.
+     *
+     * @param literals Literals that can't all hold at once.
+     * @return Whether the nogood was added.
+     */
+    public boolean add(int[] literals) {
+        if (literals.length == 0 || literals.length > maxLiterals) {
+            return false;
+        }
+
+        Nogood nogood = new Nogood(literals);
+        if (nogoods.containsKey(nogood)) {
+            return false;
+        }
+
+        if (nogoods.size() == capacity) {
+            Iterator<Nogood> eldest = nogoods.keySet().iterator();
+            unwatch(eldest.next());
+            eldest.remove();
+            evicted ++;
+        }
+
+        nogoods.put(nogood, nogood);
+        for (int literal : nogood.literals) {
+            watches.computeIfAbsent(literal, key -> new ArrayList<>()).add(nogood);
+        }
+
+        learned ++;
+        return true;
+    }
+
+    /**
+     * Returns the literals of a nogood that the literal would complete, given the squares already on the board.
+     *
+     * @param board Board the search is working on.
+     * @param literal Literal about to be assumed.
+     * @return Literals of the first nogood that the literal would complete, or null if there isn't one.
+     */
+    public int[] forbidding(Board board, int literal) {
+        List<Nogood> watching = watches.get(literal);
+        if (watching == null) {
+            return null;
+        }
+
+        for (Nogood nogood : watching) {
+            if (holdsExcept(board, nogood, literal)) {
+                // Touch the nogood so it's the last to be evicted.
+                nogoods.get(nogood);
+                pruned ++;
+                return nogood.literals;
+            }
+        }
+
+        return null;
+    }
+
+    public int size() {
+        return nogoods.size();
+    }
+
+    /**
+     * Returns the number of nogoods added since the database was created.
+     *
+     * @return Number of nogoods learned.
+     */
+    public long learned() {
+        return learned;
+    }
+
+    /**
+     * Returns the number of nogoods evicted to make room for new ones.
+     *
+     * @return Number of nogoods evicted.
+     */
+    public long evicted() {
+        return evicted;
+    }
+
+    /**
+     * Returns the number of branches that nogoods have ruled out.
+     *
+     * @return Number of pruned branches.
+     */
+    public long pruned() {
+        return pruned;
+    }
+
+    private boolean holdsExcept(Board board, Nogood nogood, int except) {
+        for (int literal : nogood.literals) {
+            if (literal == except) {
+                continue;
+            }
+
+            int square = literal >>> 1;
+            Square value = (literal & 1) != 0 ? Square.GAP : Square.FILLED;
+            if (board.get(square / board.width(), square % board.width()) != value) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void unwatch(Nogood nogood) {
+        for (int literal : nogood.literals) {
+            List<Nogood> watching = watches.get(literal);
+            watching.remove(nogood);
+            if (watching.isEmpty()) {
+                watches.remove(literal);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("size", nogoods.size())
+                .add("learned", learned)
+                .add("evicted", evicted)
+                .add("pruned", pruned)
+                .toString();
+    }
+
+    private static final class Nogood {
+        private final int[] literals;
+
+        private Nogood(int[] literals) {
+            this.literals = literals.clone();
+            Arrays.sort(this.literals);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return Arrays.equals(literals, ((Nogood) o).literals);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(literals);
+        }
+    }
+}
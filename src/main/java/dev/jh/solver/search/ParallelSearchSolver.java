@@ -0,0 +1,145 @@
+package dev.jh.solver.search;
+
+import com.google.common.base.Preconditions;
+import dev.jh.solver.Grid;
+import dev.jh.solver.PicrossSolver;
+import dev.jh.solver.Propagator;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.Solver;
+import dev.jh.solver.board.PackedBoard;
+import dev.jh.solver.event.SolveEvent;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+
+/**
+ * ParallelSearchSolver solves puzzles that line solving alone can't finish by searching over assumptions in a
+ * fork/join pool.  The first few decisions of the search fork the GAP branch as a separate task with its own copy of
+ * the propagator, and keep exploring the FILLED branch in place - idle workers steal forked branches.
+ * Past the split depth each task runs a sequential {@link Search} that backtracks without copying.
+ *
+ * Tasks check a shared flag between decisions, so the remaining tasks wind down once any of them finds a solution.
+ */
+public class ParallelSearchSolver implements Solver<PicrossRule> {
+    /** Forking the first 8 decisions makes up to 256 tasks, plenty to keep a pool busy. */
+    private static final int DEFAULT_SPLIT_DEPTH = 8;
+
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+    private final Brancher brancher;
+
+    public ParallelSearchSolver() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SPLIT_DEPTH);
+    }
+
+    /**
+     * Creates a solver that searches in the given pool, deciding squares in row-major order.
+     *
+     * @param pool Pool to run search tasks in.
+     * @param splitDepth Number of decisions that fork a new task.  0 searches sequentially.
+     */
+    public ParallelSearchSolver(ForkJoinPool pool, int splitDepth) {
+        this(pool, splitDepth, Brancher.FIRST_UNDECIDED);
+    }
+
+    /**
+     * Creates a solver that searches in the given pool.
+     *
+     * @param pool Pool to run search tasks in.
+     * @param splitDepth Number of decisions that fork a new task.  0 searches sequentially.
+     * @param brancher Chooses the square to decide next.  Shared by every task.
+     */
+    public ParallelSearchSolver(ForkJoinPool pool, int splitDepth, Brancher brancher) {
+        Preconditions.checkArgument(splitDepth >= 0, "splitDepth must be >= 0");
+
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+        this.brancher = brancher;
+    }
+
+    @Override
+    public Grid solve(Puzzle<PicrossRule> puzzle) {
+        Propagator propagator = new Propagator(puzzle, PackedBoard.onHeap(puzzle.height, puzzle.width),
+                PicrossSolver.APPROACHES, Optional.empty());
+
+        SolveEvent event = SolveEvent.begin(this, puzzle);
+        Grid solution = pool.invoke(new SearchTask(propagator, 0, splitDepth, brancher, new AtomicBoolean()));
+        event.solved = solution != null;
+        event.commit();
+
+        if (solution == null) {
+            throw new IllegalStateException("Puzzle has no solution.");
+        }
+
+        return solution;
+    }
+
+    /**
+     * SearchTask explores every assumption on top of its propagator, returning a solution or null.  Tasks are never
+     * serialized, so their propagators don't need to be.
+     */
+    @SuppressWarnings("serial")
+    private static final class SearchTask extends RecursiveTask<Grid> {
+        private final Propagator propagator;
+        private final int depth;
+        private final int splitDepth;
+        private final Brancher brancher;
+        private final AtomicBoolean found;
+
+        private SearchTask(Propagator propagator, int depth, int splitDepth, Brancher brancher, AtomicBoolean found) {
+            this.propagator = propagator;
+            this.depth = depth;
+            this.splitDepth = splitDepth;
+            this.brancher = brancher;
+            this.found = found;
+        }
+
+        @Override
+        protected Grid compute() {
+            if (depth >= splitDepth) {
+                return finish(new Search(propagator, found::get).useBrancher(brancher).next().orElse(null));
+            }
+
+            if (found.get() || !propagator.propagate()) {
+                return null;
+            }
+
+            int square = brancher.choose(propagator);
+            if (square == -1) {
+                return finish(propagator.isSolved() ? propagator.board().toGrid() : null);
+            }
+
+            int row = square / propagator.board().width();
+            int column = square % propagator.board().width();
+
+            // Only split points copy the propagator - the FILLED branch keeps this task's copy.
+            Propagator gapBranch = propagator.copy();
+            gapBranch.assume(row, column, GAP);
+            SearchTask gapTask = new SearchTask(gapBranch, depth + 1, splitDepth, brancher, found);
+            gapTask.fork();
+
+            propagator.assume(row, column, FILLED);
+            Grid solution = new SearchTask(propagator, depth + 1, splitDepth, brancher, found).compute();
+            if (solution != null) {
+                // The GAP branch sees the flag and stops at its next decision.
+                return solution;
+            }
+
+            return gapTask.join();
+        }
+
+        private Grid finish(Grid solution) {
+            if (solution != null) {
+                found.set(true);
+            }
+
+            return solution;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package dev.jh.solver.search;
+
+import dev.jh.solver.Propagator;
+import dev.jh.solver.Square;
+import dev.jh.solver.board.Board;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static dev.jh.solver.Square.EMPTY;
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+
+/**
+ * Prober finishes puzzles that line solving alone gets stuck on.  It probes each undecided square by assuming it's
+ * FILLED, propagating, and undoing, then the same for GAP.  If one value contradicts, the square must be the other
+ * one.  If both are consistent, squares that both probes set to the same value must be that value either way.
+ * Forced squares are assumed for good and propagated, and probing repeats until a pass forces nothing.
+ *
+ * Probing propagates twice per undecided square per pass, so each probe's implications are cached along with the
+ * lines it read - the probed square's row and column, and the crossing lines of every square it set.  Propagation
+ * only reads dirty lines, and a line is only dirty once it gains a square, so a probe whose lines haven't gained a
+ * square since it ran would set exactly the same squares again.  Passes reuse those probes instead of propagating,
+ * and only re-probe squares whose neighborhood changed.
+ *
+ * The propagator's current squares are treated as given, so forced squares are assumed without a reason - probe
+ * before a search makes any decisions.  Probing marks the propagator, so its rules can't be changed afterwards.
+ */
+public class Prober {
+    private final Propagator propagator;
+    private final Board board;
+    private final int height;
+    private final int width;
+
+    /** Cached probes as probes[square * 2 + (GAP ? 1 : 0)], or null if the probe hasn't run or contradicted. */
+    private final Implication[] probes;
+    /** When each line last gained a square, rows then columns, on the same clock as the probes' stamps. */
+    private final long[] lineChanged;
+    private long clock;
+
+    private long propagated;
+    private long reused;
+
+    /**
+     * Creates a prober for the propagator.  The cache assumes the prober is the only thing setting squares once it
+     * starts probing, and that they're never undone.
+     *
+     * @param propagator Propagator to probe.
+     */
+    public Prober(Propagator propagator) {
+        this.propagator = propagator;
+        this.board = propagator.board();
+        this.height = board.height();
+        this.width = board.width();
+        this.probes = new Implication[height * width * 2];
+        this.lineChanged = new long[height + width];
+    }
+
+    /**
+     * Propagates, then probes undecided squares until probing doesn't force any more of them.
+     *
+     * @return Whether the board is still consistent with the puzzle - false if the puzzle has no solution from here.
+     */
+    public boolean probe() {
+        if (!propagator.propagate()) {
+            return false;
+        }
+
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+
+            for (int square = 0; square < height * width; square ++) {
+                int row = square / width;
+                int column = square % width;
+                if (board.get(row, column) != EMPTY) {
+                    continue;
+                }
+
+                Implication filled = implication(square, FILLED);
+                Implication gap = filled == null ? null : implication(square, GAP);
+                if (filled == null || gap == null) {
+                    // At least one value contradicts, so the square is the other one - or nothing if both do.
+                    if (filled == null && implication(square, GAP) == null) {
+                        return false;
+                    }
+
+                    if (!force(new int[] {code(square, filled == null ? GAP : FILLED)})) {
+                        return false;
+                    }
+
+                    progress = true;
+                    continue;
+                }
+
+                int[] common = filled.common(gap);
+                if (common.length > 0) {
+                    if (!force(common)) {
+                        return false;
+                    }
+
+                    progress = true;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the number of probes that propagated, rather than reusing a cached probe.
+     *
+     * @return Number of propagated probes.
+     */
+    public long propagated() {
+        return propagated;
+    }
+
+    /**
+     * Returns the number of probes answered from the cache without propagating.
+     *
+     * @return Number of reused probes.
+     */
+    public long reused() {
+        return reused;
+    }
+
+    /**
+     * Returns the squares implied by assuming the square is the given value, or null if the assumption contradicts.
+     */
+    private Implication implication(int square, Square value) {
+        int index = code(square, value);
+        Implication cached = probes[index];
+        if (cached != null && cached.isCurrent(lineChanged)) {
+            reused ++;
+            return cached;
+        }
+
+        propagated ++;
+        Propagator.Mark mark = propagator.mark();
+        propagator.assume(square / width, square % width, value);
+
+        Implication implication = null;
+        if (propagator.propagate()) {
+            int[] set = propagator.setSince(mark);
+            int[] implied = new int[set.length - 1];
+            BitSet lines = new BitSet(height + width);
+            lines.set(square / width);
+            lines.set(height + square % width);
+
+            // The first square set is the probed square itself.
+            for (int i = 1; i < set.length; i ++) {
+                int row = set[i] / width;
+                int column = set[i] % width;
+                implied[i - 1] = code(set[i], board.get(row, column));
+                lines.set(row);
+                lines.set(height + column);
+            }
+
+            Arrays.sort(implied);
+            implication = new Implication(implied, lines.stream().toArray(), clock);
+        }
+
+        propagator.undo(mark);
+        probes[index] = implication;
+        return implication;
+    }
+
+    /**
+     * Assumes the squares for good and propagates them, advancing the clock on every line that gains a square.
+     *
+     * @param codes Squares to assume, as codes from {@link #code(int, Square)}.
+     * @return Whether the board is still consistent.
+     */
+    private boolean force(int[] codes) {
+        Propagator.Mark mark = propagator.mark();
+        for (int code : codes) {
+            propagator.assume(code / 2 / width, code / 2 % width, code % 2 == 0 ? FILLED : GAP, 0);
+        }
+
+        return propagate(mark);
+    }
+
+    private boolean propagate(Propagator.Mark mark) {
+        boolean consistent = propagator.propagate();
+
+        clock ++;
+        for (int square : propagator.setSince(mark)) {
+            lineChanged[square / width] = clock;
+            lineChanged[height + square % width] = clock;
+        }
+
+        return consistent;
+    }
+
+    private static int code(int square, Square value) {
+        return square * 2 + (value == GAP ? 1 : 0);
+    }
+
+    /**
+     * Implication is the squares a probe set, and the lines it read to set them.
+     */
+    private static final class Implication {
+        /** Implied squares as codes from {@link #code(int, Square)}, sorted. */
+        private final int[] implied;
+        /** Lines the probe read, rows then columns. */
+        private final int[] lines;
+        /** Clock when the probe ran. */
+        private final long stamp;
+
+        private Implication(int[] implied, int[] lines, long stamp) {
+            this.implied = implied;
+            this.lines = lines;
+            this.stamp = stamp;
+        }
+
+        /**
+         * Returns whether none of the lines the probe read have gained a square since it ran.
+         */
+        private boolean isCurrent(long[] lineChanged) {
+            for (int line : lines) {
+                if (lineChanged[line] > stamp) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Returns the squares both probes set to the same value.
+         */
+        private int[] common(Implication other) {
+            int[] common = new int[Math.min(implied.length, other.implied.length)];
+            int size = 0;
+
+            for (int i = 0, j = 0; i < implied.length && j < other.implied.length; ) {
+                if (implied[i] < other.implied[j]) {
+                    i ++;
+                } else if (implied[i] > other.implied[j]) {
+                    j ++;
+                } else {
+                    common[size ++] = implied[i];
+                    i ++;
+                    j ++;
+                }
+            }
+
+            return Arrays.copyOf(common, size);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package dev.jh.solver.search;
+
+import com.google.common.base.Preconditions;
+import dev.jh.solver.Propagator;
+import dev.jh.solver.Square;
+import dev.jh.solver.board.Board;
+import dev.jh.solver.line.PackedLine;
+
+/**
+ * ProbingBrancher decides the square whose branches propagate the furthest.  It probes undecided squares by assuming
+ * each value, propagating, and undoing, and scores a square by the smaller number of squares its two branches decide,
+ * so both sides of the decision shrink the search.  A square with a branch that contradicts is chosen straight away,
+ * since the search settles it without exploring anything.
+ *
+ * Probing propagates twice per square, so only the first few undecided squares in row-major order are probed.
+ */
+public class ProbingBrancher implements Brancher {
+    private final int maxProbes;
+
+    /**
+     * Creates a brancher that probes up to the given number of squares per decision.
+     *
+     * @param maxProbes Number of undecided squares to probe.
+     */
+    public ProbingBrancher(int maxProbes) {
+        Preconditions.checkArgument(maxProbes > 0, "maxProbes must be >= 1");
+
+        this.maxProbes = maxProbes;
+    }
+
+    @Override
+    public int choose(Propagator propagator) {
+        Board board = propagator.board();
+        PackedLine line = new PackedLine(board.width());
+        PackedLine scratch = new PackedLine(board.width());
+        int before = decided(board, scratch);
+
+        int best = -1;
+        int bestScore = -1;
+        int probes = 0;
+
+        for (int row = 0; row < board.height() && probes < maxProbes; row ++) {
+            board.readRow(row, line);
+
+            for (int word = 0; word < line.words() && probes < maxProbes; word ++) {
+                long empty = ~(line.filledWord(word) | line.gapWord(word)) & PackedLine.mask(line.length, word);
+                for (; empty != 0 && probes < maxProbes; empty &= empty - 1) {
+                    int column = (word << 6) + Long.numberOfTrailingZeros(empty);
+                    probes ++;
+
+                    int filled = probe(propagator, row, column, Square.FILLED, before, scratch);
+                    int gap = filled == -1 ? -1 : probe(propagator, row, column, Square.GAP, before, scratch);
+                    if (gap == -1) {
+                        return row * board.width() + column;
+                    }
+
+                    int score = Math.min(filled, gap);
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = row * board.width() + column;
+                    }
+                }
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Returns the number of squares decided by assuming the square, or -1 if the assumption contradicts.
+     */
+    private static int probe(Propagator propagator, int row, int column, Square square, int before,
+                             PackedLine scratch) {
+        Propagator.Mark mark = propagator.mark();
+        propagator.assume(row, column, square);
+        int decided = propagator.propagate() ? decided(propagator.board(), scratch) - before : -1;
+
+        propagator.undo(mark);
+        return decided;
+    }
+
+    private static int decided(Board board, PackedLine line) {
+        int decided = 0;
+        for (int row = 0; row < board.height(); row ++) {
+            board.readRow(row, line);
+            for (int word = 0; word < line.words(); word ++) {
+                decided += Long.bitCount(line.filledWord(word) | line.gapWord(word));
+            }
+        }
+
+        return decided;
+    }
+
+    @Override
+    public String toString() {
+        return "PROBING";
+    }
+}
@@ -0,0 +1,53 @@
+package dev.jh.solver.search;
+
+import dev.jh.solver.Propagator;
+import dev.jh.solver.Square;
+import dev.jh.solver.board.Board;
+
+/**
+ * RegionEdgeBrancher decides the undecided square with the most decided neighbours, counting the edge of the board as
+ * decided.  Squares on the edge of a decided region sit on lines that are already mostly settled, so their branches
+ * tend to finish those lines off instead of starting on a fresh part of the board.
+ */
+public class RegionEdgeBrancher implements Brancher {
+
+    @Override
+    public int choose(Propagator propagator) {
+        Board board = propagator.board();
+
+        int best = -1;
+        int bestNeighbours = -1;
+
+        for (int row = 0; row < board.height(); row ++) {
+            for (int column = 0; column < board.width(); column ++) {
+                if (board.get(row, column) != Square.EMPTY) {
+                    continue;
+                }
+
+                int neighbours = decided(board, row - 1, column) + decided(board, row + 1, column)
+                        + decided(board, row, column - 1) + decided(board, row, column + 1);
+
+                if (neighbours == 4) {
+                    return row * board.width() + column;
+                }
+
+                if (neighbours > bestNeighbours) {
+                    bestNeighbours = neighbours;
+                    best = row * board.width() + column;
+                }
+            }
+        }
+
+        return best;
+    }
+
+    private static int decided(Board board, int row, int column) {
+        boolean outside = row < 0 || row >= board.height() || column < 0 || column >= board.width();
+        return outside || board.get(row, column) != Square.EMPTY ? 1 : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "REGION_EDGE";
+    }
+}
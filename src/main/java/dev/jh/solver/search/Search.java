@@ -0,0 +1,443 @@
+package dev.jh.solver.search;
+
+import com.google.common.base.Preconditions;
+import dev.jh.solver.Grid;
+import dev.jh.solver.PicrossSolver;
+import dev.jh.solver.Propagator;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.Square;
+import dev.jh.solver.board.Board;
+import dev.jh.solver.board.PackedBoard;
+import dev.jh.solver.line.PackedLine;
+import dev.jh.solver.rules.picross.PicrossRule;
+import dev.jh.solver.rules.picross.PuzzleFingerprint;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+
+/**
+ * Search is a depth-first backtracking search over a single propagator.  Each decision assumes an undecided square is
+ * FILLED, then a GAP once the FILLED branch is exhausted, and propagates the consequences.  Branches are undone
+ * through the propagator's marks rather than by copying the board, so a search only ever holds one board.
+ *
+ * Decisions live on an explicit stack instead of the call stack, so deep searches can't overflow it and a search
+ * can pick up where it left off to find the next solution.
+ */
+public class Search {
+    private final Propagator propagator;
+    private final BooleanSupplier cancelled;
+    private final Consumer<Search> beforeDecision;
+    private final Deque<Decision> decisions;
+
+    private final SearchStatistics statistics = new SearchStatistics();
+
+    private Optional<NogoodDatabase> nogoods = Optional.empty();
+    private Brancher brancher = Brancher.FIRST_UNDECIDED;
+    private Optional<Prober> prober = Optional.empty();
+
+    private boolean started;
+    private boolean resumed;
+    private boolean exhausted;
+
+    /** Decision levels behind the last failed branch, one bit per level like {@link #bit(int)}. */
+    private long conflict;
+    /** Whether the last failure was a contradiction with a known conflict, rather than a solution. */
+    private boolean learnable;
+
+    /**
+     * Creates a search that explores every assumption on top of the propagator's current state.
+     *
+     * @param propagator Propagator to search with.  The search owns it from now on.
+     * @param cancelled Checked between decisions - the search gives up once it returns true.
+     */
+    public Search(Propagator propagator, BooleanSupplier cancelled) {
+        this(propagator, cancelled, search -> {});
+    }
+
+    /**
+     * Creates a search that calls back before each decision, once propagation has settled.  That's a safe point to
+     * take a {@link #checkpoint()}.
+     *
+     * @param propagator Propagator to search with.  The search owns it from now on.
+     * @param cancelled Checked between decisions - the search gives up once it returns true.
+     * @param beforeDecision Called with this search before each decision.
+     */
+    public Search(Propagator propagator, BooleanSupplier cancelled, Consumer<Search> beforeDecision) {
+        this.propagator = propagator;
+        this.cancelled = cancelled;
+        this.beforeDecision = beforeDecision;
+        this.decisions = new ArrayDeque<>();
+    }
+
+    /**
+     * Resumes a search from a checkpoint by replaying its decisions on a fresh propagator.  A checkpoint taken right
+     * after a solution was returned finds that solution again.
+     *
+     * @param propagator Propagator for the checkpoint's puzzle that nothing has been assumed on yet.
+     * @param checkpoint Checkpoint to resume from.
+     * @param cancelled Checked between decisions - the search gives up once it returns true.
+     * @param beforeDecision Called with the search before each decision.
+     * @return Search that continues where the checkpointed search left off.
+     */
+    public static Search resume(Propagator propagator, Checkpoint checkpoint, BooleanSupplier cancelled,
+                                Consumer<Search> beforeDecision) {
+        Preconditions.checkArgument(checkpoint.fingerprint == PuzzleFingerprint.of(propagator.puzzle()),
+                "Checkpoint is for a different puzzle.");
+
+        Search search = new Search(propagator, cancelled, beforeDecision);
+        boolean consistent = propagator.propagate();
+
+        for (int depth = 0; consistent && depth < checkpoint.depth(); depth ++) {
+            Decision decision = new Decision(checkpoint.square(depth), depth + 1, propagator.mark());
+            decision.triedGap = checkpoint.triedGap(depth);
+            // The conflict behind a FILLED branch that was exhausted before the checkpoint is lost.
+            decision.learnable = !decision.triedGap;
+            search.decisions.push(decision);
+
+            consistent = search.assume(decision, decision.triedGap ? GAP : FILLED);
+        }
+
+        Preconditions.checkArgument(consistent, "Checkpoint contradicts the puzzle.");
+
+        search.started = true;
+        search.resumed = true;
+        return search;
+    }
+
+    /**
+     * Learns nogoods from contradictions as the search goes, and checks them before each branch.  When a branch
+     * fails, the search works out which decisions led to the contradiction from the reasons the propagator tracks.
+     * Those decisions can't all hold at once, so they're a nogood.  A branch whose failure doesn't depend on a
+     * decision also rules out that decision's other branch, so the search jumps back past it.
+     *
+     * @param nogoods Database to learn nogoods into.
+     * @return This search.
+     */
+    public Search useNogoods(NogoodDatabase nogoods) {
+        Preconditions.checkState(!started || resumed, "Nogoods must be used from the start of a search.");
+
+        this.nogoods = Optional.of(nogoods);
+        propagator.trackReasons();
+        return this;
+    }
+
+    /**
+     * Chooses squares to decide with the given brancher instead of in row-major order.
+     *
+     * @param brancher Brancher to choose squares with.
+     * @return This search.
+     */
+    public Search useBrancher(Brancher brancher) {
+        this.brancher = brancher;
+        return this;
+    }
+
+    /**
+     * Probes the initial state with a {@link Prober} before making any decisions, so squares that follow from trying
+     * both values of a square are settled once instead of being rediscovered down every branch.
+     *
+     * @return This search.
+     */
+    public Search useProbing() {
+        Preconditions.checkState(!started, "Probing must be used from the start of a search.");
+
+        this.prober = Optional.of(new Prober(propagator));
+        return this;
+    }
+
+    /**
+     * Returns the next solution to the puzzle, continuing the search from the previous solution.
+     *
+     * @return Next solution, or empty if there are no more solutions or the search was cancelled.
+     */
+    public Optional<Grid> next() {
+        if (exhausted) {
+            return Optional.empty();
+        }
+
+        // The first call propagates the initial state - later calls move past the solution they last returned.
+        boolean consistent = started ? resumed : propagator.propagate() && probe();
+        started = true;
+        resumed = false;
+
+        while (!cancelled.getAsBoolean()) {
+            if (consistent) {
+                beforeDecision.accept(this);
+
+                long start = System.nanoTime();
+                int square = brancher.choose(propagator);
+                statistics.branchingNanos += System.nanoTime() - start;
+
+                if (square == -1) {
+                    // The next call backtracks from here, which isn't a contradiction to learn from.
+                    conflict = Propagator.ALL_REASONS;
+                    learnable = false;
+
+                    if (propagator.isSolved()) {
+                        return Optional.of(propagator.board().toGrid());
+                    }
+
+                    consistent = false;
+                    continue;
+                }
+
+                Decision decision = new Decision(square, decisions.size() + 1, propagator.mark());
+                decisions.push(decision);
+                statistics.decisions ++;
+                statistics.maxDepth = Math.max(statistics.maxDepth, decisions.size());
+                consistent = assume(decision, FILLED);
+                continue;
+            }
+
+            if (!backtrack()) {
+                exhausted = true;
+                return Optional.empty();
+            }
+
+            consistent = assume(decisions.peek(), GAP);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Probes the initial state if probing is used, and counts the probes.
+     *
+     * @return Whether the initial state is still consistent.
+     */
+    private boolean probe() {
+        if (prober.isEmpty()) {
+            return true;
+        }
+
+        boolean consistent = prober.get().probe();
+        statistics.probes += prober.get().propagated();
+        statistics.reusedProbes += prober.get().reused();
+        return consistent;
+    }
+
+    /**
+     * Returns a lazy stream of the remaining solutions.  Each solution is searched for when the stream asks for it,
+     * so taking the first few solutions of a puzzle with many doesn't search for the rest.
+     *
+     * @return Stream of solutions.
+     */
+    public Stream<Grid> stream() {
+        Spliterator<Grid> solutions = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Grid> action) {
+                Optional<Grid> solution = next();
+                solution.ifPresent(action);
+                return solution.isPresent();
+            }
+        };
+
+        return StreamSupport.stream(solutions, false);
+    }
+
+    /**
+     * Returns a lazy stream of every solution to the puzzle, searched with the default approaches.
+     *
+     * @param puzzle Puzzle to solve.
+     * @return Stream of solutions.
+     */
+    public static Stream<Grid> solutions(Puzzle<PicrossRule> puzzle) {
+        Propagator propagator = new Propagator(puzzle, PackedBoard.onHeap(puzzle.height, puzzle.width),
+                PicrossSolver.APPROACHES, Optional.empty());
+
+        return new Search(propagator, () -> false).stream();
+    }
+
+    /**
+     * Returns the work this search has done so far.
+     *
+     * @return Search statistics.
+     */
+    public SearchStatistics statistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns the number of decisions that are currently assumed.
+     *
+     * @return Search depth.
+     */
+    public int depth() {
+        return decisions.size();
+    }
+
+    /**
+     * Returns a checkpoint of the decisions currently assumed.  Only meaningful between decisions - from the
+     * callback passed to the constructor, or between calls to {@link #next()}.
+     *
+     * @return Checkpoint.
+     */
+    public Checkpoint checkpoint() {
+        int[] squares = new int[decisions.size()];
+
+        int depth = squares.length;
+        for (Decision decision : decisions) {
+            squares[-- depth] = decision.triedGap ? ~decision.square : decision.square;
+        }
+
+        return new Checkpoint(PuzzleFingerprint.of(propagator.puzzle()), squares);
+    }
+
+    /**
+     * Pops decisions whose branches have both been tried, and undoes the FILLED branch of the next one.  Decisions
+     * that the last failure didn't depend on are popped without trying their GAP branch, since it would fail the same
+     * way.
+     *
+     * @return Whether there's a decision left to try as a GAP.
+     */
+    private boolean backtrack() {
+        while (!decisions.isEmpty()) {
+            Decision decision = decisions.peek();
+            propagator.undo(decision.mark);
+
+            decision.conflict |= conflict;
+            decision.learnable &= learnable;
+
+            boolean involved = !learnable || (conflict & bit(decision.level)) != 0;
+            if (!decision.triedGap && involved) {
+                decision.triedGap = true;
+                return true;
+            }
+
+            decisions.pop();
+
+            // Neither branch works under the rest of the decisions in the conflict.
+            conflict = decision.learnable ? withoutLevel(decision.conflict, decision.level) : Propagator.ALL_REASONS;
+            learnable = decision.learnable;
+            if (learnable) {
+                learn(conflict);
+            }
+        }
+
+        return false;
+    }
+
+    private boolean assume(Decision decision, Square square) {
+        int width = propagator.board().width();
+        int row = decision.square / width;
+        int column = decision.square % width;
+
+        if (nogoods.isPresent()) {
+            int literal = NogoodDatabase.literal(decision.square, square);
+            int[] nogood = nogoods.get().forbidding(propagator.board(), literal);
+            if (nogood != null) {
+                conflict = bit(decision.level);
+                for (int other : nogood) {
+                    if (other != literal) {
+                        conflict |= propagator.reason((other >>> 1) / width, (other >>> 1) % width);
+                    }
+                }
+                learnable = true;
+                statistics.contradictions ++;
+                return false;
+            }
+        }
+
+        statistics.nodes ++;
+        propagator.assume(row, column, square, bit(decision.level));
+        if (propagator.propagate()) {
+            return true;
+        }
+
+        statistics.contradictions ++;
+
+        learnable = nogoods.isPresent();
+        conflict = learnable ? propagator.conflict() : Propagator.ALL_REASONS;
+        if (learnable) {
+            learn(conflict);
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds a nogood made of the current value of each decision in the conflict.
+     */
+    private void learn(long conflict) {
+        int[] literals = new int[decisions.size()];
+        int count = 0;
+
+        int level = decisions.size();
+        for (Decision decision : decisions) {
+            if ((conflict & bit(level)) != 0) {
+                literals[count ++] = NogoodDatabase.literal(decision.square, decision.triedGap ? GAP : FILLED);
+            }
+            level --;
+        }
+
+        nogoods.get().add(Arrays.copyOf(literals, count));
+    }
+
+    /**
+     * Returns the bit for a decision level.  Levels past 63 share the last bit, which conservatively stands for all
+     * of them.
+     */
+    static long bit(int level) {
+        return 1L << Math.min(level - 1, 63);
+    }
+
+    /**
+     * Removes a popped decision level from a conflict.  The shared bit for deep levels is only cleared once the
+     * shallowest of them is popped.
+     */
+    private static long withoutLevel(long conflict, int level) {
+        return level <= 64 ? conflict & ~bit(level) : conflict;
+    }
+
+    /**
+     * Returns the first undecided square on the board in row-major order as row * width + column, or -1 if every
+     * square is decided.  Rows are scanned 64 squares at a time.
+     *
+     * @param board Board to scan.
+     * @return First undecided square, or -1.
+     */
+    static int undecided(Board board) {
+        PackedLine line = new PackedLine(board.width());
+        for (int row = 0; row < board.height(); row ++) {
+            board.readRow(row, line);
+
+            for (int word = 0; word < line.words(); word ++) {
+                long empty = ~(line.filledWord(word) | line.gapWord(word)) & PackedLine.mask(line.length, word);
+                if (empty != 0) {
+                    return row * board.width() + (word << 6) + Long.numberOfTrailingZeros(empty);
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    private static final class Decision {
+        private final int square;
+        private final int level;
+        private final Propagator.Mark mark;
+        private boolean triedGap;
+
+        /** Decision levels behind the failures of this decision's branches. */
+        private long conflict;
+        private boolean learnable = true;
+
+        private Decision(int square, int level, Propagator.Mark mark) {
+            this.square = square;
+            this.level = level;
+            this.mark = mark;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package dev.jh.solver.search;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * SearchStatistics counts the work a search has done, so branching heuristics can be compared on the same puzzles.
+ * Statistics from several searches can be added together to compare heuristics across a whole corpus.
+ */
+public class SearchStatistics {
+    long decisions;
+    long nodes;
+    long contradictions;
+    int maxDepth;
+    long branchingNanos;
+    long probes;
+    long reusedProbes;
+
+    /**
+     * Returns the number of squares the search chose to branch on.
+     *
+     * @return Number of decisions.
+     */
+    public long decisions() {
+        return decisions;
+    }
+
+    /**
+     * Returns the number of squares the search assumed, counting both branches of each decision.
+     *
+     * @return Number of search nodes.
+     */
+    public long nodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the number of branches that ended in a contradiction, including branches ruled out by nogoods.
+     *
+     * @return Number of contradictions.
+     */
+    public long contradictions() {
+        return contradictions;
+    }
+
+    /**
+     * Returns the deepest the decision stack got.
+     *
+     * @return Maximum search depth.
+     */
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the time spent choosing squares to branch on, in nanoseconds.
+     *
+     * @return Branching time.
+     */
+    public long branchingNanos() {
+        return branchingNanos;
+    }
+
+    /**
+     * Returns the number of probes that propagated before the search made its first decision.
+     *
+     * @return Number of probes.
+     */
+    public long probes() {
+        return probes;
+    }
+
+    /**
+     * Returns the number of probes answered from cached implications instead of propagating.
+     *
+     * @return Number of reused probes.
+     */
+    public long reusedProbes() {
+        return reusedProbes;
+    }
+
+    /**
+     * Adds another search's statistics to these ones.  The max depth is the deeper of the two.
+     *
+     * @param other Statistics to add.
+     * @return These statistics.
+     */
+    public SearchStatistics add(SearchStatistics other) {
+        decisions += other.decisions;
+        nodes += other.nodes;
+        contradictions += other.contradictions;
+        maxDepth = Math.max(maxDepth, other.maxDepth);
+        branchingNanos += other.branchingNanos;
+        probes += other.probes;
+        reusedProbes += other.reusedProbes;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("decisions", decisions)
+                .add("nodes", nodes)
+                .add("contradictions", contradictions)
+                .add("maxDepth", maxDepth)
+                .add("branchingMillis", branchingNanos / 1_000_000)
+                .add("probes", probes)
+                .add("reusedProbes", reusedProbes)
+                .toString();
+    }
+}
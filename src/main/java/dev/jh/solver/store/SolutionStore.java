@@ -0,0 +1,352 @@
+package dev.jh.solver.store;
+
+import com.google.common.base.MoreObjects;
+import dev.jh.solver.Grid;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.SolutionVerifier;
+import dev.jh.solver.Square;
+import dev.jh.solver.rules.picross.PicrossRule;
+import dev.jh.solver.rules.picross.PuzzleFingerprint;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * SolutionStore keeps puzzle solutions on disk, keyed by the {@link PuzzleFingerprint} of the puzzle's clues, so a
+ * puzzle that's been solved before can be looked up instead of solved again.
+ *
+ * Solutions are appended to a log file and never rewritten in place.  Opening a store scans the log once to build an
+ * in-memory index from fingerprint to the offset of the latest solution, so a lookup is a hash lookup and a single
+ * read.  Storing a new solution for a puzzle leaves the old one behind as garbage until {@link #compact()} rewrites
+ * the log with only the latest solutions.
+ *
+ * File format: a magic number, then one record per solution - the fingerprint, height, and width, the FILLED squares
+ * as a row-major bitset padded to a whole byte, and a CRC32 of the rest of the record.  A crash while appending
+ * leaves a torn record at the end of the log, which is cut off the next time the store is opened.  A record elsewhere
+ * that fails its checksum is skipped using the length from its height and width, and counts as garbage until the log
+ * is compacted.
+ *
+ * Fingerprints are 64-bit hashes, so solutions are checked against the puzzle's rules when they're looked up, and a
+ * solution for a different puzzle with the same fingerprint is treated as missing.  Stores are safe to share between
+ * threads.
+ */
+public class SolutionStore implements AutoCloseable {
+    private static final int MAGIC = 0x50535331;
+    private static final int HEADER_BYTES = Integer.BYTES;
+    /** Fingerprint, height, and width. */
+    private static final int RECORD_HEADER_BYTES = Long.BYTES + 2 * Integer.BYTES;
+
+    private final Path path;
+    private final SolutionVerifier verifier = new SolutionVerifier();
+
+    private FileChannel channel;
+    private long size;
+    private Map<Long, Long> index = new HashMap<>();
+    private long records;
+
+    private SolutionStore(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the store at the given path, creating it if it doesn't exist.
+     *
+     * @param path Path to the store's log.
+     * @return Store.
+     * @throws IOException If the store can't be read or isn't a solution store.
+     */
+    public static SolutionStore open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        SolutionStore store = new SolutionStore(path, channel);
+        try {
+            store.load();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        return store;
+    }
+
+    /**
+     * Returns the stored solution for the puzzle.
+     *
+     * @param puzzle Puzzle to look up.
+     * @return Solution, or empty if the store doesn't have one.
+     * @throws IOException If the solution can't be read.
+     */
+    public synchronized Optional<Grid> get(Puzzle<PicrossRule> puzzle) throws IOException {
+        Long offset = index.get(PuzzleFingerprint.of(puzzle));
+        if (offset == null) {
+            return Optional.empty();
+        }
+
+        Grid solution = indexedRecord(offset).solution;
+        if (solution.height != puzzle.height || solution.width != puzzle.width
+                || verifier.verify(puzzle, solution).isPresent()) {
+            // A different puzzle with the same fingerprint.
+            return Optional.empty();
+        }
+
+        return Optional.of(solution);
+    }
+
+    /**
+     * Appends the solution for the puzzle, replacing any solution stored before.
+     *
+     * @param puzzle Puzzle the grid solves.
+     * @param solution Solution.
+     * @throws IOException If the solution can't be written.
+     */
+    public synchronized void put(Puzzle<PicrossRule> puzzle, Grid solution) throws IOException {
+        long fingerprint = PuzzleFingerprint.of(puzzle);
+        ByteBuffer record = encode(fingerprint, solution);
+
+        long offset = size;
+        while (record.hasRemaining()) {
+            size += channel.write(record, size);
+        }
+
+        index.put(fingerprint, offset);
+        records ++;
+    }
+
+    /**
+     * Returns the number of puzzles with a stored solution.
+     *
+     * @return Number of puzzles.
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the number of records in the log that have been replaced by a later solution for the same puzzle.
+     *
+     * @return Number of garbage records.
+     */
+    public synchronized long garbage() {
+        return records - index.size();
+    }
+
+    /**
+     * Rewrites the log with only the latest solution for each puzzle.  The new log is written next to the old one
+     * and moved into place, so a crash while compacting leaves the old log intact.
+     *
+     * @throws IOException If the log can't be rewritten.
+     */
+    public synchronized void compact() throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".compact");
+        Map<Long, Long> compacted = new HashMap<>();
+
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = writeHeader(out);
+
+            for (Map.Entry<Long, Long> entry : index.entrySet()) {
+                ByteBuffer record = encode(entry.getKey(), indexedRecord(entry.getValue()).solution);
+                compacted.put(entry.getKey(), position);
+                while (record.hasRemaining()) {
+                    position += out.write(record, position);
+                }
+            }
+
+            out.force(true);
+        }
+
+        channel.close();
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        size = channel.size();
+        index = compacted;
+        records = compacted.size();
+    }
+
+    /**
+     * Flushes the log to disk and closes it.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+
+    /**
+     * Scans the log to build the index, cutting off a torn record at the end and skipping corrupt records before it.
+     */
+    private void load() throws IOException {
+        if (channel.size() == 0) {
+            size = writeHeader(channel);
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (channel.read(header, 0) != HEADER_BYTES || header.getInt(0) != MAGIC) {
+            throw new IOException(path + " isn't a solution store.");
+        }
+
+        long position = HEADER_BYTES;
+        long end = channel.size();
+        while (position < end) {
+            Record record;
+            try {
+                record = readRecord(position);
+            } catch (EOFException e) {
+                // Only the last record can run past the end of the log.
+                break;
+            }
+
+            if (record.solution == null && position + record.length == end) {
+                // The last record, torn after the log grew to hold it.
+                break;
+            }
+
+            if (record.solution != null) {
+                index.put(record.fingerprint, position);
+            }
+            records ++;
+            position += record.length;
+        }
+
+        if (position < end) {
+            channel.truncate(position);
+        }
+        size = position;
+    }
+
+    /**
+     * Reads a record that was valid when the index was built.
+     */
+    private Record indexedRecord(long offset) throws IOException {
+        Record record = readRecord(offset);
+        if (record.solution == null) {
+            throw new IOException("Record at " + offset + " in " + path + " is corrupt.");
+        }
+
+        return record;
+    }
+
+    /**
+     * Reads the record at the offset.  The record's solution is null if its checksum doesn't match.
+     *
+     * @throws EOFException If the record runs past the end of the log.
+     * @throws IOException If the record's height and width are impossible, so its length is unknown.
+     */
+    private Record readRecord(long offset) throws IOException {
+        ByteBuffer header = readFully(offset, RECORD_HEADER_BYTES);
+        long fingerprint = header.getLong();
+        int height = header.getInt();
+        int width = header.getInt();
+        if (height <= 0 || width <= 0 || (long) height * width > Integer.MAX_VALUE - 7L) {
+            throw new IOException("Record at " + offset + " in " + path + " has an impossible size " + height + "x"
+                    + width + ".");
+        }
+
+        int squareBytes = squareBytes(height, width);
+        int length = RECORD_HEADER_BYTES + squareBytes + Integer.BYTES;
+        if (offset + length > channel.size()) {
+            throw new EOFException();
+        }
+
+        ByteBuffer body = readFully(offset + RECORD_HEADER_BYTES, squareBytes + Integer.BYTES);
+
+        CRC32 crc = new CRC32();
+        crc.update(header.flip());
+        crc.update(body.slice().limit(squareBytes));
+        if ((int) crc.getValue() != body.getInt(squareBytes)) {
+            return new Record(fingerprint, null, length);
+        }
+
+        Grid.Builder solution = Grid.empty(height, width);
+        for (int square = 0; square < height * width; square ++) {
+            boolean filled = (body.get(square >>> 3) & (1 << (square & 7))) != 0;
+            solution.setSquare(square / width, square % width, filled ? Square.FILLED : Square.GAP);
+        }
+
+        return new Record(fingerprint, solution.build(), length);
+    }
+
+    private ByteBuffer readFully(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+
+        return buffer.flip();
+    }
+
+    private static ByteBuffer encode(long fingerprint, Grid solution) {
+        int squareBytes = squareBytes(solution.height, solution.width);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + squareBytes + Integer.BYTES)
+                .putLong(fingerprint)
+                .putInt(solution.height)
+                .putInt(solution.width);
+
+        byte[] squares = new byte[squareBytes];
+        for (int row = 0; row < solution.height; row ++) {
+            for (int column = 0; column < solution.width; column ++) {
+                if (solution.get(row, column) == Square.FILLED) {
+                    int square = row * solution.width + column;
+                    squares[square >>> 3] |= 1 << (square & 7);
+                }
+            }
+        }
+        record.put(squares);
+
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, record.position());
+        return record.putInt((int) crc.getValue()).flip();
+    }
+
+    private static long writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+
+        return HEADER_BYTES;
+    }
+
+    private static int squareBytes(int height, int width) {
+        return (height * width + 7) >>> 3;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("path", path)
+                .add("size", index.size())
+                .add("garbage", records - index.size())
+                .toString();
+    }
+
+    private static final class Record {
+        private final long fingerprint;
+        private final Grid solution;
+        private final int length;
+
+        private Record(long fingerprint, Grid solution, int length) {
+            this.fingerprint = fingerprint;
+            this.solution = solution;
+            this.length = length;
+        }
+    }
+}
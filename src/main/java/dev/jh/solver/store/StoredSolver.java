@@ -0,0 +1,51 @@
+package dev.jh.solver.store;
+
+import dev.jh.solver.Grid;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.Solver;
+import dev.jh.solver.SolutionVerifier;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+/**
+ * StoredSolver looks puzzles up in a {@link SolutionStore} before solving them, and stores the solutions to puzzles
+ * it had to solve.  Only grids that match the puzzle's rules are stored, so puzzles the solver can't finish are
+ * attempted again each time.
+ */
+public class StoredSolver implements Solver<PicrossRule> {
+    private final Solver<PicrossRule> solver;
+    private final SolutionStore store;
+    private final SolutionVerifier verifier = new SolutionVerifier();
+
+    /**
+     * Creates a solver backed by the store.
+     *
+     * @param solver Solves puzzles that aren't in the store.
+     * @param store Store of solutions, which can be shared with other solvers.
+     */
+    public StoredSolver(Solver<PicrossRule> solver, SolutionStore store) {
+        this.solver = solver;
+        this.store = store;
+    }
+
+    @Override
+    public Grid solve(Puzzle<PicrossRule> puzzle) {
+        try {
+            Optional<Grid> stored = store.get(puzzle);
+            if (stored.isPresent()) {
+                return stored.get();
+            }
+
+            Grid solution = solver.solve(puzzle);
+            if (verifier.verify(puzzle, solution).isEmpty()) {
+                store.put(puzzle, solution);
+            }
+            return solution;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
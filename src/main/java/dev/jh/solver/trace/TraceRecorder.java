@@ -0,0 +1,157 @@
+package dev.jh.solver.trace;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.LineType;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.Square;
+import dev.jh.solver.approach.Status;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TraceRecorder writes a compact binary log of a solve.  Records are buffered and written in blocks, and recording
+ * doesn't allocate once the recorder is created.
+ *
+ * Format: a header with the magic number, the puzzle's height and width, and the approach names, followed by records.
+ * Each record is a tag byte followed by varints:
+ * <ul>
+ *     <li>LINE: line type ordinal, then line index.</li>
+ *     <li>APPROACH: approach id, then status ordinal.</li>
+ *     <li>CHANGE: index in the line shifted left by one, with the low bit set for GAPs.</li>
+ * </ul>
+ */
+public class TraceRecorder implements Tracer {
+    static final int MAGIC = 0x50545231;
+    static final byte LINE = 1;
+    static final byte APPROACH = 2;
+    static final byte CHANGE = 3;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** Largest record - a tag and two 5 byte varints. */
+    private static final int MAX_RECORD = 11;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    /**
+     * Creates a recorder that writes to the given stream, starting with the header.
+     *
+     * @param out Stream to write the trace to.  Closed when the recorder is closed.
+     * @param puzzle Puzzle being solved.
+     * @param approaches Names of the approaches, indexed by approach id.
+     */
+    public TraceRecorder(OutputStream out, Puzzle<?> puzzle, ImmutableList<String> approaches) {
+        this.out = out;
+
+        putInt(MAGIC);
+        putVarint(puzzle.height);
+        putVarint(puzzle.width);
+        putVarint(approaches.size());
+        for (String approach : approaches) {
+            byte[] name = approach.getBytes(StandardCharsets.UTF_8);
+            putVarint(name.length);
+            for (byte b : name) {
+                reserve(1);
+                buffer[position ++] = b;
+            }
+        }
+    }
+
+    @Override
+    public void line(LineType type, int index) {
+        reserve(MAX_RECORD);
+        buffer[position ++] = LINE;
+        putVarint(type.ordinal());
+        putVarint(index);
+    }
+
+    @Override
+    public void approach(int approach, Status status) {
+        reserve(MAX_RECORD);
+        buffer[position ++] = APPROACH;
+        putVarint(approach);
+        putVarint(status.ordinal());
+    }
+
+    @Override
+    public void change(int index, Square square) {
+        reserve(MAX_RECORD);
+        buffer[position ++] = CHANGE;
+        putVarint(index << 1 | (square == Square.GAP ? 1 : 0));
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a factory that traces a random sample of solves to files in the given directory.
+     *
+     * @param directory Directory to write traces to.
+     * @param sampleRate Fraction of solves to trace, between 0 and 1.
+     * @return Tracer factory.
+     */
+    public static Tracer.Factory sampling(Path directory, double sampleRate) {
+        Preconditions.checkArgument(sampleRate >= 0 && sampleRate <= 1, "sampleRate must be between 0 and 1");
+
+        AtomicLong traces = new AtomicLong();
+        return (puzzle, approaches) -> {
+            if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                return Tracer.DISABLED;
+            }
+
+            Path path = directory.resolve("trace-" + System.currentTimeMillis() + "-" + traces.incrementAndGet());
+            try {
+                return new TraceRecorder(Files.newOutputStream(path), puzzle, approaches);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private void putInt(int value) {
+        reserve(Integer.BYTES);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            buffer[position ++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void putVarint(int value) {
+        reserve(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[position ++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position ++] = (byte) value;
+    }
+
+    private void reserve(int bytes) {
+        if (position + bytes > buffer.length) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+}
@@ -0,0 +1,132 @@
+package dev.jh.solver.trace;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Grid;
+import dev.jh.solver.LineType;
+import dev.jh.solver.Square;
+import dev.jh.solver.approach.Status;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static dev.jh.solver.LineType.ROW;
+
+/**
+ * TraceReplay re-executes a trace written by {@link TraceRecorder}, applying each change to an empty board, and
+ * reports hot lines and wasted approach calls.  A call is wasted if the approach didn't apply or didn't change
+ * anything.
+ *
+ * Run it with the path to a trace file to print its report.
+ */
+public class TraceReplay {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: TraceReplay <trace file>");
+            System.exit(1);
+        }
+
+        try (InputStream in = Files.newInputStream(Path.of(args[0]))) {
+            System.out.print(replay(in));
+        }
+    }
+
+    /**
+     * Replays the trace in the given stream.
+     *
+     * @param stream Stream containing a trace.
+     * @return Report for the trace.
+     * @throws IOException If the trace can't be read or is malformed.
+     */
+    public static TraceReport replay(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != TraceRecorder.MAGIC) {
+            throw new IOException("Not a trace.");
+        }
+
+        int height = readVarint(in);
+        int width = readVarint(in);
+
+        ImmutableList.Builder<String> names = ImmutableList.builder();
+        int approachCount = readVarint(in);
+        for (int approach = 0; approach < approachCount; approach ++) {
+            byte[] name = new byte[readVarint(in)];
+            in.readFully(name);
+            names.add(new String(name, StandardCharsets.UTF_8));
+        }
+
+        Grid.Builder board = Grid.empty(height, width);
+        long[] rowVisits = new long[height];
+        long[] columnVisits = new long[width];
+        long[] calls = new long[approachCount];
+        long[] wasted = new long[approachCount];
+        long[] squares = new long[approachCount];
+
+        LineType type = null;
+        int line = -1;
+        int approach = -1;
+
+        for (int tag = in.read(); tag != -1; tag = in.read()) {
+            switch (tag) {
+                case TraceRecorder.LINE:
+                    type = LineType.values()[readVarint(in)];
+                    line = readVarint(in);
+                    if (type == ROW) {
+                        rowVisits[line] ++;
+                    } else {
+                        columnVisits[line] ++;
+                    }
+                    break;
+
+                case TraceRecorder.APPROACH:
+                    approach = readVarint(in);
+                    Status status = Status.values()[readVarint(in)];
+                    calls[approach] ++;
+                    if (status == Status.NOT_APPLICABLE || status == Status.UNCHANGED) {
+                        wasted[approach] ++;
+                    }
+                    break;
+
+                case TraceRecorder.CHANGE:
+                    if (type == null || approach == -1) {
+                        throw new IOException("Change before a line and approach.");
+                    }
+
+                    int change = readVarint(in);
+                    int index = change >>> 1;
+                    Square square = (change & 1) != 0 ? Square.GAP : Square.FILLED;
+                    board.setSquare(type == ROW ? line : index, type == ROW ? index : line, square);
+                    squares[approach] ++;
+                    break;
+
+                default:
+                    throw new IOException("Unknown record " + tag);
+            }
+        }
+
+        return new TraceReport(names.build(), board.build(), rowVisits, columnVisits, calls, wasted, squares);
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Trace ends mid-record.");
+            }
+
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Varint is too long.");
+    }
+}
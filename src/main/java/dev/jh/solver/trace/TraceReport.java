@@ -0,0 +1,138 @@
+package dev.jh.solver.trace;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Grid;
+import dev.jh.solver.LineType;
+
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static dev.jh.solver.LineType.COLUMN;
+import static dev.jh.solver.LineType.ROW;
+
+/**
+ * TraceReport summarizes a replayed trace - how often each line was processed, how often each approach was applied
+ * and how many of those calls were wasted, and the board the trace's changes add up to.
+ */
+public class TraceReport {
+    public final ImmutableList<String> approaches;
+    public final Grid board;
+
+    private final long[] rowVisits;
+    private final long[] columnVisits;
+    private final long[] calls;
+    private final long[] wasted;
+    private final long[] squares;
+
+    TraceReport(ImmutableList<String> approaches, Grid board, long[] rowVisits, long[] columnVisits, long[] calls,
+                long[] wasted, long[] squares) {
+        this.approaches = approaches;
+        this.board = board;
+        this.rowVisits = rowVisits;
+        this.columnVisits = columnVisits;
+        this.calls = calls;
+        this.wasted = wasted;
+        this.squares = squares;
+    }
+
+    /**
+     * Returns the number of times the solver worked on the line.
+     *
+     * @param type Type of line.
+     * @param index Index of the row or column.
+     * @return Number of visits.
+     */
+    public long visits(LineType type, int index) {
+        return type == ROW ? rowVisits[index] : columnVisits[index];
+    }
+
+    /**
+     * Returns the number of times the approach was applied.
+     *
+     * @param approach Approach id.
+     * @return Number of calls.
+     */
+    public long calls(int approach) {
+        return calls[approach];
+    }
+
+    /**
+     * Returns the number of times the approach was applied without changing anything.
+     *
+     * @param approach Approach id.
+     * @return Number of wasted calls.
+     */
+    public long wasted(int approach) {
+        return wasted[approach];
+    }
+
+    /**
+     * Returns the number of squares the approach changed.
+     *
+     * @param approach Approach id.
+     * @return Number of squares changed.
+     */
+    public long squaresChanged(int approach) {
+        return squares[approach];
+    }
+
+    /**
+     * Returns the lines that the solver visited the most, most visited first.
+     *
+     * @param limit Maximum number of lines to return.
+     * @return Hot lines.
+     */
+    public ImmutableList<HotLine> hotLines(int limit) {
+        return Stream.concat(
+                IntStream.range(0, rowVisits.length).mapToObj(row -> new HotLine(ROW, row, rowVisits[row])),
+                IntStream.range(0, columnVisits.length).mapToObj(column -> new HotLine(COLUMN, column, columnVisits[column])))
+                .filter(line -> line.visits > 0)
+                .sorted(Comparator.comparingLong((HotLine line) -> line.visits).reversed())
+                .limit(limit)
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+
+        report.append("Approaches (calls / wasted / squares):\n");
+        for (int approach = 0; approach < approaches.size(); approach ++) {
+            report.append(String.format("  %-20s %10d %10d %10d%n",
+                    approaches.get(approach), calls[approach], wasted[approach], squares[approach]));
+        }
+
+        report.append("Hot lines (visits):\n");
+        for (HotLine line : hotLines(10)) {
+            report.append(String.format("  %-6s %5d %10d%n", line.type, line.index, line.visits));
+        }
+
+        return report.toString();
+    }
+
+    /**
+     * HotLine is a line and the number of times the solver visited it.
+     */
+    public static final class HotLine {
+        public final LineType type;
+        public final int index;
+        public final long visits;
+
+        HotLine(LineType type, int index, long visits) {
+            this.type = type;
+            this.index = index;
+            this.visits = visits;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("type", type)
+                    .add("index", index)
+                    .add("visits", visits)
+                    .toString();
+        }
+    }
+}
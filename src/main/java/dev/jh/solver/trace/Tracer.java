@@ -0,0 +1,88 @@
+package dev.jh.solver.trace;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.LineType;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.Square;
+import dev.jh.solver.approach.Status;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+/**
+ * Tracer is told about each line the solver processes, each approach it applies to the line, and each square that
+ * the approach changed.  Calls only pass primitives and enums, so tracing through {@link #DISABLED} doesn't allocate.
+ *
+ * Tracers aren't thread-safe - each solve gets its own.
+ */
+public interface Tracer {
+    /** Approach id for the deductions made from a line's segment ranges. */
+    int SEGMENT_RANGES = 0;
+    /** Approach id for lines solved with a line table. */
+    int LINE_TABLE = 1;
+    /** Approach id for lines solved by a batch line solver. */
+    int BATCH = 2;
+    /** Approach id of the first of the solver's approaches - the rest follow in order. */
+    int FIRST_APPROACH = 3;
+
+    /** Tracer that ignores everything. */
+    Tracer DISABLED = new Tracer() {
+        @Override
+        public void line(LineType type, int index) {
+        }
+
+        @Override
+        public void approach(int approach, Status status) {
+        }
+
+        @Override
+        public void change(int index, Square square) {
+        }
+    };
+
+    /**
+     * Called when the solver starts working on a line.
+     *
+     * @param type Type of line.
+     * @param index Index of the row or column.
+     */
+    void line(LineType type, int index);
+
+    /**
+     * Called after an approach is applied to the current line.
+     *
+     * @param approach Approach id.
+     * @param status Result of applying the approach.
+     */
+    void approach(int approach, Status status);
+
+    /**
+     * Called for each square that the last approach changed.
+     *
+     * @param index Index of the square in the current line.
+     * @param square New value of the square.
+     */
+    void change(int index, Square square);
+
+    /**
+     * Called once the solve is done.
+     */
+    default void close() {
+    }
+
+    /**
+     * Factory creates a tracer for each solve.
+     */
+    @FunctionalInterface
+    interface Factory {
+        /** Factory for solves that aren't traced. */
+        Factory DISABLED = (puzzle, approaches) -> Tracer.DISABLED;
+
+        /**
+         * Creates a tracer for a solve.
+         *
+         * @param puzzle Puzzle being solved.
+         * @param approaches Names of the approaches, indexed by approach id.
+         * @return Tracer.
+         */
+        Tracer create(Puzzle<PicrossRule> puzzle, ImmutableList<String> approaches);
+    }
+}
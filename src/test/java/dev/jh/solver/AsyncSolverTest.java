@@ -0,0 +1,106 @@
+package dev.jh.solver;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static dev.jh.solver.PuzzleType.PICROSS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AsyncSolverTest {
+
+    private static final Puzzle<PicrossRule> PUZZLE = puzzle();
+
+    @Test
+    public void solve() throws Exception {
+        AtomicInteger solvers = new AtomicInteger();
+
+        try (AsyncSolver<PicrossRule> async = new AsyncSolver<>(() -> {
+            solvers.incrementAndGet();
+            return new PicrossSolver();
+        }, 2, 100)) {
+            ImmutableList<CompletableFuture<Grid>> futures = ImmutableList.of(
+                    async.solve(PUZZLE), async.solve(PUZZLE), async.solve(PUZZLE), async.solve(PUZZLE));
+
+            for (CompletableFuture<Grid> future : futures) {
+                assertThat(future.get()).isEqualTo(Grid.parse(ImmutableList.of(
+                        "2x2",
+                        "..",
+                        ".x"
+                )).build());
+            }
+        }
+
+        // Each thread reuses its solver.
+        assertThat(solvers.get()).isBetween(1, 2);
+    }
+
+    @Test
+    public void rejectsWhenOverloaded() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (AsyncSolver<PicrossRule> async = new AsyncSolver<>(() -> puzzle -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return new PicrossSolver().solve(puzzle);
+        }, 1, 1)) {
+            CompletableFuture<Grid> running = async.solve(PUZZLE);
+            started.await();
+
+            CompletableFuture<Grid> queued = async.solve(PUZZLE);
+            assertThat(async.queued()).isEqualTo(1);
+            assertThat(async.isOverloaded()).isTrue();
+
+            assertThatThrownBy(() -> async.solve(PUZZLE).join())
+                    .hasCauseInstanceOf(RejectedExecutionException.class)
+                    .hasMessageContaining("overloaded");
+
+            release.countDown();
+            assertThat(running.get()).isEqualTo(queued.get());
+            assertThat(async.isOverloaded()).isFalse();
+        }
+    }
+
+    @Test
+    public void failures() {
+        try (AsyncSolver<PicrossRule> async = new AsyncSolver<>(() -> puzzle -> {
+            throw new IllegalStateException("Puzzle has no solution.");
+        }, 1, 1)) {
+            assertThatThrownBy(() -> async.solve(PUZZLE).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    public void closed() {
+        AsyncSolver<PicrossRule> async = new AsyncSolver<>(PicrossSolver::new, 1, 1);
+        async.close();
+
+        assertThatThrownBy(() -> async.solve(PUZZLE).join())
+                .hasCauseInstanceOf(RejectedExecutionException.class)
+                .hasMessageContaining("closed");
+    }
+
+    private static Puzzle<PicrossRule> puzzle() {
+        Puzzle.Builder<PicrossRule> puzzle = Puzzle.newBuilder(PICROSS, 2, 2);
+        puzzle.addRowRule(PicrossRule.forSegments(2));
+        puzzle.addRowRule(PicrossRule.forSegments(1));
+        puzzle.addColumnRule(PicrossRule.forSegments(2));
+        puzzle.addColumnRule(PicrossRule.forSegments(1));
+
+        return puzzle.build();
+    }
+}
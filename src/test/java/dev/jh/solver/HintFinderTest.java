@@ -0,0 +1,99 @@
+package dev.jh.solver;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.HintFinder.Cell;
+import dev.jh.solver.HintFinder.Hint;
+import dev.jh.solver.approach.picross.PicrossApproach;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static dev.jh.solver.PuzzleType.PICROSS;
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HintFinderTest {
+    private static final Puzzle<PicrossRule> PUZZLE = Puzzle.<PicrossRule>newBuilder(PICROSS, 3, 3)
+            .addRowRule(PicrossRule.forSegments(2))
+            .addRowRule(PicrossRule.forSegments(1, 1))
+            .addRowRule(PicrossRule.forSegments(3))
+            .addColumnRule(PicrossRule.forSegments(3))
+            .addColumnRule(PicrossRule.forSegments(1, 1))
+            .addColumnRule(PicrossRule.forSegments(2))
+            .build();
+
+    @Test
+    public void cheapestApproachFirst() {
+        // The bottom row and the left column are full lines, which are cheaper than the overlap in the top row.
+        Optional<Hint> hint = new HintFinder().next(PUZZLE, Grid.empty(3, 3).build());
+
+        assertThat(hint).contains(new Hint(LineType.ROW, 2, PicrossApproach.FULL_LINE, ImmutableList.of(
+                new Cell(2, 0, FILLED),
+                new Cell(2, 1, FILLED),
+                new Cell(2, 2, FILLED)
+        )));
+    }
+
+    @Test
+    public void skipsFinishedLines() {
+        Grid grid = Grid.parse(ImmutableList.of(
+                "3x3",
+                "   ",
+                "   ",
+                "..."
+        )).build();
+
+        assertThat(new HintFinder().next(PUZZLE, grid)).contains(
+                new Hint(LineType.COLUMN, 0, PicrossApproach.FULL_LINE, ImmutableList.of(
+                        new Cell(0, 0, FILLED),
+                        new Cell(1, 0, FILLED)
+                )));
+    }
+
+    @Test
+    public void gaps() {
+        Grid grid = Grid.parse(ImmutableList.of(
+                "3x3",
+                ".. ",
+                ". .",
+                "..."
+        )).build();
+
+        assertThat(new HintFinder().next(PUZZLE, grid)).contains(
+                new Hint(LineType.ROW, 0, PicrossApproach.COMPLETED_LINE, ImmutableList.of(new Cell(0, 2, GAP))));
+    }
+
+    @Test
+    public void noHintForSolvedGrid() {
+        Grid grid = Grid.parse(ImmutableList.of(
+                "3x3",
+                "..x",
+                ".x.",
+                "..."
+        )).build();
+
+        assertThat(new HintFinder().next(PUZZLE, grid)).isEmpty();
+    }
+
+    @Test
+    public void skipsContradictions() {
+        // The bottom row can't be full, so the next hint comes from the left column.
+        Grid grid = Grid.parse(ImmutableList.of(
+                "3x3",
+                "   ",
+                "   ",
+                " x "
+        )).build();
+
+        assertThat(new HintFinder().next(PUZZLE, grid).map(hint -> hint.type)).contains(LineType.COLUMN);
+    }
+
+    @Test
+    public void wrongSize() {
+        assertThatThrownBy(() -> new HintFinder().next(PUZZLE, Grid.empty(2, 3).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
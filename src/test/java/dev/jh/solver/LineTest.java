@@ -1,10 +1,12 @@
 package dev.jh.solver;
 
 import com.google.common.collect.ImmutableList;
+import dev.jh.solver.line.PackedLine;
 import org.junit.Test;
 
 import static dev.jh.solver.Square.EMPTY;
 import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class LineTest {
@@ -94,4 +96,26 @@ public class LineTest {
         assertThat(line.get(0)).isEqualTo(EMPTY);
         assertThat(line.toGrid()).isEqualTo(EMPTY_3x2);
     }
+
+    @Test
+    public void copyIsSnapshot() {
+        Line line = EMPTY_3x2.column(1).set(0, FILLED);
+        Line copy = line.copy().set(1, FILLED);
+
+        assertThat(line.get(1)).isEqualTo(EMPTY);
+        assertThat(copy.get(0)).isEqualTo(FILLED);
+        assertThat(copy.toGrid()).isEqualTo(Grid.empty(3, 2)
+                .setSquare(0, 1, FILLED)
+                .setSquare(1, 1, FILLED)
+                .build());
+    }
+
+    @Test
+    public void reusedLine() {
+        // Writing a packed line overwrites every square, so one line can stand in for many.
+        Line line = Grid.empty(1, 3).build().row(0);
+
+        assertThat(PackedLine.parse(".x ").writeTo(line).get(1)).isEqualTo(GAP);
+        assertThat(PackedLine.parse("  .").writeTo(line)).isEqualTo(Grid.empty(1, 3).build().row(0).parse("  ."));
+    }
 }
\ No newline at end of file
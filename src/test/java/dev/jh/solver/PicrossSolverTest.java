@@ -1,7 +1,11 @@
 package dev.jh.solver;
 
 import com.google.common.collect.ImmutableList;
+import dev.jh.solver.board.PackedBoard;
+import dev.jh.solver.line.AutomatonLineSolver;
+import dev.jh.solver.line.BatchLineSolver;
 import dev.jh.solver.rules.picross.PicrossRule;
+import dev.jh.solver.search.ParallelSearchSolver;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -55,6 +59,47 @@ public class PicrossSolverTest {
         assertThat(solver.solve(puzzle)).isEqualTo(solution);
     }
 
+    @Test
+    public void solveWithBatchLineSolver() throws IOException {
+        Puzzle<PicrossRule> puzzle = loadPuzzle();
+        Grid solution = loadSolution();
+
+        PicrossSolver solver = new PicrossSolver(BatchLineSolver.create());
+        assertThat(solver.solve(puzzle)).isEqualTo(solution);
+    }
+
+    @Test
+    public void solveWithAutomata() throws IOException {
+        Puzzle<PicrossRule> puzzle = loadPuzzle();
+        Grid solution = loadSolution();
+
+        PicrossSolver solver = new PicrossSolver(new AutomatonLineSolver());
+        assertThat(solver.solve(puzzle)).isEqualTo(solution);
+    }
+
+    @Test
+    public void verifySolution() throws IOException {
+        assertThat(new SolutionVerifier().verify(loadPuzzle(), loadSolution())).isEmpty();
+    }
+
+    @Test
+    public void solveOffHeap() throws IOException {
+        Puzzle<PicrossRule> puzzle = loadPuzzle();
+        Grid solution = loadSolution();
+
+        PicrossSolver solver = new PicrossSolver(BatchLineSolver.create(), PackedBoard::offHeap);
+        assertThat(solver.solve(puzzle)).isEqualTo(solution);
+    }
+
+    @Test
+    public void solveWithParallelSearch() throws IOException {
+        Puzzle<PicrossRule> puzzle = loadPuzzle();
+        Grid solution = loadSolution();
+
+        ParallelSearchSolver solver = new ParallelSearchSolver();
+        assertThat(solver.solve(puzzle)).isEqualTo(solution);
+    }
+
     private Puzzle<PicrossRule> loadPuzzle() throws IOException {
         // Puzzle format:
         // first line is height x width
@@ -98,7 +143,7 @@ public class PicrossSolverTest {
     private Grid loadSolution() throws IOException {
         // Solution format:
         // first line is height x width
-        // Remaining lines are squares.  Short lines end with empty squares.
+        // Remaining lines are squares - FILLED squares are '.', and GAPs are 'x'.
         return Grid.parse(ImmutableList.copyOf(Files.readAllLines(solution))).build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,243 @@
+package dev.jh.solver;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.board.PackedBoard;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static dev.jh.solver.PuzzleType.PICROSS;
+import static dev.jh.solver.Square.EMPTY;
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PropagatorTest {
+
+    @Test
+    public void undo() {
+        Propagator propagator = propagator();
+        assertThat(propagator.propagate()).isTrue();
+        assertThat(propagator.board().get(0, 0)).isEqualTo(EMPTY);
+
+        Propagator.Mark mark = propagator.mark();
+        propagator.assume(0, 0, FILLED);
+        assertThat(propagator.propagate()).isTrue();
+        assertThat(propagator.isSolved()).isTrue();
+
+        propagator.undo(mark);
+        assertThat(propagator.board().toGrid()).isEqualTo(Grid.empty(2, 2).build());
+
+        // The mark can be reused to try the other branch.
+        propagator.assume(0, 0, GAP);
+        assertThat(propagator.propagate()).isTrue();
+        assertThat(propagator.board().toGrid()).isEqualTo(Grid.parse(ImmutableList.of(
+                "2x2",
+                "x.",
+                ".x"
+        )).build());
+    }
+
+    @Test
+    public void tightensRangesOfTableLines() {
+        Propagator propagator = propagator();
+        assertThat(propagator.propagate()).isTrue();
+
+        Propagator.Mark mark = propagator.mark();
+        propagator.assume(0, 0, FILLED);
+        assertThat(propagator.propagate()).isTrue();
+
+        // Every line is short enough for a table, and solved, so each segment is pinned to its square.
+        assertThat(propagator.ranges(LineType.ROW, 0).earliest(0)).isEqualTo(0);
+        assertThat(propagator.ranges(LineType.ROW, 0).latest(0)).isEqualTo(0);
+        assertThat(propagator.ranges(LineType.COLUMN, 1).earliest(0)).isEqualTo(1);
+        assertThat(propagator.ranges(LineType.COLUMN, 1).latest(0)).isEqualTo(1);
+
+        propagator.undo(mark);
+        assertThat(propagator.ranges(LineType.ROW, 0).earliest(0)).isEqualTo(0);
+        assertThat(propagator.ranges(LineType.ROW, 0).latest(0)).isEqualTo(1);
+    }
+
+    @Test
+    public void copy() {
+        Propagator propagator = propagator();
+        assertThat(propagator.propagate()).isTrue();
+
+        Propagator copy = propagator.copy();
+        copy.assume(0, 0, GAP);
+        assertThat(copy.propagate()).isTrue();
+        assertThat(copy.isSolved()).isTrue();
+
+        assertThat(propagator.board().get(0, 0)).isEqualTo(EMPTY);
+        assertThat(propagator.isSolved()).isFalse();
+    }
+
+    @Test
+    public void markBeforePropagating() {
+        assertThatThrownBy(() -> propagator().mark())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void changeRuleMatchesSolvingFromScratch() {
+        Random random = new Random(45);
+        for (int i = 0; i < 200; i ++) {
+            Puzzle<PicrossRule> puzzle = randomPuzzle(random, 8, 8);
+            Propagator propagator = propagator(puzzle);
+            propagator.trackDependencies();
+            propagator.propagate();
+
+            LineType type = random.nextBoolean() ? LineType.ROW : LineType.COLUMN;
+            int index = random.nextInt(8);
+            PicrossRule rule = randomRule(random, 8);
+            propagator.changeRule(type, index, rule);
+
+            Propagator scratch = propagator(puzzle.withRule(type, index, rule));
+            boolean consistent = scratch.propagate();
+
+            assertThat(propagator.propagate()).isEqualTo(consistent);
+            if (consistent) {
+                assertThat(propagator.board().toGrid()).isEqualTo(scratch.board().toGrid());
+            }
+        }
+    }
+
+    @Test
+    public void changeRuleRetractsDependentSquares() {
+        Puzzle.Builder<PicrossRule> builder = Puzzle.newBuilder(PICROSS, 2, 3);
+        builder.addRowRule(PicrossRule.forSegments(3));
+        builder.addRowRule(PicrossRule.forSegments(1));
+        builder.addColumnRule(PicrossRule.forSegments(1));
+        builder.addColumnRule(PicrossRule.forSegments(2));
+        builder.addColumnRule(PicrossRule.forSegments(1));
+        Puzzle<PicrossRule> puzzle = builder.build();
+        Propagator propagator = propagator(puzzle);
+        propagator.trackDependencies();
+        assertThat(propagator.propagate()).isTrue();
+        assertThat(propagator.isSolved()).isTrue();
+
+        // The middle column fills itself, and the bottom row's gaps only follow from that, so just the squares the
+        // top row filled depend on its rule.
+        assertThat(propagator.changeRule(LineType.ROW, 0, PicrossRule.forSegments(1))).isEqualTo(2);
+        assertThat(propagator.board().toGrid()).isEqualTo(Grid.parse(ImmutableList.of(
+                "2x3",
+                " . ",
+                "x.x"
+        )).build());
+
+        // The outside columns need a FILLED square that the new rule can't give them.
+        assertThat(propagator.propagate()).isFalse();
+    }
+
+    @Test
+    public void changeRuleWithoutTracking() {
+        Propagator propagator = propagator();
+
+        assertThatThrownBy(() -> propagator.changeRule(LineType.ROW, 0, PicrossRule.forSegments(2)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void changeRuleOutOfBounds() {
+        Puzzle<PicrossRule> puzzle = randomPuzzle(new Random(3), 6, 4);
+        Propagator propagator = propagator(puzzle);
+        propagator.trackDependencies();
+        assertThat(propagator.propagate()).isTrue();
+        Grid board = propagator.board().toGrid();
+        assertThat(board).isNotEqualTo(Grid.empty(6, 4).build());
+
+        // Row 6 would otherwise be taken for column 0, whose squares would be retracted before anything failed.
+        assertThatThrownBy(() -> propagator.changeRule(LineType.ROW, 6, PicrossRule.forSegments(1)))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> puzzle.withRule(LineType.COLUMN, 4, PicrossRule.forSegments(1)))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+        assertThat(propagator.board().toGrid()).isEqualTo(board);
+    }
+
+    @Test
+    public void solveSimplestFirstReachesTheSameSquares() {
+        // Lines longer than a table solve with the segment ranges and approaches in both modes.
+        Random random = new Random(47);
+        for (int i = 0; i < 100; i ++) {
+            Puzzle<PicrossRule> puzzle = randomPuzzle(random, 12, 12);
+            Propagator propagator = propagator(puzzle);
+            Propagator simplest = propagator(puzzle);
+            simplest.solveSimplestFirst();
+
+            assertThat(simplest.propagate()).isEqualTo(propagator.propagate());
+            assertThat(simplest.board().toGrid()).isEqualTo(propagator.board().toGrid());
+            assertThat(simplest.rounds()).isGreaterThan(0);
+        }
+    }
+
+    private static Propagator propagator() {
+        PicrossRule one = new PicrossRule(ImmutableList.of(1));
+
+        Puzzle.Builder<PicrossRule> puzzle = Puzzle.newBuilder(PICROSS, 2, 2);
+        puzzle.addRowRule(one);
+        puzzle.addRowRule(one);
+        puzzle.addColumnRule(one);
+        puzzle.addColumnRule(one);
+
+        return new Propagator(puzzle.build(), PackedBoard.onHeap(2, 2), PicrossSolver.APPROACHES, Optional.empty());
+    }
+
+    private static Propagator propagator(Puzzle<PicrossRule> puzzle) {
+        return new Propagator(puzzle, PackedBoard.onHeap(puzzle.height, puzzle.width), PicrossSolver.APPROACHES,
+                Optional.empty());
+    }
+
+    /**
+     * Returns a puzzle with the rules of a random grid.
+     */
+    private static Puzzle<PicrossRule> randomPuzzle(Random random, int height, int width) {
+        boolean[][] filled = new boolean[height][width];
+        for (int row = 0; row < height; row ++) {
+            for (int column = 0; column < width; column ++) {
+                filled[row][column] = random.nextBoolean();
+            }
+        }
+
+        Puzzle.Builder<PicrossRule> puzzle = Puzzle.newBuilder(PICROSS, height, width);
+        for (int row = 0; row < height; row ++) {
+            puzzle.addRowRule(rule(filled[row]));
+        }
+        for (int column = 0; column < width; column ++) {
+            boolean[] line = new boolean[height];
+            for (int row = 0; row < height; row ++) {
+                line[row] = filled[row][column];
+            }
+            puzzle.addColumnRule(rule(line));
+        }
+
+        return puzzle.build();
+    }
+
+    private static PicrossRule randomRule(Random random, int length) {
+        boolean[] line = new boolean[length];
+        for (int i = 0; i < length; i ++) {
+            line[i] = random.nextBoolean();
+        }
+
+        return rule(line);
+    }
+
+    private static PicrossRule rule(boolean[] line) {
+        ImmutableList.Builder<Integer> segments = ImmutableList.builder();
+        int run = 0;
+        for (int i = 0; i <= line.length; i ++) {
+            if (i < line.length && line[i]) {
+                run ++;
+            } else if (run > 0) {
+                segments.add(run);
+                run = 0;
+            }
+        }
+
+        ImmutableList<Integer> built = segments.build();
+        return new PicrossRule(built.isEmpty() ? ImmutableList.of(0) : built);
+    }
+}
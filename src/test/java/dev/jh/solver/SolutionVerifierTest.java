@@ -0,0 +1,106 @@
+package dev.jh.solver;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.line.PackedLine;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static dev.jh.solver.PuzzleType.PICROSS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SolutionVerifierTest {
+    private static final Puzzle<PicrossRule> PUZZLE = Puzzle.<PicrossRule>newBuilder(PICROSS, 3, 3)
+            .addRowRule(PicrossRule.forSegments(3))
+            .addRowRule(PicrossRule.forSegments(1, 1))
+            .addRowRule(PicrossRule.forSegments(3))
+            .addColumnRule(PicrossRule.forSegments(3))
+            .addColumnRule(PicrossRule.forSegments(1, 1))
+            .addColumnRule(PicrossRule.forSegments(3))
+            .build();
+
+    private static final Grid SOLUTION = Grid.parse(ImmutableList.of(
+            "3x3",
+            "...",
+            ".x.",
+            "..."
+    )).build();
+
+    @Test
+    public void solution() {
+        assertThat(new SolutionVerifier().verify(PUZZLE, SOLUTION)).isEmpty();
+    }
+
+    @Test
+    public void firstMismatchingRow() {
+        Grid grid = SOLUTION.copy().setSquare(1, 1, Square.FILLED).build();
+
+        assertThat(new SolutionVerifier().verify(PUZZLE, grid))
+                .contains(new SolutionVerifier.Mismatch(LineType.ROW, 1));
+    }
+
+    @Test
+    public void firstMismatchingColumn() {
+        // Swapping the bottom row's rule for the middle row's keeps every row valid, so only a column is wrong.
+        Grid grid = Grid.parse(ImmutableList.of(
+                "3x3",
+                "...",
+                ".x.",
+                ".x."
+        )).build();
+        Puzzle<PicrossRule> puzzle = Puzzle.<PicrossRule>newBuilder(PICROSS, 3, 3)
+                .addRowRule(PicrossRule.forSegments(3))
+                .addRowRule(PicrossRule.forSegments(1, 1))
+                .addRowRule(PicrossRule.forSegments(1, 1))
+                .addColumnRule(PicrossRule.forSegments(3))
+                .addColumnRule(PicrossRule.forSegments(1, 1))
+                .addColumnRule(PicrossRule.forSegments(3))
+                .build();
+
+        assertThat(new SolutionVerifier().verify(puzzle, grid))
+                .contains(new SolutionVerifier.Mismatch(LineType.COLUMN, 1));
+    }
+
+    @Test
+    public void emptySquaresAreGaps() {
+        Grid grid = SOLUTION.copy().setSquare(1, 1, Square.EMPTY).build();
+
+        assertThat(new SolutionVerifier().verify(PUZZLE, grid)).isEmpty();
+    }
+
+    @Test
+    public void wrongSize() {
+        assertThatThrownBy(() -> new SolutionVerifier().verify(PUZZLE, Grid.empty(2, 3).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void matchesRunsAcrossWords() {
+        // Runs that start and end in different words, and a run that ends at the end of the line.
+        StringBuilder squares = new StringBuilder();
+        squares.append("x".repeat(60)).append(".".repeat(10)).append("x".repeat(58)).append(".".repeat(2));
+        PackedLine line = PackedLine.parse(squares.toString());
+
+        assertThat(SolutionVerifier.matches(PicrossRule.forSegments(10, 2), line)).isTrue();
+        assertThat(SolutionVerifier.matches(PicrossRule.forSegments(10), line)).isFalse();
+        assertThat(SolutionVerifier.matches(PicrossRule.forSegments(10, 2, 1), line)).isFalse();
+        assertThat(SolutionVerifier.matches(PicrossRule.forSegments(9, 2), line)).isFalse();
+    }
+
+    @Test
+    public void matchesEmptyRule() {
+        assertThat(SolutionVerifier.matches(PicrossRule.forSegments(0), PackedLine.parse("xxxx"))).isTrue();
+        assertThat(SolutionVerifier.matches(PicrossRule.forSegments(0), PackedLine.parse("xx.x"))).isFalse();
+    }
+
+    @Test
+    public void verifyAll() {
+        Grid wrong = SOLUTION.copy().setSquare(0, 0, Square.GAP).build();
+
+        assertThat(new SolutionVerifier().verifyAll(PUZZLE, ImmutableList.of(SOLUTION, wrong, SOLUTION)))
+                .containsExactly(Optional.empty(), Optional.of(new SolutionVerifier.Mismatch(LineType.ROW, 0)),
+                        Optional.empty());
+    }
+}
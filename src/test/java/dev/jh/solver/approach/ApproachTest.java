@@ -0,0 +1,60 @@
+package dev.jh.solver.approach;
+
+import dev.jh.solver.Grid;
+import dev.jh.solver.Line;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+import static dev.jh.solver.approach.picross.PicrossApproach.OVERLAP;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ApproachTest {
+
+    private static final Grid EMPTY_5x5 = Grid.empty(5, 5).build();
+
+    @Test
+    public void changed() {
+        Changes changes = new Changes();
+
+        assertThat(OVERLAP.apply(PicrossRule.forSegments(4), EMPTY_5x5.row(0).parse("  .  "), changes))
+                .isEqualTo(Status.CHANGED);
+        assertThat(changes.toString()).contains("[1, 3]");
+    }
+
+    @Test
+    public void unchanged() {
+        Changes changes = new Changes().add(7);
+
+        assertThat(OVERLAP.apply(PicrossRule.forSegments(4), EMPTY_5x5.row(0).parse(" ... "), changes))
+                .describedAs("Overlap applies, but the squares are already FILLED")
+                .isEqualTo(Status.UNCHANGED);
+        assertThat(changes.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void notApplicable() {
+        assertThat(OVERLAP.apply(PicrossRule.forSegments(1, 1), EMPTY_5x5.row(0), new Changes()))
+                .isEqualTo(Status.NOT_APPLICABLE);
+    }
+
+    @Test
+    public void contradiction() {
+        assertThat(OVERLAP.apply(PicrossRule.forSegments(4), EMPTY_5x5.row(0).parse("  x  "), new Changes()))
+                .isEqualTo(Status.CONTRADICTION);
+    }
+
+    @Test
+    public void changesGrow() {
+        Approach<PicrossRule> fillEverything = (rule, line) -> Optional.of(line.fill(0, line.length, FILLED));
+        Line line = Grid.empty(1, 40).build().row(0).set(39, GAP);
+        Changes changes = new Changes();
+
+        assertThat(fillEverything.apply(PicrossRule.forSegments(1), line, changes)).isEqualTo(Status.CONTRADICTION);
+        assertThat(changes.size()).isEqualTo(39);
+        assertThat(changes.get(38)).isEqualTo(38);
+    }
+}
@@ -0,0 +1,52 @@
+package dev.jh.solver.approach.picross;
+
+import dev.jh.solver.Grid;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import static dev.jh.solver.approach.picross.PicrossApproach.COMPLETED_LINE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompletedLineApproachTest {
+
+    private static final Grid EMPTY_6x6 = Grid.empty(6, 6).build();
+
+    @Test
+    public void applies() {
+        assertThat(COMPLETED_LINE.apply(PicrossRule.forSegments(2, 1), EMPTY_6x6.row(0).parse(".. .  ")))
+                .contains(EMPTY_6x6.row(0).parse("..x.xx"));
+
+        assertThat(COMPLETED_LINE.apply(PicrossRule.forSegments(1), EMPTY_6x6.row(0).parse("  .x  ")))
+                .contains(EMPTY_6x6.row(0).parse("xx.xxx"));
+    }
+
+    @Test
+    public void doesNotApply() {
+        assertThat(COMPLETED_LINE.apply(PicrossRule.forSegments(2, 1), EMPTY_6x6.row(0).parse(".. ")))
+                .describedAs("Missing a segment")
+                .isEmpty();
+
+        assertThat(COMPLETED_LINE.apply(PicrossRule.forSegments(3), EMPTY_6x6.row(0).parse(".. ")))
+                .describedAs("Segment isn't finished")
+                .isEmpty();
+
+        assertThat(COMPLETED_LINE.apply(PicrossRule.forSegments(2, 1), EMPTY_6x6.row(0).parse("..x.xx")))
+                .describedAs("Line is already solved")
+                .isEmpty();
+    }
+
+    @Test
+    public void unchanged() {
+        Changes changes = new Changes();
+
+        assertThat(COMPLETED_LINE.apply(PicrossRule.forSegments(2, 1), EMPTY_6x6.row(0).parse("..x.xx"), changes))
+                .describedAs("Line is complete, but already solved")
+                .isEqualTo(Status.UNCHANGED);
+        assertThat(changes.isEmpty()).isTrue();
+
+        assertThat(COMPLETED_LINE.apply(PicrossRule.forSegments(3), EMPTY_6x6.row(0).parse(".. "), changes))
+                .isEqualTo(Status.NOT_APPLICABLE);
+    }
+}
@@ -3,6 +3,8 @@ package dev.jh.solver.approach.picross;
 import com.google.common.collect.ImmutableList;
 import dev.jh.solver.Grid;
 import dev.jh.solver.approach.Approach;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
 import dev.jh.solver.rules.picross.PicrossRule;
 import org.junit.Test;
 
@@ -27,4 +29,33 @@ public class FullLineApproachTest {
         assertThat(APPROACH.apply(new PicrossRule(ImmutableList.of(1, 1)), EMPTY_3x2.column(0))).isEmpty();
         assertThat(APPROACH.apply(new PicrossRule(ImmutableList.of(1)), EMPTY_3x2.row(0))).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void changes() {
+        Changes changes = new Changes();
+
+        assertThat(APPROACH.apply(new PicrossRule(ImmutableList.of(3)), EMPTY_3x2.column(0).parse(" . "), changes))
+                .isEqualTo(Status.CHANGED);
+        assertThat(changes.size()).isEqualTo(2);
+        assertThat(changes.get(0)).isEqualTo(0);
+        assertThat(changes.get(1)).isEqualTo(2);
+    }
+
+    @Test
+    public void unchanged() {
+        Changes changes = new Changes();
+
+        assertThat(APPROACH.apply(new PicrossRule(ImmutableList.of(3)), EMPTY_3x2.column(0).parse("..."), changes))
+                .isEqualTo(Status.UNCHANGED);
+        assertThat(changes.isEmpty()).isTrue();
+
+        assertThat(APPROACH.apply(new PicrossRule(ImmutableList.of(1)), EMPTY_3x2.row(0), changes))
+                .isEqualTo(Status.NOT_APPLICABLE);
+    }
+
+    @Test
+    public void contradiction() {
+        assertThat(APPROACH.apply(new PicrossRule(ImmutableList.of(3)), EMPTY_3x2.column(0).parse(" x "), new Changes()))
+                .isEqualTo(Status.CONTRADICTION);
+    }
+}
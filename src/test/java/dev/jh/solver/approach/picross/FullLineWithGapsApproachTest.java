@@ -3,6 +3,8 @@ package dev.jh.solver.approach.picross;
 import com.google.common.collect.ImmutableList;
 import dev.jh.solver.Grid;
 import dev.jh.solver.approach.Approach;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
 import dev.jh.solver.rules.picross.PicrossRule;
 import org.junit.Test;
 
@@ -39,4 +41,25 @@ public class FullLineWithGapsApproachTest {
                 .describedAs("rule: '5' on 5-wide row - covered by FullLineApproach.")
                 .isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void changes() {
+        Changes changes = new Changes();
+
+        assertThat(APPROACH.apply(new PicrossRule(ImmutableList.of(3, 1)), EMPTY_5x5.row(0).parse(" .   "), changes))
+                .isEqualTo(Status.CHANGED);
+        assertThat(changes.toString()).contains("[0, 2, 4]");
+
+        assertThat(APPROACH.apply(new PicrossRule(ImmutableList.of(3, 1)), EMPTY_5x5.row(0).parse("... ."), changes))
+                .isEqualTo(Status.UNCHANGED);
+        assertThat(changes.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void contradiction() {
+        Changes changes = new Changes();
+
+        assertThat(APPROACH.apply(new PicrossRule(ImmutableList.of(3, 1)), EMPTY_5x5.row(0).parse(" x   "), changes))
+                .isEqualTo(Status.CONTRADICTION);
+    }
+}
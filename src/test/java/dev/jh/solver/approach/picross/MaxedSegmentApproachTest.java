@@ -0,0 +1,52 @@
+package dev.jh.solver.approach.picross;
+
+import dev.jh.solver.Grid;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import static dev.jh.solver.approach.picross.PicrossApproach.MAXED_SEGMENT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MaxedSegmentApproachTest {
+
+    private static final Grid EMPTY_7x7 = Grid.empty(7, 7).build();
+
+    @Test
+    public void applies() {
+        assertThat(MAXED_SEGMENT.apply(PicrossRule.forSegments(3, 1), EMPTY_7x7.row(0).parse("  ...  ")))
+                .contains(EMPTY_7x7.row(0).parse(" x...x "));
+
+        assertThat(MAXED_SEGMENT.apply(PicrossRule.forSegments(1, 2, 2), EMPTY_7x7.row(0).parse("..  .. ")))
+                .contains(EMPTY_7x7.row(0).parse("..xx..x"));
+    }
+
+    @Test
+    public void doesNotApply() {
+        assertThat(MAXED_SEGMENT.apply(PicrossRule.forSegments(3, 1), EMPTY_7x7.row(0).parse("  ..   ")))
+                .describedAs("Run is shorter than the longest segment")
+                .isEmpty();
+
+        assertThat(MAXED_SEGMENT.apply(PicrossRule.forSegments(3, 1), EMPTY_7x7.row(0).parse(" x...x ")))
+                .describedAs("Run is already surrounded by GAPs")
+                .isEmpty();
+
+        assertThat(MAXED_SEGMENT.apply(PicrossRule.forSegments(3), EMPTY_7x7.row(0).parse("  ...  ")))
+                .describedAs("Line is complete - covered by CompletedLineApproach")
+                .isEmpty();
+    }
+
+    @Test
+    public void unchanged() {
+        Changes changes = new Changes();
+
+        assertThat(MAXED_SEGMENT.apply(PicrossRule.forSegments(3, 1), EMPTY_7x7.row(0).parse(" x...x "), changes))
+                .describedAs("Run is maxed, but already surrounded by GAPs")
+                .isEqualTo(Status.UNCHANGED);
+        assertThat(changes.isEmpty()).isTrue();
+
+        assertThat(MAXED_SEGMENT.apply(PicrossRule.forSegments(3, 1), EMPTY_7x7.row(0).parse("  ..   "), changes))
+                .isEqualTo(Status.NOT_APPLICABLE);
+    }
+}
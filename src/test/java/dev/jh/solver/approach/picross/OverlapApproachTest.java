@@ -1,9 +1,16 @@
 package dev.jh.solver.approach.picross;
 
+import com.google.common.collect.ImmutableList;
 import dev.jh.solver.Grid;
+import dev.jh.solver.Line;
+import dev.jh.solver.Square;
+import dev.jh.solver.line.LineTable;
+import dev.jh.solver.line.PackedLine;
 import dev.jh.solver.rules.picross.PicrossRule;
 import org.junit.Test;
 
+import java.util.Optional;
+
 import static dev.jh.solver.approach.picross.PicrossApproach.OVERLAP;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -47,4 +54,49 @@ public class OverlapApproachTest {
         // Rule only applies when there's always an overlap.  1 1 on a 5-length row doesn't always fill a square.
         assertThat(OVERLAP.apply(PicrossRule.forSegments(1, 1), EMPTY_5x5.row(0))).isEmpty();
     }
+
+    @Test
+    public void matchesEveryPlacement() {
+        // A line table intersects every placement of the rule, so it fills the same squares on an empty line.
+        for (int length = 1; length <= LineTable.MAX_LENGTH; length ++) {
+            Line empty = Grid.empty(1, length).build().row(0);
+
+            for (int mask = 1; mask < 1 << length; mask ++) {
+                PicrossRule rule = rule(mask, length);
+                if (rule.minimumLength() == length) {
+                    // Full lines are left to the full line approach.
+                    continue;
+                }
+
+                PackedLine solved = new PackedLine(length);
+                LineTable.of(rule, length).solve(solved);
+
+                Optional<Line> applied = OVERLAP.apply(rule, empty.copy());
+                for (int i = 0; i < length; i ++) {
+                    boolean filled = applied.isPresent() && applied.get().get(i) == Square.FILLED;
+                    assertThat(filled)
+                            .as("%s on %s squares, square %s", rule, length, i)
+                            .isEqualTo(solved.get(i) == Square.FILLED);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the rule for the runs of set bits in the mask.
+     */
+    private static PicrossRule rule(int mask, int length) {
+        ImmutableList.Builder<Integer> segments = ImmutableList.builder();
+        int run = 0;
+        for (int i = 0; i <= length; i ++) {
+            if (i < length && (mask & 1 << i) != 0) {
+                run ++;
+            } else if (run > 0) {
+                segments.add(run);
+                run = 0;
+            }
+        }
+
+        return new PicrossRule(segments.build());
+    }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import dev.jh.solver.Grid;
 import dev.jh.solver.Line;
+import dev.jh.solver.Square;
 import dev.jh.solver.rules.picross.PicrossRule;
 import org.junit.Before;
 import org.junit.Test;
@@ -17,6 +18,7 @@ import java.util.Objects;
 import java.util.stream.IntStream;
 
 import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -86,14 +88,24 @@ public class PicrossApproachTest {
 
     @Test
     public void noOverlap() {
-        for (Map.Entry<LineRule, ImmutableList<PicrossApproach>> entry : LINE_RULE_APPROACHES.entrySet()) {
-            String description = String.format("%s solve %s - only one approach should solve the line and rule.",
-                    Joiner.on(' ').join(entry.getValue()),
-                    entry.getKey());
-
-            assertThat(entry.getValue())
-                    .describedAs(description)
-                    .hasSizeLessThanOrEqualTo(1);
+        // Approaches that place FILLED squares and approaches that place GAPs can both apply to the same line,
+        // but only one approach of each kind should.
+        for (Square places : ImmutableList.of(FILLED, GAP)) {
+            for (Map.Entry<LineRule, ImmutableList<PicrossApproach>> entry : LINE_RULE_APPROACHES.entrySet()) {
+                ImmutableList<PicrossApproach> approaches = entry.getValue().stream()
+                        .filter(approach -> approach.places == places)
+                        .collect(ImmutableList.toImmutableList());
+
+                String description = String.format("%s solve %s - only one approach that places %s squares " +
+                                "should solve the line and rule.",
+                        Joiner.on(' ').join(approaches),
+                        entry.getKey(),
+                        places.name());
+
+                assertThat(approaches)
+                        .describedAs(description)
+                        .hasSizeLessThanOrEqualTo(1);
+            }
         }
     }
 
@@ -0,0 +1,54 @@
+package dev.jh.solver.approach.picross;
+
+import dev.jh.solver.Grid;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
+import dev.jh.solver.line.PackedLine;
+import dev.jh.solver.line.SegmentRanges;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SegmentRangeApproachTest {
+
+    private static final SegmentRangeApproach APPROACH = new SegmentRangeApproach();
+    private static final Grid EMPTY_8x8 = Grid.empty(8, 8).build();
+
+    @Test
+    public void applies() {
+        assertThat(APPROACH.apply(PicrossRule.forSegments(6), EMPTY_8x8.row(0)))
+                .contains(EMPTY_8x8.row(0).parse("  ....  "));
+
+        assertThat(APPROACH.apply(PicrossRule.forSegments(2, 1), EMPTY_8x8.row(0).parse(" x   x  ")))
+                .describedAs("Both segments are pushed past the GAPs")
+                .contains(EMPTY_8x8.row(0).parse("xx . x  "));
+
+        assertThat(APPROACH.apply(PicrossRule.forSegments(2), EMPTY_8x8.row(0).parse("    .   ")))
+                .contains(EMPTY_8x8.row(0).parse("xxx . xx"));
+    }
+
+    @Test
+    public void doesNotApply() {
+        assertThat(APPROACH.apply(PicrossRule.forSegments(1, 1), EMPTY_8x8.row(0))).isEmpty();
+        assertThat(APPROACH.apply(PicrossRule.forSegments(3), EMPTY_8x8.row(0).parse(".x      "))).isEmpty();
+    }
+
+    @Test
+    public void maintainedRanges() {
+        SegmentRanges ranges = new SegmentRanges(PicrossRule.forSegments(2), 8);
+        assertThat(ranges.tighten(PackedLine.parse("    .   "))).isTrue();
+
+        Changes changes = new Changes();
+        assertThat(APPROACH.apply(ranges, EMPTY_8x8.row(0).parse("    .   "), changes)).isEqualTo(Status.CHANGED);
+        assertThat(changes.size()).isEqualTo(5);
+
+        assertThat(APPROACH.apply(ranges, EMPTY_8x8.row(0).parse("xxx . xx"), changes)).isEqualTo(Status.UNCHANGED);
+    }
+
+    @Test
+    public void contradiction() {
+        assertThat(APPROACH.apply(PicrossRule.forSegments(3), EMPTY_8x8.row(0).parse(".x.     "), new Changes()))
+                .isEqualTo(Status.CONTRADICTION);
+    }
+}
@@ -0,0 +1,54 @@
+package dev.jh.solver.approach.picross;
+
+import dev.jh.solver.Grid;
+import dev.jh.solver.approach.Changes;
+import dev.jh.solver.approach.Status;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import static dev.jh.solver.approach.picross.PicrossApproach.UNREACHABLE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UnreachableApproachTest {
+
+    private static final Grid EMPTY_5x5 = Grid.empty(5, 5).build();
+
+    @Test
+    public void applies() {
+        assertThat(UNREACHABLE.apply(PicrossRule.forSegments(2), EMPTY_5x5.row(0).parse(".    ")))
+                .contains(EMPTY_5x5.row(0).parse(". xxx"));
+
+        assertThat(UNREACHABLE.apply(PicrossRule.forSegments(2), EMPTY_5x5.row(0).parse(" x   ")))
+                .describedAs("Pocket before the GAP is too small for the segment")
+                .contains(EMPTY_5x5.row(0).parse("xx   "));
+    }
+
+    @Test
+    public void doesNotApply() {
+        assertThat(UNREACHABLE.apply(PicrossRule.forSegments(2), EMPTY_5x5.row(0)))
+                .describedAs("Segment can reach every square")
+                .isEmpty();
+
+        assertThat(UNREACHABLE.apply(PicrossRule.forSegments(1), EMPTY_5x5.row(0).parse("  .  ")))
+                .describedAs("Line is complete - covered by CompletedLineApproach")
+                .isEmpty();
+
+        assertThat(UNREACHABLE.apply(PicrossRule.forSegments(2, 1), EMPTY_5x5.row(0).parse("..   ")))
+                .describedAs("Run is as long as the longest segment - covered by MaxedSegmentApproach")
+                .isEmpty();
+    }
+
+    @Test
+    public void status() {
+        Changes changes = new Changes();
+
+        assertThat(UNREACHABLE.apply(PicrossRule.forSegments(2), EMPTY_5x5.row(0).parse(". xxx"), changes))
+                .describedAs("Every unreachable square is already a GAP")
+                .isEqualTo(Status.UNCHANGED);
+        assertThat(changes.isEmpty()).isTrue();
+
+        assertThat(UNREACHABLE.apply(PicrossRule.forSegments(3), EMPTY_5x5.row(0).parse(" x x "), changes))
+                .describedAs("No pocket is big enough for the segment")
+                .isEqualTo(Status.CONTRADICTION);
+    }
+}
@@ -0,0 +1,194 @@
+package dev.jh.solver.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Baseline is the cost of solving each puzzle in the corpus as of some earlier run, so later runs can be checked for
+ * regressions against it.
+ *
+ * File format: one line per puzzle and metric, as 'puzzle metric value'.  Metrics are 'nanos', 'bytes', and
+ * 'calls.APPROACH' for each approach that was applied.  Lines starting with '#' are comments.
+ */
+final class Baseline {
+    private static final String NANOS = "nanos";
+    private static final String BYTES = "bytes";
+    private static final String CALLS = "calls.";
+
+    final ImmutableMap<String, Measurement> measurements;
+
+    Baseline(ImmutableMap<String, Measurement> measurements) {
+        this.measurements = measurements;
+    }
+
+    /**
+     * Reads a baseline written by {@link #write(Path)}.
+     *
+     * @param path Baseline file.
+     * @return Baseline.
+     * @throws IOException If the file can't be read or isn't a baseline.
+     */
+    static Baseline read(Path path) throws IOException {
+        Map<String, Long> nanos = new LinkedHashMap<>();
+        Map<String, Long> bytes = new LinkedHashMap<>();
+        Map<String, ImmutableMap.Builder<String, Long>> calls = new LinkedHashMap<>();
+
+        for (String line : Files.readAllLines(path)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length != 3) {
+                throw new IOException("Invalid baseline line '" + line + "'");
+            }
+
+            String puzzle = fields[0];
+            long value;
+            try {
+                value = Long.parseLong(fields[2]);
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid baseline line '" + line + "'", e);
+            }
+
+            calls.computeIfAbsent(puzzle, p -> ImmutableMap.builder());
+            if (fields[1].equals(NANOS)) {
+                nanos.put(puzzle, value);
+            } else if (fields[1].equals(BYTES)) {
+                bytes.put(puzzle, value);
+            } else if (fields[1].startsWith(CALLS)) {
+                calls.get(puzzle).put(fields[1].substring(CALLS.length()), value);
+            } else {
+                throw new IOException("Unknown baseline metric '" + fields[1] + "'");
+            }
+        }
+
+        ImmutableMap.Builder<String, Measurement> measurements = ImmutableMap.builder();
+        for (Map.Entry<String, ImmutableMap.Builder<String, Long>> puzzle : calls.entrySet()) {
+            measurements.put(puzzle.getKey(), new Measurement(
+                    nanos.getOrDefault(puzzle.getKey(), 0L),
+                    bytes.getOrDefault(puzzle.getKey(), Measurement.UNKNOWN),
+                    puzzle.getValue().build()));
+        }
+
+        return new Baseline(measurements.build());
+    }
+
+    /**
+     * Writes the baseline to the given path, replacing whatever is there.
+     *
+     * @param path Baseline file.
+     * @throws IOException If the file can't be written.
+     */
+    void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        try (Writer out = Files.newBufferedWriter(path)) {
+            out.write("# puzzle metric value\n");
+            for (Map.Entry<String, Measurement> puzzle : measurements.entrySet()) {
+                Measurement measurement = puzzle.getValue();
+                out.write(puzzle.getKey() + " " + NANOS + " " + measurement.nanos + "\n");
+                out.write(puzzle.getKey() + " " + BYTES + " " + measurement.bytes + "\n");
+                for (Map.Entry<String, Long> calls : measurement.calls.entrySet()) {
+                    out.write(puzzle.getKey() + " " + CALLS + calls.getKey() + " " + calls.getValue() + "\n");
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares a run against this baseline.  Puzzles that aren't in the baseline are skipped, since there's nothing
+     * to compare them to, but puzzles that are in the baseline and missing from the run are reported.
+     *
+     * @param run Measurements from the run.
+     * @param thresholds How much worse than the baseline the run is allowed to be.
+     * @return Description of each regression, or an empty list if there aren't any.
+     */
+    ImmutableList<String> regressions(ImmutableMap<String, Measurement> run, Thresholds thresholds) {
+        ImmutableList.Builder<String> regressions = ImmutableList.builder();
+
+        for (Map.Entry<String, Measurement> puzzle : measurements.entrySet()) {
+            String name = puzzle.getKey();
+            Measurement before = puzzle.getValue();
+            Measurement after = run.get(name);
+            if (after == null) {
+                regressions.add(name + " wasn't measured");
+                continue;
+            }
+
+            if (after.nanos > before.nanos * thresholds.timeRatio + thresholds.timeSlackNanos) {
+                regressions.add(String.format("%s took %dus, baseline %dus", name, after.nanos / 1000,
+                        before.nanos / 1000));
+            }
+
+            if (before.bytes != Measurement.UNKNOWN && after.bytes != Measurement.UNKNOWN
+                    && after.bytes > before.bytes * thresholds.allocationRatio + thresholds.allocationSlackBytes) {
+                regressions.add(String.format("%s allocated %d bytes, baseline %d bytes", name, after.bytes,
+                        before.bytes));
+            }
+
+            ImmutableSortedSet<String> approaches = ImmutableSortedSet.<String>naturalOrder()
+                    .addAll(before.calls.keySet())
+                    .addAll(after.calls.keySet())
+                    .build();
+            for (String approach : approaches) {
+                long callsBefore = before.calls.getOrDefault(approach, 0L);
+                long callsAfter = after.calls.getOrDefault(approach, 0L);
+                if (callsAfter > callsBefore * thresholds.callRatio) {
+                    regressions.add(String.format("%s applied %s %d times, baseline %d", name, approach,
+                            callsAfter, callsBefore));
+                }
+            }
+        }
+
+        return regressions.build();
+    }
+
+    /**
+     * Thresholds is how much worse than the baseline a run can be before it counts as a regression.  A metric regresses
+     * when it's more than its ratio times the baseline plus its slack - the slack keeps noise on puzzles that only take
+     * microseconds from failing the run.
+     */
+    static final class Thresholds {
+        final double timeRatio;
+        final long timeSlackNanos;
+        final double allocationRatio;
+        final long allocationSlackBytes;
+        final double callRatio;
+
+        Thresholds(double timeRatio, long timeSlackNanos, double allocationRatio, long allocationSlackBytes,
+                   double callRatio) {
+            this.timeRatio = timeRatio;
+            this.timeSlackNanos = timeSlackNanos;
+            this.allocationRatio = allocationRatio;
+            this.allocationSlackBytes = allocationSlackBytes;
+            this.callRatio = callRatio;
+        }
+
+        /**
+         * Returns thresholds from the 'benchmark.timeRatio', 'benchmark.timeSlackMicros', 'benchmark.allocationRatio',
+         * 'benchmark.allocationSlackBytes', and 'benchmark.callRatio' system properties, with defaults for the ones
+         * that aren't set.  Approach calls don't depend on timing, so by default any increase is a regression.
+         *
+         * @return Thresholds.
+         */
+        static Thresholds fromSystemProperties() {
+            return new Thresholds(
+                    Double.parseDouble(System.getProperty("benchmark.timeRatio", "1.5")),
+                    Long.parseLong(System.getProperty("benchmark.timeSlackMicros", "500")) * 1000,
+                    Double.parseDouble(System.getProperty("benchmark.allocationRatio", "1.25")),
+                    Long.parseLong(System.getProperty("benchmark.allocationSlackBytes", "65536")),
+                    Double.parseDouble(System.getProperty("benchmark.callRatio", "1.0")));
+        }
+    }
+}
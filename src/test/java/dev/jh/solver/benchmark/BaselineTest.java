@@ -0,0 +1,96 @@
+package dev.jh.solver.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.rules.picross.PicrossRule;
+import dev.jh.solver.rules.picross.PuzzleFingerprint;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BaselineTest {
+    private static final Baseline.Thresholds THRESHOLDS = new Baseline.Thresholds(1.5, 1000, 1.25, 100, 1.0);
+
+    private static final Measurement HAT = new Measurement(10_000, 2000, ImmutableMap.of("OVERLAP", 20L));
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writeAndRead() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("baseline/baseline.txt");
+        Baseline baseline = new Baseline(ImmutableMap.of(
+                "hat", HAT,
+                "key", new Measurement(5000, Measurement.UNKNOWN, ImmutableMap.of())));
+        baseline.write(path);
+
+        assertThat(Baseline.read(path).measurements).isEqualTo(baseline.measurements);
+    }
+
+    @Test
+    public void withinThresholds() {
+        Baseline baseline = new Baseline(ImmutableMap.of("hat", HAT));
+        Measurement run = new Measurement(15_900, 2600, ImmutableMap.of("OVERLAP", 20L));
+
+        assertThat(baseline.regressions(ImmutableMap.of("hat", run), THRESHOLDS)).isEmpty();
+    }
+
+    @Test
+    public void regressions() {
+        Baseline baseline = new Baseline(ImmutableMap.of("hat", HAT, "key", HAT));
+        Measurement run = new Measurement(16_100, 2700, ImmutableMap.of("OVERLAP", 21L, "UNREACHABLE", 1L));
+
+        assertThat(baseline.regressions(ImmutableMap.of("hat", run), THRESHOLDS)).containsExactly(
+                "hat took 16us, baseline 10us",
+                "hat allocated 2700 bytes, baseline 2000 bytes",
+                "hat applied OVERLAP 21 times, baseline 20",
+                "hat applied UNREACHABLE 1 times, baseline 0",
+                "key wasn't measured");
+    }
+
+    @Test
+    public void skipsNewPuzzles() {
+        Baseline baseline = new Baseline(ImmutableMap.of("hat", HAT));
+
+        assertThat(baseline.regressions(ImmutableMap.of("hat", HAT, "key", HAT), THRESHOLDS)).isEmpty();
+    }
+
+    @Test
+    public void unknownAllocations() {
+        Baseline baseline = new Baseline(ImmutableMap.of("hat", HAT));
+        Measurement run = new Measurement(10_000, Measurement.UNKNOWN, HAT.calls);
+
+        assertThat(baseline.regressions(ImmutableMap.of("hat", run), THRESHOLDS)).isEmpty();
+    }
+
+    @Test
+    public void invalidBaseline() throws Exception {
+        Path path = folder.newFile("baseline.txt").toPath();
+        Files.writeString(path, "hat nanos\n");
+
+        assertThatThrownBy(() -> Baseline.read(path)).hasMessageContaining("Invalid baseline line");
+    }
+
+    @Test
+    public void generatedPuzzlesAreFixed() {
+        Puzzle<PicrossRule> puzzle = Corpus.generate(new Random(1), 20, 30);
+
+        assertThat(PuzzleFingerprint.of(Corpus.generate(new Random(1), 20, 30)))
+                .isEqualTo(PuzzleFingerprint.of(puzzle));
+    }
+
+    @Test
+    public void measure() {
+        Measurement measurement = new Benchmarker(0, 1).measure(Corpus.generate(new Random(1), 20, 20));
+
+        assertThat(measurement.nanos).isGreaterThan(0);
+        assertThat(measurement.calls).containsKey("SEGMENT_RANGES");
+    }
+}
@@ -0,0 +1,150 @@
+package dev.jh.solver.benchmark;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import dev.jh.solver.LineType;
+import dev.jh.solver.PicrossSolver;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.Square;
+import dev.jh.solver.approach.Status;
+import dev.jh.solver.rules.picross.PicrossRule;
+import dev.jh.solver.trace.Tracer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Benchmarker measures what it costs a {@link PicrossSolver} to solve each puzzle.  Every puzzle is solved a few times
+ * to warm up the JIT before any of them are timed, since small and large puzzles exercise different code.  Each puzzle
+ * is then timed over several more solves and the median is kept.  Allocations are measured on the
+ * solving thread, which is the only thread a PicrossSolver uses.  Approach calls are counted in a separate traced solve,
+ * so tracing doesn't add to the timed solves.
+ */
+final class Benchmarker {
+    private final int warmups;
+    private final int iterations;
+    private final com.sun.management.ThreadMXBean threads;
+
+    /**
+     * Creates a benchmarker.
+     *
+     * @param warmups Number of untimed rounds of solving every puzzle before the timed solves.
+     * @param iterations Number of timed solves.
+     */
+    Benchmarker(int warmups, int iterations) {
+        Preconditions.checkArgument(warmups >= 0, "warmups must be >= 0");
+        Preconditions.checkArgument(iterations > 0, "iterations must be > 0");
+
+        this.warmups = warmups;
+        this.iterations = iterations;
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        this.threads = threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+                ? (com.sun.management.ThreadMXBean) threads
+                : null;
+    }
+
+    /**
+     * Measures each puzzle in turn.
+     *
+     * @param puzzles Puzzles by name.
+     * @return Measurements by puzzle name, in the same order as the puzzles.
+     */
+    ImmutableMap<String, Measurement> measure(ImmutableMap<String, Puzzle<PicrossRule>> puzzles) {
+        PicrossSolver solver = new PicrossSolver();
+        for (int i = 0; i < warmups; i ++) {
+            for (Puzzle<PicrossRule> puzzle : puzzles.values()) {
+                solver.solve(puzzle);
+            }
+        }
+
+        ImmutableMap.Builder<String, Measurement> measurements = ImmutableMap.builder();
+        for (Map.Entry<String, Puzzle<PicrossRule>> puzzle : puzzles.entrySet()) {
+            measurements.put(puzzle.getKey(), measure(puzzle.getValue()));
+        }
+
+        return measurements.build();
+    }
+
+    /**
+     * Measures one puzzle, without warming up.
+     *
+     * @param puzzle Puzzle to solve.
+     * @return Median solve time and allocations, and approach calls.
+     */
+    Measurement measure(Puzzle<PicrossRule> puzzle) {
+        PicrossSolver solver = new PicrossSolver();
+        long[] nanos = new long[iterations];
+        long[] bytes = new long[iterations];
+        for (int i = 0; i < iterations; i ++) {
+            long allocatedBefore = allocated();
+            long start = System.nanoTime();
+            solver.solve(puzzle);
+            nanos[i] = System.nanoTime() - start;
+            bytes[i] = allocated() - allocatedBefore;
+        }
+
+        CallCounter counter = new CallCounter();
+        PicrossSolver.newBuilder()
+                .tracerFactory((p, approaches) -> counter.reset(approaches))
+                .build()
+                .solve(puzzle);
+
+        return new Measurement(median(nanos), threads == null ? Measurement.UNKNOWN : median(bytes), counter.calls());
+    }
+
+    private long allocated() {
+        return threads == null ? 0 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * CallCounter is a tracer that counts how many times each approach was applied.
+     */
+    private static final class CallCounter implements Tracer {
+        private ImmutableList<String> approaches = ImmutableList.of();
+        private long[] calls = new long[0];
+
+        private CallCounter reset(ImmutableList<String> approaches) {
+            this.approaches = approaches;
+            this.calls = new long[approaches.size()];
+            return this;
+        }
+
+        @Override
+        public void line(LineType type, int index) {
+        }
+
+        @Override
+        public void approach(int approach, Status status) {
+            calls[approach] ++;
+        }
+
+        @Override
+        public void change(int index, Square square) {
+        }
+
+        /**
+         * Returns the calls for each approach that was applied at least once.
+         */
+        private ImmutableMap<String, Long> calls() {
+            ImmutableMap.Builder<String, Long> counts = ImmutableMap.builder();
+            for (int approach = 0; approach < calls.length; approach ++) {
+                if (calls[approach] > 0) {
+                    counts.put(approaches.get(approach), calls[approach]);
+                }
+            }
+
+            return counts.build();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package dev.jh.solver.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.pipeline.PuzzleFormat;
+import dev.jh.solver.rules.picross.PicrossRule;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static dev.jh.solver.PuzzleType.PICROSS;
+
+/**
+ * Corpus is the fixed set of puzzles the benchmark solves: the bundled test puzzles, plus large puzzles built from
+ * random grids with fixed seeds, so every run solves exactly the same puzzles.
+ */
+final class Corpus {
+    /** Size and seed of each generated puzzle.  Lines longer than a line table exercise the approaches. */
+    private static final int[][] GENERATED = {
+            {50, 50, 1},
+            {100, 100, 2},
+            {200, 200, 3},
+            {100, 400, 4}
+    };
+
+    /** Chance that a generated square is FILLED.  Denser grids leave fewer lines that can't be decided. */
+    private static final double DENSITY = 0.75;
+
+    private Corpus() {}
+
+    /**
+     * Loads the bundled puzzles, then generates the large ones.
+     *
+     * @return Puzzles by name, in a fixed order.
+     */
+    static ImmutableMap<String, Puzzle<PicrossRule>> load() throws IOException, URISyntaxException {
+        ImmutableMap.Builder<String, Puzzle<PicrossRule>> puzzles = ImmutableMap.builder();
+
+        Path directory = Path.of(Corpus.class.getResource("/picross/puzzles/").toURI());
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted().collect(ImmutableList.toImmutableList())) {
+                puzzles.put(file.getFileName().toString(), PuzzleFormat.parse(Files.readAllLines(file)));
+            }
+        }
+
+        for (int[] generated : GENERATED) {
+            puzzles.put("random-" + generated[0] + "x" + generated[1],
+                    generate(new Random(generated[2]), generated[0], generated[1]));
+        }
+
+        return puzzles.build();
+    }
+
+    /**
+     * Returns a puzzle with the rules of a random grid, so it has at least one solution.
+     */
+    static Puzzle<PicrossRule> generate(Random random, int height, int width) {
+        boolean[][] filled = new boolean[height][width];
+        for (int row = 0; row < height; row ++) {
+            for (int column = 0; column < width; column ++) {
+                filled[row][column] = random.nextDouble() < DENSITY;
+            }
+        }
+
+        Puzzle.Builder<PicrossRule> puzzle = Puzzle.newBuilder(PICROSS, height, width);
+        for (int row = 0; row < height; row ++) {
+            puzzle.addRowRule(rule(filled[row]));
+        }
+        for (int column = 0; column < width; column ++) {
+            boolean[] line = new boolean[height];
+            for (int row = 0; row < height; row ++) {
+                line[row] = filled[row][column];
+            }
+            puzzle.addColumnRule(rule(line));
+        }
+
+        return puzzle.build();
+    }
+
+    private static PicrossRule rule(boolean[] line) {
+        ImmutableList.Builder<Integer> segments = ImmutableList.builder();
+        int run = 0;
+        for (int i = 0; i <= line.length; i ++) {
+            if (i < line.length && line[i]) {
+                run ++;
+            } else if (run > 0) {
+                segments.add(run);
+                run = 0;
+            }
+        }
+
+        ImmutableList<Integer> built = segments.build();
+        return new PicrossRule(built.isEmpty() ? ImmutableList.of(0) : built);
+    }
+}
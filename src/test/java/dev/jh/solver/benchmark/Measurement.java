@@ -0,0 +1,50 @@
+package dev.jh.solver.benchmark;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Objects;
+
+/**
+ * Measurement is what one puzzle cost to solve: the median solve time, the bytes allocated by a solve, and the number
+ * of times each approach was applied.
+ */
+final class Measurement {
+    /** Bytes allocated when the JVM can't measure allocations. */
+    static final long UNKNOWN = -1;
+
+    final long nanos;
+    final long bytes;
+    /** Calls by approach name. */
+    final ImmutableMap<String, Long> calls;
+
+    Measurement(long nanos, long bytes, ImmutableMap<String, Long> calls) {
+        this.nanos = nanos;
+        this.bytes = bytes;
+        this.calls = calls;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Measurement that = (Measurement) o;
+        return nanos == that.nanos &&
+                bytes == that.bytes &&
+                Objects.equals(calls, that.calls);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nanos, bytes, calls);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("micros", nanos / 1000)
+                .add("bytes", bytes)
+                .add("calls", calls)
+                .toString();
+    }
+}
@@ -0,0 +1,46 @@
+package dev.jh.solver.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SolverBenchmark solves the benchmark corpus and fails if it got slower, allocated more, or applied approaches more
+ * often than the stored baseline allows.  It isn't named like a test, so the normal build skips it - run it with
+ * 'mvn test -Pbenchmark'.
+ *
+ * The baseline is checked in at benchmark/baseline.txt.  Add '-Dbenchmark.update=true' to record a new one after an
+ * intended change, and commit it along with the change.
+ * The baseline file, warmups, iterations, and thresholds are set with system properties - see the benchmark profile
+ * and {@link Baseline.Thresholds#fromSystemProperties()}.
+ */
+public class SolverBenchmark {
+
+    @Test
+    public void noRegressions() throws Exception {
+        Path path = Path.of(System.getProperty("benchmark.baseline", "benchmark/baseline.txt"));
+        Benchmarker benchmarker = new Benchmarker(Integer.getInteger("benchmark.warmups", 10),
+                Integer.getInteger("benchmark.iterations", 10));
+
+        ImmutableMap<String, Measurement> run = benchmarker.measure(Corpus.load());
+        for (Map.Entry<String, Measurement> puzzle : run.entrySet()) {
+            System.out.println(puzzle.getKey() + ": " + puzzle.getValue());
+        }
+
+        if (Boolean.getBoolean("benchmark.update")) {
+            new Baseline(run).write(path);
+            System.out.println("Wrote baseline to " + path.toAbsolutePath());
+            return;
+        }
+
+        assertThat(path).as("No baseline - record one with -Dbenchmark.update=true").exists();
+        ImmutableList<String> regressions = Baseline.read(path)
+                .regressions(run, Baseline.Thresholds.fromSystemProperties());
+        assertThat(regressions).as("Regressions against " + path.toAbsolutePath()).isEmpty();
+    }
+}
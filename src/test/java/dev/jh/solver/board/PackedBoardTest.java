@@ -0,0 +1,135 @@
+package dev.jh.solver.board;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Grid;
+import dev.jh.solver.Square;
+import dev.jh.solver.line.PackedLine;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static dev.jh.solver.Square.EMPTY;
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PackedBoardTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void onHeap() {
+        assertSetAndGet(PackedBoard.onHeap(3, 70));
+    }
+
+    @Test
+    public void offHeap() {
+        assertSetAndGet(PackedBoard.offHeap(3, 70));
+    }
+
+    @Test
+    public void mapped() throws IOException {
+        assertSetAndGet(PackedBoard.mapped(folder.getRoot().toPath().resolve("board"), 3, 70));
+    }
+
+    @Test
+    public void mappedKeepsSquares() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("board");
+
+        Board board = PackedBoard.mapped(path, 2, 3);
+        board.set(0, 1, FILLED);
+        board.set(1, 2, GAP);
+        board.flush();
+
+        assertThat(PackedBoard.mapped(path, 2, 3).toGrid()).isEqualTo(Grid.parse(ImmutableList.of(
+                "2x3",
+                " . ",
+                "  x"
+        )).build());
+    }
+
+    @Test
+    public void copy() throws IOException {
+        Board board = PackedBoard.mapped(folder.getRoot().toPath().resolve("board"), 2, 3);
+        board.set(0, 1, FILLED);
+
+        Board copy = board.copy();
+        copy.set(1, 2, GAP);
+
+        assertThat(copy.toGrid()).isEqualTo(Grid.parse(ImmutableList.of(
+                "2x3",
+                " . ",
+                "  x"
+        )).build());
+        assertThat(board.get(1, 2)).isEqualTo(Square.EMPTY);
+    }
+
+    @Test(expected = IOException.class)
+    public void mappedDifferentSize() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("board");
+
+        PackedBoard.mapped(path, 2, 3);
+        PackedBoard.mapped(path, 3, 2);
+    }
+
+    @Test
+    public void columnsStayInSync() {
+        Board board = PackedBoard.onHeap(70, 130);
+        Square[] squares = Square.values();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 2000; i ++) {
+            board.set(random.nextInt(70), random.nextInt(130), squares[random.nextInt(squares.length)]);
+        }
+
+        for (int column = 0; column < 130; column ++) {
+            PackedLine expected = new PackedLine(70);
+            for (int row = 0; row < 70; row ++) {
+                expected.set(row, board.get(row, column));
+            }
+
+            assertThat(board.readColumn(column, new PackedLine(70))).isEqualTo(expected);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void setOutOfBounds() {
+        PackedBoard.onHeap(2, 2).set(2, 0, FILLED);
+    }
+
+    @Test
+    public void toGrid() {
+        Board board = PackedBoard.onHeap(2, 3);
+        board.set(0, 0, FILLED);
+        board.set(1, 1, GAP);
+
+        assertThat(board.toGrid()).isEqualTo(Grid.empty(2, 3)
+                .setSquare(0, 0, FILLED)
+                .setSquare(1, 1, GAP)
+                .build());
+    }
+
+    private void assertSetAndGet(Board board) {
+        board.set(0, 0, FILLED);
+        board.set(0, 64, GAP);
+        board.set(2, 69, FILLED);
+        board.set(2, 69, GAP);
+        board.set(1, 3, FILLED);
+        board.set(1, 3, EMPTY);
+
+        assertThat(board.get(0, 0)).isEqualTo(FILLED);
+        assertThat(board.get(0, 64)).isEqualTo(GAP);
+        assertThat(board.get(2, 69)).isEqualTo(GAP);
+        assertThat(board.get(1, 3)).isEqualTo(EMPTY);
+
+        assertThat(board.readRow(0, new PackedLine(70)))
+                .isEqualTo(new PackedLine(70).set(0, FILLED).set(64, GAP));
+        assertThat(board.readColumn(69, new PackedLine(3)))
+                .isEqualTo(PackedLine.parse("  x"));
+    }
+}
@@ -0,0 +1,74 @@
+package dev.jh.solver.event;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.PicrossSolver;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.rules.picross.PicrossRule;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static dev.jh.solver.PuzzleType.PICROSS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SolverEventsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void recordsSolverPhases() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("recording.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(SolveEvent.class);
+            recording.enable(PropagationRoundEvent.class);
+            recording.enable(LineSolveEvent.class);
+            recording.enable(ApproachEvent.class);
+            recording.start();
+
+            new PicrossSolver().solve(puzzle());
+
+            recording.stop();
+            recording.dump(path);
+        }
+
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(path).stream()
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+
+        RecordedEvent solve = events.get("dev.jh.solver.Solve").get(0);
+        assertThat(solve.getInt("height")).isEqualTo(2);
+        assertThat(solve.getInt("width")).isEqualTo(12);
+        assertThat(solve.getBoolean("solved")).isTrue();
+
+        assertThat(events.get("dev.jh.solver.PropagationRound")).isNotEmpty();
+
+        // Every square is changed by exactly one line.
+        assertThat(events.get("dev.jh.solver.LineSolve").stream().mapToLong(event -> event.getLong("cellsChanged")).sum())
+                .isEqualTo(24);
+
+        assertThat(events.get("dev.jh.solver.Approach"))
+                .extracting(event -> event.getString("approach"))
+                .contains("SEGMENT_RANGES", "LINE_TABLE", "FULL_LINE");
+    }
+
+    private static Puzzle<PicrossRule> puzzle() {
+        Puzzle.Builder<PicrossRule> puzzle = Puzzle.newBuilder(PICROSS, 2, 12);
+        puzzle.addRowRule(PicrossRule.forSegments(12));
+        puzzle.addRowRule(PicrossRule.forSegments(5, 6));
+        for (int column = 0; column < 12; column ++) {
+            puzzle.addColumnRule(PicrossRule.forSegments(column == 5 ? 1 : 2));
+        }
+
+        return puzzle.build();
+    }
+}
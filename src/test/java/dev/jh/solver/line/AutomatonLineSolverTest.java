@@ -0,0 +1,126 @@
+package dev.jh.solver.line;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Square;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AutomatonLineSolverTest {
+
+    @Test
+    public void solve() {
+        assertThat(solve(PicrossRule.forSegments(4), "     ")).isEqualTo(" ... ");
+        assertThat(solve(PicrossRule.forSegments(1, 1), "x .  ")).isEqualTo("xx.x.");
+        assertThat(solve(PicrossRule.forSegments(2), ".    ")).isEqualTo("..xxx");
+        assertThat(solve(PicrossRule.forSegments(0), "     ")).isEqualTo("xxxxx");
+    }
+
+    @Test
+    public void contradiction() {
+        PackedLine line = PackedLine.parse(".x.  ");
+
+        assertThat(new AutomatonLineSolver().solve(PicrossRule.forSegments(3), line)).isFalse();
+        assertThat(line).isEqualTo(PackedLine.parse(".x.  "));
+    }
+
+    @Test
+    public void sharedAutomata() {
+        RuleAutomaton automaton = RuleAutomaton.of(PicrossRule.forSegments(2, 1));
+
+        assertThat(RuleAutomaton.of(new PicrossRule(ImmutableList.of(2, 1)))).isSameAs(automaton);
+
+        // '.' '.' 'x' '.' - GAPs loop before the first segment, after the separating GAP, and at the end.
+        assertThat(automaton.states()).isEqualTo(5);
+        assertThat(automaton.next(0, GAP)).isEqualTo(0);
+        assertThat(automaton.next(0, FILLED)).isEqualTo(1);
+        assertThat(automaton.next(1, GAP)).isEqualTo(-1);
+        assertThat(automaton.next(2, FILLED)).isEqualTo(-1);
+        assertThat(automaton.next(2, GAP)).isEqualTo(3);
+        assertThat(automaton.next(3, GAP)).isEqualTo(3);
+        assertThat(automaton.next(4, GAP)).isEqualTo(4);
+        assertThat(automaton.next(4, FILLED)).isEqualTo(-1);
+    }
+
+    @Test
+    public void matchesLineTables() {
+        // Line tables intersect every placement of the rule, so they're complete for short lines too.
+        Random random = new Random(49);
+        AutomatonLineSolver solver = new AutomatonLineSolver();
+        Square[] squares = Square.values();
+
+        for (int i = 0; i < 20_000; i ++) {
+            int length = 1 + random.nextInt(LineTable.MAX_LENGTH);
+            PicrossRule rule = randomRule(random, length);
+            PackedLine line = new PackedLine(length);
+            for (int square = 0; square < length; square ++) {
+                line.set(square, random.nextInt(3) == 0 ? squares[1 + random.nextInt(2)] : Square.EMPTY);
+            }
+
+            PackedLine expected = line.copy();
+            PackedLine actual = line.copy();
+            boolean placeable = LineTable.of(rule, length).solve(expected);
+
+            assertThat(solver.solve(rule, actual)).describedAs("%s %s", rule, line).isEqualTo(placeable);
+            assertThat(actual).describedAs("%s %s", rule, line).isEqualTo(placeable ? expected : line);
+        }
+    }
+
+    @Test
+    public void longLines() {
+        PackedLine line = new PackedLine(130);
+        line.set(1, FILLED);
+
+        assertThat(new AutomatonLineSolver().solve(PicrossRule.forSegments(3, 120), line)).isTrue();
+
+        // The 3 can only start at 0 or 1, and the 120 covers everything its left-most and right-most starts share.
+        assertThat(line.get(0)).isEqualTo(Square.EMPTY);
+        assertThat(line.get(2)).isEqualTo(FILLED);
+        assertThat(line.get(9)).isEqualTo(Square.EMPTY);
+        assertThat(line.get(124)).isEqualTo(Square.EMPTY);
+        for (int square = 10; square < 124; square ++) {
+            assertThat(line.get(square)).describedAs("square %s", square).isEqualTo(FILLED);
+        }
+    }
+
+    @Test
+    public void batchContradiction() {
+        assertThatThrownBy(() -> new AutomatonLineSolver().solve(
+                ImmutableList.of(PicrossRule.forSegments(3)), ImmutableList.of(PackedLine.parse(".x.  "))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static String solve(PicrossRule rule, String line) {
+        PackedLine packed = PackedLine.parse(line);
+        assertThat(new AutomatonLineSolver().solve(rule, packed)).isTrue();
+
+        StringBuilder solved = new StringBuilder();
+        for (int i = 0; i < packed.length; i ++) {
+            solved.append(packed.get(i).name);
+        }
+
+        return solved.toString();
+    }
+
+    private static PicrossRule randomRule(Random random, int length) {
+        ImmutableList.Builder<Integer> segments = ImmutableList.builder();
+        int run = 0;
+        for (int i = 0; i <= length; i ++) {
+            if (i < length && random.nextBoolean()) {
+                run ++;
+            } else if (run > 0) {
+                segments.add(run);
+                run = 0;
+            }
+        }
+
+        ImmutableList<Integer> built = segments.build();
+        return new PicrossRule(built.isEmpty() ? ImmutableList.of(0) : built);
+    }
+}
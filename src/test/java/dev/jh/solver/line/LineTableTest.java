@@ -0,0 +1,163 @@
+package dev.jh.solver.line;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Square;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LineTableTest {
+
+    @Test
+    public void solve() {
+        assertThat(solve(PicrossRule.forSegments(4), "     ")).isEqualTo(" ... ");
+        assertThat(solve(PicrossRule.forSegments(1, 1), "x .  ")).isEqualTo("xx.x.");
+        assertThat(solve(PicrossRule.forSegments(2), ".    ")).isEqualTo("..xxx");
+    }
+
+    @Test
+    public void filledSquaresPinSegments() {
+        assertThat(solve(PicrossRule.forSegments(1, 1), " .  .")).isEqualTo("x.xx.");
+        assertThat(solve(PicrossRule.forSegments(2), " .   ")).isEqualTo(" . xx");
+    }
+
+    @Test
+    public void contradiction() {
+        PackedLine line = PackedLine.parse(".x.  ");
+
+        assertThat(LineTable.of(PicrossRule.forSegments(3), 5).solve(line)).isFalse();
+        assertThat(line).isEqualTo(PackedLine.parse(".x.  "));
+    }
+
+    @Test
+    public void shared() {
+        assertThat(LineTable.of(PicrossRule.forSegments(1, 2), 7))
+                .isSameAs(LineTable.of(new PicrossRule(ImmutableList.of(1, 2)), 7));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        // Every rule that fits on lines of 10 and 9 squares makes over twice as many entries as are shared.
+        PicrossRule first = PicrossRule.forSegments(LineTable.MAX_LENGTH);
+        LineTable table = LineTable.of(first, LineTable.MAX_LENGTH);
+
+        for (int length = LineTable.MAX_LENGTH; length >= LineTable.MAX_LENGTH - 1; length --) {
+            Set<PicrossRule> rules = new HashSet<>();
+            for (int mask = 1; mask < 1 << length; mask ++) {
+                PackedLine line = new PackedLine(length);
+                for (int i = 0; i < length; i ++) {
+                    line.set(i, (mask & (1 << i)) != 0 ? FILLED : GAP);
+                }
+
+                PicrossRule rule = new PicrossRule(runs(line));
+                if (!rule.equals(first) && rules.add(rule)) {
+                    LineTable.of(rule, length);
+                }
+            }
+        }
+
+        assertThat(LineTable.of(first, LineTable.MAX_LENGTH)).isNotSameAs(table);
+    }
+
+    @Test
+    public void tooLong() {
+        assertThatThrownBy(() -> LineTable.of(PicrossRule.forSegments(1), LineTable.MAX_LENGTH + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void matchesEveryPlacement() {
+        // Every line of length 6, compared with brute force over every FILLED and GAP assignment.
+        ImmutableList<PicrossRule> rules = ImmutableList.of(
+                PicrossRule.forSegments(6),
+                PicrossRule.forSegments(3, 2),
+                PicrossRule.forSegments(2, 1),
+                PicrossRule.forSegments(1),
+                PicrossRule.forSegments(1, 1, 1)
+        );
+        Square[] squares = Square.values();
+
+        for (PicrossRule rule : rules) {
+            LineTable table = LineTable.of(rule, 6);
+
+            for (int permutation = 0; permutation < 729; permutation ++) {
+                PackedLine line = new PackedLine(6);
+                for (int i = 0, remaining = permutation; i < 6; i ++, remaining /= 3) {
+                    line.set(i, squares[remaining % 3]);
+                }
+
+                PackedLine expected = bruteForce(rule, line);
+                PackedLine actual = line.copy();
+
+                assertThat(table.solve(actual)).describedAs("%s %s", rule, line).isEqualTo(expected != null);
+                if (expected != null) {
+                    assertThat(actual).describedAs("%s %s", rule, line).isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    private static PackedLine bruteForce(PicrossRule rule, PackedLine line) {
+        PackedLine result = null;
+
+        for (int assignment = 0; assignment < 1 << line.length; assignment ++) {
+            PackedLine candidate = new PackedLine(line.length);
+            boolean agrees = true;
+            for (int i = 0; i < line.length; i ++) {
+                Square square = (assignment & (1 << i)) != 0 ? FILLED : GAP;
+                agrees &= line.get(i) == Square.EMPTY || line.get(i) == square;
+                candidate.set(i, square);
+            }
+
+            if (!agrees || !runs(candidate).equals(rule.segments)) {
+                continue;
+            }
+
+            if (result == null) {
+                result = candidate;
+            } else {
+                for (int i = 0; i < line.length; i ++) {
+                    if (result.get(i) != candidate.get(i)) {
+                        result.set(i, Square.EMPTY);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static ImmutableList<Integer> runs(PackedLine line) {
+        ImmutableList.Builder<Integer> runs = ImmutableList.builder();
+        int run = 0;
+        for (int i = 0; i <= line.length; i ++) {
+            if (i < line.length && line.get(i) == FILLED) {
+                run ++;
+            } else if (run > 0) {
+                runs.add(run);
+                run = 0;
+            }
+        }
+
+        return runs.build();
+    }
+
+    private static String solve(PicrossRule rule, String line) {
+        PackedLine packed = PackedLine.parse(line);
+        assertThat(LineTable.of(rule, packed.length).solve(packed)).isTrue();
+
+        StringBuilder solved = new StringBuilder();
+        for (int i = 0; i < packed.length; i ++) {
+            solved.append(packed.get(i).name);
+        }
+
+        return solved.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package dev.jh.solver.line;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Square;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PackedBatchLineSolverTest {
+
+    private static final BatchLineSolver SOLVER = new PackedBatchLineSolver();
+
+    @Test
+    public void overlap() {
+        assertThat(solve(PicrossRule.forSegments(4), "     ")).isEqualTo(" ... ");
+        assertThat(solve(PicrossRule.forSegments(3, 1, 2), "          ")).isEqualTo("  .       ");
+    }
+
+    @Test
+    public void unreachableSquaresAreGaps() {
+        assertThat(solve(PicrossRule.forSegments(2), ".    ")).isEqualTo("..xxx");
+        assertThat(solve(PicrossRule.forSegments(1, 1), "x .  ")).isEqualTo("xx.x.");
+        assertThat(solve(PicrossRule.forSegments(3), " x   ")).isEqualTo("xx...");
+    }
+
+    @Test
+    public void solvedLineDoesNotChange() {
+        List<PackedLine> lines = ImmutableList.of(PackedLine.parse("..x.x"));
+        assertThat(SOLVER.solve(ImmutableList.of(PicrossRule.forSegments(2, 1)), lines)).isEqualTo(0);
+        assertThat(lines.get(0)).isEqualTo(PackedLine.parse("..x.x"));
+    }
+
+    @Test
+    public void longLines() {
+        // Line spans several words - a 100 segment on a 130 square line always fills squares 30-99.
+        String expected = Strings.repeat(" ", 30) + Strings.repeat(".", 70) + Strings.repeat(" ", 30);
+        assertThat(solve(PicrossRule.forSegments(100), Strings.repeat(" ", 130))).isEqualTo(expected);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void contradiction() {
+        solve(PicrossRule.forSegments(3), ".x.  ");
+    }
+
+    @Test
+    public void matchesScalar() {
+        // Every line of length 6 with EMPTY, FILLED, and GAP squares, solved with each rule as one batch.
+        ImmutableList<PicrossRule> allRules = ImmutableList.of(
+                PicrossRule.forSegments(6),
+                PicrossRule.forSegments(4),
+                PicrossRule.forSegments(3, 2),
+                PicrossRule.forSegments(2, 2),
+                PicrossRule.forSegments(2, 1),
+                PicrossRule.forSegments(1),
+                PicrossRule.forSegments(1, 3),
+                PicrossRule.forSegments(1, 1, 1)
+        );
+
+        Square[] squares = Square.values();
+        BatchLineSolver scalar = new ScalarBatchLineSolver();
+
+        for (PicrossRule rule : allRules) {
+            List<PicrossRule> rules = new ArrayList<>();
+            List<PackedLine> packedLines = new ArrayList<>();
+            List<PackedLine> scalarLines = new ArrayList<>();
+
+            for (int permutation = 0; permutation < 729; permutation ++) {
+                PackedLine line = new PackedLine(6);
+                for (int i = 0, remaining = permutation; i < 6; i ++, remaining /= 3) {
+                    line.set(i, squares[remaining % 3]);
+                }
+
+                if (isPlaceable(rule, line)) {
+                    rules.add(rule);
+                    packedLines.add(line);
+                    scalarLines.add(line.copy());
+                }
+            }
+
+            assertThat(SOLVER.solve(rules, packedLines)).isEqualTo(scalar.solve(rules, scalarLines));
+            assertThat(packedLines).describedAs("rule: %s", rule).isEqualTo(scalarLines);
+        }
+    }
+
+    private static boolean isPlaceable(PicrossRule rule, PackedLine line) {
+        return new Placements().place(rule, line);
+    }
+
+    private static String solve(PicrossRule rule, String line) {
+        PackedLine packed = PackedLine.parse(line);
+        SOLVER.solve(ImmutableList.of(rule), ImmutableList.of(packed));
+
+        StringBuilder solved = new StringBuilder();
+        for (int i = 0; i < packed.length; i ++) {
+            solved.append(packed.get(i).name);
+        }
+
+        return solved.toString();
+    }
+}
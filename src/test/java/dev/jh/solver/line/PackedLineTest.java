@@ -0,0 +1,76 @@
+package dev.jh.solver.line;
+
+import dev.jh.solver.Grid;
+import org.junit.Test;
+
+import static dev.jh.solver.Square.EMPTY;
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PackedLineTest {
+
+    private static final Grid EMPTY_5x5 = Grid.empty(5, 5).build();
+
+    @Test
+    public void setAndGet() {
+        PackedLine line = new PackedLine(70)
+                .set(0, FILLED)
+                .set(63, GAP)
+                .set(64, FILLED)
+                .set(69, GAP);
+
+        assertThat(line.get(0)).isEqualTo(FILLED);
+        assertThat(line.get(1)).isEqualTo(EMPTY);
+        assertThat(line.get(63)).isEqualTo(GAP);
+        assertThat(line.get(64)).isEqualTo(FILLED);
+        assertThat(line.get(69)).isEqualTo(GAP);
+    }
+
+    @Test
+    public void setOverwrites() {
+        PackedLine line = new PackedLine(3)
+                .set(1, FILLED)
+                .set(1, GAP);
+
+        assertThat(line).isEqualTo(PackedLine.parse(" x "));
+        assertThat(line.set(1, EMPTY)).isEqualTo(new PackedLine(3));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void setOutOfBounds() {
+        new PackedLine(3).set(3, FILLED);
+    }
+
+    @Test
+    public void isSolved() {
+        assertThat(PackedLine.parse(".x.").isSolved()).isTrue();
+        assertThat(PackedLine.parse(". .").isSolved()).isFalse();
+    }
+
+    @Test
+    public void copyFrom() {
+        PackedLine line = PackedLine.parse("..x ");
+
+        assertThat(line.copyFrom(PackedLine.parse(" x.."))).isEqualTo(PackedLine.parse(" x.."));
+        assertThatThrownBy(() -> line.copyFrom(new PackedLine(3))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void roundTripLine() {
+        PackedLine packed = PackedLine.of(EMPTY_5x5.row(2).parse(". x ."));
+
+        assertThat(packed).isEqualTo(PackedLine.parse(". x ."));
+        assertThat(packed.writeTo(EMPTY_5x5.row(2))).isEqualTo(EMPTY_5x5.row(2).parse(". x ."));
+    }
+
+    @Test
+    public void copy() {
+        PackedLine original = PackedLine.parse(". x");
+        PackedLine copy = original.copy().set(1, FILLED);
+
+        assertThat(original).isEqualTo(PackedLine.parse(". x"));
+        assertThat(copy).isEqualTo(PackedLine.parse("..x"));
+    }
+}
@@ -0,0 +1,41 @@
+package dev.jh.solver.line;
+
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PlacementsTest {
+
+    @Test
+    public void countsPlacements() {
+        Placements placements = new Placements();
+
+        assertThat(placements.count(PicrossRule.forSegments(1), PackedLine.parse("     "))).isEqualTo(5);
+        assertThat(placements.count(PicrossRule.forSegments(1, 1), PackedLine.parse("     "))).isEqualTo(6);
+        assertThat(placements.count(PicrossRule.forSegments(5), PackedLine.parse("     "))).isEqualTo(1);
+        assertThat(placements.count(PicrossRule.forSegments(0), PackedLine.parse("     "))).isEqualTo(1);
+    }
+
+    @Test
+    public void countsPlacementsConsistentWithSquares() {
+        Placements placements = new Placements();
+
+        assertThat(placements.count(PicrossRule.forSegments(2), PackedLine.parse(" x   "))).isEqualTo(2);
+        assertThat(placements.count(PicrossRule.forSegments(1, 1), PackedLine.parse("  .  "))).isEqualTo(2);
+        assertThat(placements.count(PicrossRule.forSegments(0), PackedLine.parse("  .  "))).isZero();
+        assertThat(placements.count(PicrossRule.forSegments(3), PackedLine.parse(".   ."))).isZero();
+    }
+
+    @Test
+    public void saturates() {
+        // C(151, 50) placements of 50 single squares on a 200 square line.
+        int[] segments = new int[50];
+        Arrays.fill(segments, 1);
+
+        assertThat(new Placements().count(PicrossRule.forSegments(segments), PackedLine.parse(" ".repeat(200))))
+                .isEqualTo(Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,119 @@
+package dev.jh.solver.line;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Square;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import static dev.jh.solver.Square.FILLED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SegmentRangesTest {
+
+    @Test
+    public void initialRanges() {
+        SegmentRanges ranges = new SegmentRanges(PicrossRule.forSegments(3, 1, 2), 10);
+
+        assertThat(ranges.count()).isEqualTo(3);
+        assertRange(ranges, 0, 0, 2);
+        assertRange(ranges, 1, 4, 6);
+        assertRange(ranges, 2, 6, 8);
+    }
+
+    @Test
+    public void gapsPushRanges() {
+        SegmentRanges ranges = new SegmentRanges(PicrossRule.forSegments(2, 1), 8);
+
+        assertThat(ranges.tighten(PackedLine.parse(" x   x  "))).isTrue();
+        assertRange(ranges, 0, 2, 3);
+        assertRange(ranges, 1, 6, 7);
+    }
+
+    @Test
+    public void filledSquaresPullRanges() {
+        SegmentRanges ranges = new SegmentRanges(PicrossRule.forSegments(2), 8);
+
+        assertThat(ranges.tighten(PackedLine.parse("    .   "))).isTrue();
+        assertRange(ranges, 0, 3, 4);
+    }
+
+    @Test
+    public void tightensIncrementally() {
+        SegmentRanges ranges = new SegmentRanges(PicrossRule.forSegments(1, 1), 6);
+        PackedLine line = new PackedLine(6);
+
+        assertThat(ranges.tighten(line)).isTrue();
+        assertRange(ranges, 0, 0, 3);
+
+        // Segment 0 has to cover the FILLED square, since segment 1 can't without leaving segment 0 no room.
+        assertThat(ranges.tighten(line.set(1, FILLED))).isTrue();
+        assertRange(ranges, 0, 1, 1);
+        assertRange(ranges, 1, 3, 5);
+    }
+
+    @Test
+    public void contradiction() {
+        assertThat(new SegmentRanges(PicrossRule.forSegments(3), 5).tighten(PackedLine.parse(" x x "))).isFalse();
+        assertThat(new SegmentRanges(PicrossRule.forSegments(1), 5).tighten(PackedLine.parse(".   ."))).isFalse();
+        assertThat(new SegmentRanges(PicrossRule.forSegments(3, 3), 5).tighten(new PackedLine(5))).isFalse();
+    }
+
+    @Test
+    public void copy() {
+        SegmentRanges original = new SegmentRanges(PicrossRule.forSegments(2), 5);
+        SegmentRanges copy = original.copy();
+
+        assertThat(copy.tighten(PackedLine.parse("x x  "))).isTrue();
+        assertRange(copy, 0, 3, 3);
+        assertRange(original, 0, 0, 3);
+    }
+
+    @Test
+    public void rangesContainPlacements() {
+        // Ranges are conservative, so they should always contain the left-most and right-most placements.
+        ImmutableList<PicrossRule> allRules = ImmutableList.of(
+                PicrossRule.forSegments(4),
+                PicrossRule.forSegments(3, 2),
+                PicrossRule.forSegments(2, 2),
+                PicrossRule.forSegments(1),
+                PicrossRule.forSegments(1, 3),
+                PicrossRule.forSegments(1, 1, 1)
+        );
+
+        Square[] squares = Square.values();
+        Placements placements = new Placements();
+
+        for (PicrossRule rule : allRules) {
+            for (int permutation = 0; permutation < 729; permutation ++) {
+                PackedLine line = new PackedLine(6);
+                for (int i = 0, remaining = permutation; i < 6; i ++, remaining /= 3) {
+                    line.set(i, squares[remaining % 3]);
+                }
+
+                SegmentRanges ranges = new SegmentRanges(rule, 6);
+                boolean placeable = placements.place(rule, line);
+
+                if (!ranges.tighten(line)) {
+                    assertThat(placeable).describedAs("%s on %s", rule, line).isFalse();
+                    continue;
+                }
+
+                if (placeable) {
+                    for (int segment = 0; segment < ranges.count(); segment ++) {
+                        assertThat(ranges.earliest(segment))
+                                .describedAs("%s on %s", ranges, line)
+                                .isLessThanOrEqualTo(placements.left(segment));
+                        assertThat(ranges.latest(segment))
+                                .describedAs("%s on %s", ranges, line)
+                                .isGreaterThanOrEqualTo(placements.right(segment));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void assertRange(SegmentRanges ranges, int segment, int earliest, int latest) {
+        assertThat(ranges.earliest(segment)).describedAs("segment %d earliest", segment).isEqualTo(earliest);
+        assertThat(ranges.latest(segment)).describedAs("segment %d latest", segment).isEqualTo(latest);
+    }
+}
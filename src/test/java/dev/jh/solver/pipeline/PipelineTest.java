@@ -0,0 +1,72 @@
+package dev.jh.solver.pipeline;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Grid;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PipelineTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void solvesEveryPuzzle() throws Exception {
+        Path puzzles = Path.of(PipelineTest.class.getResource("/picross/puzzles/").toURI());
+        Path solutions = Path.of(PipelineTest.class.getResource("/picross/solutions/").toURI());
+        Path output = folder.newFolder("output").toPath();
+
+        FileSink.Summary summary = Pipeline.newBuilder()
+                .solveParallelism(2)
+                .bufferCapacity(1)
+                .build()
+                .run(puzzles, output)
+                .get();
+
+        List<Path> files = list(puzzles);
+        assertThat(summary.solved).isEqualTo(files.size());
+        assertThat(summary.failed).isZero();
+
+        for (Path puzzle : files) {
+            String name = puzzle.getFileName().toString();
+            assertThat(read(output.resolve(name))).isEqualTo(read(solutions.resolve(name)));
+        }
+    }
+
+    @Test
+    public void writesErrors() throws Exception {
+        Path input = folder.newFolder("input").toPath();
+        Path output = folder.newFolder("output").toPath();
+
+        Files.write(input.resolve("invalid"), ImmutableList.of("2 by 2"));
+        Files.write(input.resolve("unsolvable"), ImmutableList.of("2x2", "2", "2", "1", "1"));
+        Files.write(input.resolve("valid"), ImmutableList.of("1x2", "2", "1", "1"));
+
+        FileSink.Summary summary = Pipeline.newBuilder().build().run(input, output).get();
+
+        assertThat(summary.solved).isEqualTo(1);
+        assertThat(summary.failed).isEqualTo(2);
+        assertThat(Files.readString(output.resolve("invalid.error"))).startsWith("Invalid puzzle");
+        assertThat(Files.readString(output.resolve("unsolvable.error"))).isEqualTo("Puzzle has no solution.");
+        assertThat(Files.readAllLines(output.resolve("valid"))).containsExactly("1x2", "..");
+    }
+
+    private static List<Path> list(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    private static Grid read(Path solution) throws Exception {
+        return Grid.parse(ImmutableList.copyOf(Files.readAllLines(solution))).build();
+    }
+}
@@ -0,0 +1,142 @@
+package dev.jh.solver.pipeline;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StageTest {
+
+    @Test
+    public void transformsEveryItem() throws Exception {
+        ExecutorService delivery = Executors.newCachedThreadPool();
+        try {
+            SubmissionPublisher<Integer> source = new SubmissionPublisher<>(delivery, 4);
+            Stage<Integer, Integer> stage = new Stage<>("double", i -> i * 2, 3, 4, delivery);
+            Collector collector = new Collector(Long.MAX_VALUE);
+
+            source.subscribe(stage);
+            stage.subscribe(collector);
+            for (int i = 0; i < 100; i ++) {
+                source.submit(i);
+            }
+            source.close();
+
+            assertThat(collector.done.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(collector.items).hasSize(100);
+            assertThat(collector.items.stream().mapToInt(Integer::intValue).sum()).isEqualTo(99 * 100);
+        } finally {
+            delivery.shutdownNow();
+        }
+    }
+
+    @Test
+    public void slowDownstreamHoldsBackUpstream() throws Exception {
+        ExecutorService delivery = Executors.newCachedThreadPool();
+        try {
+            CountingPublisher source = new CountingPublisher();
+            Stage<Integer, Integer> stage = new Stage<>("identity", i -> i, 2, 4, delivery);
+            // Takes a single item and never asks for more.
+            Collector collector = new Collector(1);
+
+            source.subscribe(stage);
+            stage.subscribe(collector);
+            Thread.sleep(200);
+
+            // Two items in progress, a full output buffer, and the item the collector took - give or take the
+            // requests of workers blocked on the buffer.
+            assertThat(source.requested.get()).isLessThanOrEqualTo(2 + 4 + 1 + 2);
+        } finally {
+            delivery.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failurePropagatesDownstream() throws Exception {
+        ExecutorService delivery = Executors.newCachedThreadPool();
+        try {
+            SubmissionPublisher<Integer> source = new SubmissionPublisher<>(delivery, 4);
+            Stage<Integer, Integer> stage = new Stage<>("failing", i -> {
+                throw new IllegalStateException("boom");
+            }, 1, 4, delivery);
+            Collector collector = new Collector(Long.MAX_VALUE);
+
+            source.subscribe(stage);
+            stage.subscribe(collector);
+            source.submit(1);
+
+            assertThat(collector.done.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(collector.error).isInstanceOf(IllegalStateException.class);
+        } finally {
+            delivery.shutdownNow();
+        }
+    }
+
+    /**
+     * Publishes an endless sequence of items, counting how many are requested.
+     */
+    private static final class CountingPublisher implements Flow.Publisher<Integer> {
+        private final AtomicLong requested = new AtomicLong();
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super Integer> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private int next;
+
+                @Override
+                public synchronized void request(long n) {
+                    requested.addAndGet(n);
+                    for (long i = 0; i < n; i ++) {
+                        subscriber.onNext(next ++);
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+        }
+    }
+
+    private static final class Collector implements Flow.Subscriber<Integer> {
+        private final long demand;
+        private final List<Integer> items = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Throwable error;
+
+        private Collector(long demand) {
+            this.demand = demand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(demand);
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
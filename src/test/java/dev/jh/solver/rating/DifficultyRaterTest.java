@@ -0,0 +1,99 @@
+package dev.jh.solver.rating;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.SolutionVerifier;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import static dev.jh.solver.PuzzleType.PICROSS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DifficultyRaterTest {
+    /** Every line is full or empty. */
+    private static final Puzzle<PicrossRule> FULL_LINES = Puzzle.<PicrossRule>newBuilder(PICROSS, 3, 3)
+            .addRowRule(PicrossRule.forSegments(3))
+            .addRowRule(PicrossRule.forSegments(0))
+            .addRowRule(PicrossRule.forSegments(3))
+            .addColumnRule(PicrossRule.forSegments(1, 1))
+            .addColumnRule(PicrossRule.forSegments(1, 1))
+            .addColumnRule(PicrossRule.forSegments(1, 1))
+            .build();
+
+    /** Needs overlaps and more than one round to finish. */
+    private static final Puzzle<PicrossRule> OVERLAPS = Puzzle.<PicrossRule>newBuilder(PICROSS, 5, 5)
+            .addRowRule(PicrossRule.forSegments(4))
+            .addRowRule(PicrossRule.forSegments(1, 1))
+            .addRowRule(PicrossRule.forSegments(1, 2))
+            .addRowRule(PicrossRule.forSegments(1))
+            .addRowRule(PicrossRule.forSegments(4))
+            .addColumnRule(PicrossRule.forSegments(3, 1))
+            .addColumnRule(PicrossRule.forSegments(1, 1))
+            .addColumnRule(PicrossRule.forSegments(1, 3))
+            .addColumnRule(PicrossRule.forSegments(1, 1, 1))
+            .addColumnRule(PicrossRule.forSegments(1))
+            .build();
+
+    /** Two single squares on a diagonal - line solving can't tell which diagonal. */
+    private static final Puzzle<PicrossRule> AMBIGUOUS = Puzzle.<PicrossRule>newBuilder(PICROSS, 2, 2)
+            .addRowRule(PicrossRule.forSegments(1))
+            .addRowRule(PicrossRule.forSegments(1))
+            .addColumnRule(PicrossRule.forSegments(1))
+            .addColumnRule(PicrossRule.forSegments(1))
+            .build();
+
+    @Test
+    public void fullLines() {
+        Rating rating = new DifficultyRater().rate(FULL_LINES);
+
+        assertThat(new SolutionVerifier().verify(FULL_LINES, rating.solution)).isEmpty();
+        assertThat(rating.squares).containsOnlyKeys("FULL_LINE_WITH_GAPS", "COMPLETED_LINE");
+        assertThat(rating.searched()).isFalse();
+    }
+
+    @Test
+    public void harderApproachesScoreHigher() {
+        DifficultyRater rater = new DifficultyRater();
+        Rating easy = rater.rate(FULL_LINES);
+        Rating harder = rater.rate(OVERLAPS);
+
+        assertThat(new SolutionVerifier().verify(OVERLAPS, harder.solution)).isEmpty();
+        assertThat(harder.squares).containsKey("OVERLAP");
+        assertThat(harder.rounds).isGreaterThan(easy.rounds);
+        assertThat(harder.score).isGreaterThan(easy.score);
+    }
+
+    @Test
+    public void searchScoresHighest() {
+        DifficultyRater rater = new DifficultyRater();
+        Rating searched = rater.rate(AMBIGUOUS);
+
+        assertThat(searched.searched()).isTrue();
+        assertThat(searched.score).isGreaterThan(rater.rate(OVERLAPS).score);
+    }
+
+    @Test
+    public void rateAll() {
+        DifficultyRater rater = new DifficultyRater();
+        ImmutableList<Rating> ratings = rater.rateAll(ImmutableList.of(FULL_LINES, OVERLAPS, AMBIGUOUS));
+
+        assertThat(ratings).extracting(rating -> rating.score).containsExactly(
+                rater.rate(FULL_LINES).score,
+                rater.rate(OVERLAPS).score,
+                rater.rate(AMBIGUOUS).score);
+    }
+
+    @Test
+    public void noSolution() {
+        Puzzle<PicrossRule> puzzle = Puzzle.<PicrossRule>newBuilder(PICROSS, 2, 2)
+                .addRowRule(PicrossRule.forSegments(2))
+                .addRowRule(PicrossRule.forSegments(2))
+                .addColumnRule(PicrossRule.forSegments(1))
+                .addColumnRule(PicrossRule.forSegments(1))
+                .build();
+
+        assertThatThrownBy(() -> new DifficultyRater().rate(puzzle))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
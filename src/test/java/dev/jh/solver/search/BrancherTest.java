@@ -0,0 +1,88 @@
+package dev.jh.solver.search;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Grid;
+import dev.jh.solver.Propagator;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.Square;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static dev.jh.solver.search.SearchTest.propagator;
+import static dev.jh.solver.search.SearchTest.puzzle;
+import static dev.jh.solver.search.SearchTest.randomPuzzle;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BrancherTest {
+    private static final ImmutableList<Brancher> BRANCHERS = ImmutableList.of(
+            new MostConstrainedLineBrancher(),
+            new ProbingBrancher(20),
+            new RegionEdgeBrancher());
+
+    @Test
+    public void everyBrancherFindsTheSameSolutions() {
+        Random random = new Random(40);
+        for (int i = 0; i < 30; i ++) {
+            Puzzle<PicrossRule> puzzle = randomPuzzle(random, 7, 7);
+            Set<Grid> expected = new Search(propagator(puzzle), () -> false).stream().collect(Collectors.toSet());
+
+            for (Brancher brancher : BRANCHERS) {
+                Search search = new Search(propagator(puzzle), () -> false).useBrancher(brancher);
+
+                assertThat(search.stream().collect(Collectors.toSet())).as(brancher.toString()).isEqualTo(expected);
+                assertThat(search.statistics().nodes()).isGreaterThanOrEqualTo(search.statistics().decisions());
+            }
+        }
+    }
+
+    @Test
+    public void mostConstrainedLine() {
+        // The first row can hold its segment 3 ways, and every other line 4 ways or more.
+        Propagator propagator = propagator(puzzle("2,1,1,1", "1,1,1,1"));
+        propagator.propagate();
+
+        assertThat(new MostConstrainedLineBrancher().choose(propagator)).isEqualTo(0);
+    }
+
+    @Test
+    public void regionEdge() {
+        Propagator propagator = propagator(puzzle("1,1,1,1", "1,1,1,1"));
+        propagator.propagate();
+        propagator.assume(1, 1, Square.FILLED);
+        propagator.propagate();
+
+        // Squares in the first row next to the decided column, and with the edge above, come first.
+        assertThat(new RegionEdgeBrancher().choose(propagator)).isEqualTo(0);
+    }
+
+    @Test
+    public void probingPrefersForcedSquares() {
+        Propagator propagator = propagator(puzzle("1,1,1,1", "1,1,1,1"));
+        propagator.propagate();
+        Propagator.Mark mark = propagator.mark();
+
+        // Every branch here decides the same number of squares, so the first square wins.
+        assertThat(new ProbingBrancher(16).choose(propagator)).isEqualTo(0);
+
+        // Probing leaves the propagator as it found it.
+        propagator.undo(mark);
+        assertThat(propagator.board().get(0, 0)).isEqualTo(Square.EMPTY);
+        assertThat(SearchTest.propagator(puzzle("1,1,1,1", "1,1,1,1")).board().toGrid())
+                .isEqualTo(propagator.board().toGrid());
+    }
+
+    @Test
+    public void fullBoard() {
+        Propagator propagator = propagator(puzzle("3,1 1,3", "3,1 1,3"));
+        propagator.propagate();
+
+        assertThat(Brancher.FIRST_UNDECIDED.choose(propagator)).isEqualTo(-1);
+        for (Brancher brancher : BRANCHERS) {
+            assertThat(brancher.choose(propagator)).isEqualTo(-1);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package dev.jh.solver.search;
+
+import dev.jh.solver.Grid;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static dev.jh.solver.search.SearchTest.propagator;
+import static dev.jh.solver.search.SearchTest.puzzle;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CheckpointTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writeAndRead() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("checkpoint");
+        Checkpoint checkpoint = new Checkpoint(42L, new int[]{3, ~7, 12});
+
+        checkpoint.write(path);
+
+        assertThat(Checkpoint.read(path)).isEqualTo(checkpoint);
+        assertThat(Files.exists(path.resolveSibling("checkpoint.tmp"))).isFalse();
+    }
+
+    @Test
+    public void resumeFindsRemainingSolutions() {
+        Puzzle<PicrossRule> puzzle = puzzle("1,1,1,1", "1,1,1,1");
+        Search search = new Search(propagator(puzzle), () -> false);
+
+        Set<Grid> solutions = new HashSet<>();
+        for (int i = 0; i < 5; i ++) {
+            solutions.add(search.next().get());
+        }
+
+        // Resuming finds the last solution again, then the rest.
+        Search resumed = Search.resume(propagator(puzzle), search.checkpoint(), () -> false, s -> {});
+        assertThat(solutions).contains(resumed.next().get());
+
+        for (Optional<Grid> solution = resumed.next(); solution.isPresent(); solution = resumed.next()) {
+            assertThat(solutions.add(solution.get())).isTrue();
+        }
+
+        assertThat(solutions).hasSize(24);
+    }
+
+    @Test
+    public void resumeDifferentPuzzle() {
+        Search search = new Search(propagator(puzzle("1,1", "1,1")), () -> false);
+        search.next();
+
+        assertThatThrownBy(() -> Search.resume(propagator(puzzle("1,1,1", "1,1,1")), search.checkpoint(),
+                () -> false, s -> {}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Checkpoint is for a different puzzle.");
+    }
+
+    @Test
+    public void solverResumesFromCheckpoint() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("checkpoint");
+        Puzzle<PicrossRule> puzzle = puzzle("1,1,1,1", "1,1,1,1");
+
+        Search search = new Search(propagator(puzzle), () -> false);
+        search.next();
+        Grid second = search.next().get();
+        search.checkpoint().write(path);
+
+        assertThat(new CheckpointingSolver(path, Duration.ofHours(1)).solve(puzzle)).isEqualTo(second);
+        assertThat(Files.exists(path)).isFalse();
+    }
+
+    @Test
+    public void checkpointerWritesCheckpoints() {
+        Path path = folder.getRoot().toPath().resolve("checkpoint");
+        Puzzle<PicrossRule> puzzle = puzzle("1,1,1,1", "1,1,1,1");
+
+        Search search = new Search(propagator(puzzle), () -> false, new Checkpointer(path, Duration.ZERO));
+        search.next();
+
+        assertThat(Files.exists(path)).isTrue();
+    }
+}
@@ -0,0 +1,60 @@
+package dev.jh.solver.search;
+
+import dev.jh.solver.board.Board;
+import dev.jh.solver.board.PackedBoard;
+import org.junit.Test;
+
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NogoodDatabaseTest {
+
+    @Test
+    public void forbidsLastLiteral() {
+        NogoodDatabase nogoods = new NogoodDatabase(10, 10);
+        int a = NogoodDatabase.literal(0, FILLED);
+        int b = NogoodDatabase.literal(1, GAP);
+        assertThat(nogoods.add(new int[] {a, b})).isTrue();
+
+        Board board = PackedBoard.onHeap(2, 2);
+        assertThat(nogoods.forbidding(board, b)).isNull();
+
+        board.set(0, 0, FILLED);
+        assertThat(nogoods.forbidding(board, b)).containsExactlyInAnyOrder(a, b);
+        assertThat(nogoods.forbidding(board, NogoodDatabase.literal(1, FILLED))).isNull();
+        assertThat(nogoods.pruned()).isEqualTo(1);
+    }
+
+    @Test
+    public void skipsDuplicatesAndLongNogoods() {
+        NogoodDatabase nogoods = new NogoodDatabase(10, 2);
+
+        assertThat(nogoods.add(new int[] {1, 2})).isTrue();
+        assertThat(nogoods.add(new int[] {2, 1})).isFalse();
+        assertThat(nogoods.add(new int[] {1, 2, 4})).isFalse();
+        assertThat(nogoods.add(new int[0])).isFalse();
+        assertThat(nogoods.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        NogoodDatabase nogoods = new NogoodDatabase(2, 10);
+        int first = NogoodDatabase.literal(0, FILLED);
+        int second = NogoodDatabase.literal(1, FILLED);
+        int third = NogoodDatabase.literal(2, FILLED);
+        Board board = PackedBoard.onHeap(1, 3);
+
+        nogoods.add(new int[] {first});
+        nogoods.add(new int[] {second});
+        // Using the first nogood makes the second the least recently used.
+        assertThat(nogoods.forbidding(board, first)).isNotNull();
+        nogoods.add(new int[] {third});
+
+        assertThat(nogoods.size()).isEqualTo(2);
+        assertThat(nogoods.evicted()).isEqualTo(1);
+        assertThat(nogoods.forbidding(board, first)).isNotNull();
+        assertThat(nogoods.forbidding(board, second)).isNull();
+        assertThat(nogoods.forbidding(board, third)).isNotNull();
+    }
+}
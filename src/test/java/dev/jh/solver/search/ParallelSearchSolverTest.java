@@ -0,0 +1,66 @@
+package dev.jh.solver.search;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Grid;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.Square;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static dev.jh.solver.search.SearchTest.puzzle;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ParallelSearchSolverTest {
+
+    @Test
+    public void solvesAmbiguousPuzzle() {
+        Puzzle<PicrossRule> puzzle = puzzle("1,1,1,1,1,1", "1,1,1,1,1,1");
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Grid solution = new ParallelSearchSolver(pool, 3).solve(puzzle);
+
+            // Any permutation of 6 squares solves the puzzle.
+            for (int row = 0; row < 6; row ++) {
+                int filled = 0;
+                for (int column = 0; column < 6; column ++) {
+                    filled += solution.get(row, column) == Square.FILLED ? 1 : 0;
+                    assertThat(solution.get(row, column)).isNotEqualTo(Square.EMPTY);
+                }
+                assertThat(filled).isEqualTo(1);
+            }
+
+            for (int column = 0; column < 6; column ++) {
+                int filled = 0;
+                for (int row = 0; row < 6; row ++) {
+                    filled += solution.get(row, column) == Square.FILLED ? 1 : 0;
+                }
+                assertThat(filled).isEqualTo(1);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sequentialSearch() {
+        // FILLED is tried first, so the first solution fills the top left square.
+        Grid solution = new ParallelSearchSolver(ForkJoinPool.commonPool(), 0).solve(puzzle("1,1", "1,1"));
+
+        assertThat(solution).isEqualTo(Grid.parse(ImmutableList.of(
+                "2x2",
+                ".x",
+                "x."
+        )).build());
+    }
+
+    @Test
+    public void noSolution() {
+        assertThatThrownBy(() -> new ParallelSearchSolver().solve(puzzle("2,2", "1,1")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Puzzle has no solution.");
+    }
+}
@@ -0,0 +1,156 @@
+package dev.jh.solver.search;
+
+import dev.jh.solver.Grid;
+import dev.jh.solver.Propagator;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.Square;
+import dev.jh.solver.board.Board;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static dev.jh.solver.Square.EMPTY;
+import static dev.jh.solver.Square.FILLED;
+import static dev.jh.solver.Square.GAP;
+import static dev.jh.solver.search.SearchTest.propagator;
+import static dev.jh.solver.search.SearchTest.puzzle;
+import static dev.jh.solver.search.SearchTest.randomPuzzle;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProberTest {
+
+    @Test
+    public void matchesProbingWithoutCache() {
+        Random random = new Random(50);
+        long lineSolved = 0;
+        long probed = 0;
+        long cachedProbes = 0;
+        long uncachedProbes = 0;
+
+        for (int i = 0; i < 50; i ++) {
+            Puzzle<PicrossRule> puzzle = randomPuzzle(random, 10, 10);
+
+            Propagator lines = propagator(puzzle);
+            assertThat(lines.propagate()).isTrue();
+            lineSolved += decided(lines.board());
+
+            Propagator cached = propagator(puzzle);
+            Prober prober = new Prober(cached);
+            assertThat(prober.probe()).isTrue();
+
+            Propagator uncached = propagator(puzzle);
+            long probes = probeWithoutCache(uncached);
+
+            assertThat(cached.board().toGrid()).isEqualTo(uncached.board().toGrid());
+            assertThat(prober.propagated()).isLessThanOrEqualTo(probes);
+            probed += decided(cached.board());
+            cachedProbes += prober.propagated();
+            uncachedProbes += probes;
+        }
+
+        // Some of the puzzles need more than line solving, and later passes reuse some of the probes.
+        assertThat(probed).isGreaterThan(lineSolved);
+        assertThat(cachedProbes).isLessThan(uncachedProbes);
+    }
+
+    @Test
+    public void probingAgainReusesEveryProbe() {
+        Propagator propagator = propagator(randomPuzzle(new Random(7), 10, 10));
+        Prober prober = new Prober(propagator);
+        prober.probe();
+
+        long propagated = prober.propagated();
+        long reused = prober.reused();
+        Grid board = propagator.board().toGrid();
+
+        assertThat(prober.probe()).isTrue();
+        assertThat(prober.propagated()).isEqualTo(propagated);
+        assertThat(prober.reused()).isGreaterThan(reused);
+        assertThat(propagator.board().toGrid()).isEqualTo(board);
+    }
+
+    @Test
+    public void noSolution() {
+        assertThat(new Prober(propagator(puzzle("2,2", "1,1"))).probe()).isFalse();
+    }
+
+    /**
+     * Probes every undecided square until a pass forces nothing, propagating every probe.
+     *
+     * @return Number of probes.
+     */
+    private static long probeWithoutCache(Propagator propagator) {
+        assertThat(propagator.propagate()).isTrue();
+        Board board = propagator.board();
+        long probes = 0;
+
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+
+            for (int row = 0; row < board.height(); row ++) {
+                for (int column = 0; column < board.width(); column ++) {
+                    if (board.get(row, column) != EMPTY) {
+                        continue;
+                    }
+
+                    Map<Integer, Square> filled = probe(propagator, row, column, FILLED);
+                    Map<Integer, Square> gap = probe(propagator, row, column, GAP);
+                    probes += 2;
+
+                    Map<Integer, Square> forced = new HashMap<>();
+                    if (filled == null || gap == null) {
+                        assertThat(filled != null || gap != null).isTrue();
+                        forced.put(row * board.width() + column, filled == null ? GAP : FILLED);
+                    } else {
+                        filled.forEach((square, value) -> {
+                            if (gap.get(square) == value) {
+                                forced.put(square, value);
+                            }
+                        });
+                    }
+
+                    forced.forEach((square, value) ->
+                            propagator.assume(square / board.width(), square % board.width(), value));
+                    assertThat(propagator.propagate()).isTrue();
+                    progress |= !forced.isEmpty();
+                }
+            }
+        }
+
+        return probes;
+    }
+
+    private static Map<Integer, Square> probe(Propagator propagator, int row, int column, Square value) {
+        Board board = propagator.board();
+        Propagator.Mark mark = propagator.mark();
+        propagator.assume(row, column, value);
+
+        Map<Integer, Square> implied = null;
+        if (propagator.propagate()) {
+            implied = new HashMap<>();
+            for (int square : propagator.setSince(mark)) {
+                implied.put(square, board.get(square / board.width(), square % board.width()));
+            }
+        }
+
+        propagator.undo(mark);
+        return implied;
+    }
+
+    private static long decided(Board board) {
+        long decided = 0;
+        for (int row = 0; row < board.height(); row ++) {
+            for (int column = 0; column < board.width(); column ++) {
+                if (board.get(row, column) != EMPTY) {
+                    decided ++;
+                }
+            }
+        }
+
+        return decided;
+    }
+}
@@ -0,0 +1,217 @@
+package dev.jh.solver.search;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Grid;
+import dev.jh.solver.PicrossSolver;
+import dev.jh.solver.Propagator;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.board.PackedBoard;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+import static dev.jh.solver.PuzzleType.PICROSS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SearchTest {
+
+    @Test
+    public void findsEverySolution() {
+        // Every rule is a single square, so the solutions are the 24 permutations of 4 squares.
+        Search search = search(puzzle("1,1,1,1", "1,1,1,1"));
+
+        Set<Grid> solutions = new HashSet<>();
+        for (Optional<Grid> solution = search.next(); solution.isPresent(); solution = search.next()) {
+            assertThat(solutions.add(solution.get())).isTrue();
+        }
+
+        assertThat(solutions).hasSize(24);
+        assertThat(search.next()).isEmpty();
+    }
+
+    @Test
+    public void noSolution() {
+        Search search = search(puzzle("2,2", "1,1"));
+
+        assertThat(search.next()).isEmpty();
+    }
+
+    @Test
+    public void lineSolvedWithoutDecisions() {
+        Search search = search(puzzle("3,1 1,3", "3,1 1,3"));
+
+        assertThat(search.next()).contains(Grid.parse(ImmutableList.of(
+                "3x3",
+                "...",
+                ".x.",
+                "..."
+        )).build());
+        assertThat(search.depth()).isZero();
+        assertThat(search.next()).isEmpty();
+    }
+
+    @Test
+    public void streamsEverySolution() {
+        assertThat(Search.solutions(puzzle("1,1,1,1", "1,1,1,1")).distinct().count()).isEqualTo(24);
+        assertThat(Search.solutions(puzzle("2,2", "1,1")).count()).isZero();
+    }
+
+    @Test
+    public void streamIsLazy() {
+        // 12! solutions - only the first few are searched for.
+        String ones = "1,1,1,1,1,1,1,1,1,1,1,1";
+
+        assertThat(Search.solutions(puzzle(ones, ones)).limit(3).collect(Collectors.toList())).hasSize(3);
+    }
+
+    @Test
+    public void cancelled() {
+        Search search = new Search(propagator(puzzle("1,1,1,1", "1,1,1,1")), () -> true);
+
+        assertThat(search.next()).isEmpty();
+    }
+
+    @Test
+    public void nogoodsFindTheSameSolutions() {
+        Random random = new Random(39);
+        for (int i = 0; i < 50; i ++) {
+            Puzzle<PicrossRule> puzzle = randomPuzzle(random, 7, 7);
+
+            Search plain = search(puzzle);
+            Search learning = search(puzzle).useNogoods(new NogoodDatabase(1000, 20));
+
+            assertThat(learning.stream().collect(Collectors.toSet()))
+                    .isEqualTo(plain.stream().collect(Collectors.toSet()));
+            assertThat(learning.statistics().nodes()).isLessThanOrEqualTo(plain.statistics().nodes());
+        }
+    }
+
+    @Test
+    public void probingFindsTheSameSolutions() {
+        Random random = new Random(50);
+        long plainDecisions = 0;
+        long probingDecisions = 0;
+        long probes = 0;
+
+        for (int i = 0; i < 50; i ++) {
+            Puzzle<PicrossRule> puzzle = randomPuzzle(random, 8, 8);
+
+            Search plain = search(puzzle);
+            Search probing = search(puzzle).useProbing();
+
+            assertThat(probing.stream().collect(Collectors.toSet()))
+                    .isEqualTo(plain.stream().collect(Collectors.toSet()));
+
+            plainDecisions += plain.statistics().decisions();
+            probingDecisions += probing.statistics().decisions();
+            probes += probing.statistics().probes();
+        }
+
+        assertThat(probes).isPositive();
+        assertThat(probingDecisions).isLessThan(plainDecisions);
+    }
+
+    @Test
+    public void nogoodsNoSolution() {
+        NogoodDatabase nogoods = new NogoodDatabase(1000, 20);
+        Search search = search(puzzle("2,2", "1,1")).useNogoods(nogoods);
+
+        assertThat(search.next()).isEmpty();
+    }
+
+    @Test
+    public void nogoodsAfterCheckpoint() {
+        Puzzle<PicrossRule> puzzle = puzzle("1,1,1,1", "1,1,1,1");
+        Search search = search(puzzle);
+        search.next();
+        search.next();
+
+        Search resumed = Search.resume(propagator(puzzle), search.checkpoint(), () -> false, s -> {})
+                .useNogoods(new NogoodDatabase(1000, 20));
+
+        // The resumed search finds the solution it was checkpointed at again, then the rest.
+        assertThat(resumed.stream().count()).isEqualTo(23);
+    }
+
+    static Propagator propagator(Puzzle<PicrossRule> puzzle) {
+        return new Propagator(puzzle, PackedBoard.onHeap(puzzle.height, puzzle.width), PicrossSolver.APPROACHES,
+                Optional.empty());
+    }
+
+    private static Search search(Puzzle<PicrossRule> puzzle) {
+        return new Search(propagator(puzzle), () -> false);
+    }
+
+    /**
+     * Builds a puzzle from comma-separated row and column rules, with space-separated segments.
+     */
+    static Puzzle<PicrossRule> puzzle(String rows, String columns) {
+        String[] rowRules = rows.split(",");
+        String[] columnRules = columns.split(",");
+
+        Puzzle.Builder<PicrossRule> puzzle = Puzzle.newBuilder(PICROSS, rowRules.length, columnRules.length);
+        for (String rule : rowRules) {
+            puzzle.addRowRule(rule(rule));
+        }
+        for (String rule : columnRules) {
+            puzzle.addColumnRule(rule(rule));
+        }
+
+        return puzzle.build();
+    }
+
+    /**
+     * Builds a puzzle from the rules of a random grid, so it has at least one solution.
+     */
+    static Puzzle<PicrossRule> randomPuzzle(Random random, int height, int width) {
+        boolean[][] filled = new boolean[height][width];
+        for (int row = 0; row < height; row ++) {
+            for (int column = 0; column < width; column ++) {
+                filled[row][column] = random.nextBoolean();
+            }
+        }
+
+        StringJoiner rows = new StringJoiner(",");
+        for (int row = 0; row < height; row ++) {
+            int r = row;
+            rows.add(runs(width, column -> filled[r][column]));
+        }
+
+        StringJoiner columns = new StringJoiner(",");
+        for (int column = 0; column < width; column ++) {
+            int c = column;
+            columns.add(runs(height, row -> filled[row][c]));
+        }
+
+        return puzzle(rows.toString(), columns.toString());
+    }
+
+    private static String runs(int length, IntPredicate filled) {
+        StringJoiner runs = new StringJoiner(" ");
+        int run = 0;
+        for (int i = 0; i <= length; i ++) {
+            if (i < length && filled.test(i)) {
+                run ++;
+            } else if (run > 0) {
+                runs.add(Integer.toString(run));
+                run = 0;
+            }
+        }
+
+        return runs.length() == 0 ? "0" : runs.toString();
+    }
+
+    private static PicrossRule rule(String rule) {
+        return new PicrossRule(Arrays.stream(rule.trim().split("\\s+"))
+                .map(Integer::parseInt)
+                .collect(ImmutableList.toImmutableList()));
+    }
+}
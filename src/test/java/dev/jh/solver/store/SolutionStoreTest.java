@@ -0,0 +1,225 @@
+package dev.jh.solver.store;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Grid;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.Solver;
+import dev.jh.solver.Square;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static dev.jh.solver.PuzzleType.PICROSS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SolutionStoreTest {
+    private static final Puzzle<PicrossRule> PUZZLE = Puzzle.<PicrossRule>newBuilder(PICROSS, 3, 3)
+            .addRowRule(PicrossRule.forSegments(3))
+            .addRowRule(PicrossRule.forSegments(1, 1))
+            .addRowRule(PicrossRule.forSegments(3))
+            .addColumnRule(PicrossRule.forSegments(3))
+            .addColumnRule(PicrossRule.forSegments(1, 1))
+            .addColumnRule(PicrossRule.forSegments(3))
+            .build();
+
+    private static final Grid SOLUTION = Grid.parse(ImmutableList.of(
+            "3x3",
+            "...",
+            ".x.",
+            "..."
+    )).build();
+
+    private static final Puzzle<PicrossRule> OTHER = Puzzle.<PicrossRule>newBuilder(PICROSS, 1, 2)
+            .addRowRule(PicrossRule.forSegments(2))
+            .addColumnRule(PicrossRule.forSegments(1))
+            .addColumnRule(PicrossRule.forSegments(1))
+            .build();
+
+    private static final Grid OTHER_SOLUTION = Grid.parse(ImmutableList.of("1x2", "..")).build();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void storesSolutions() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("solutions");
+
+        try (SolutionStore store = SolutionStore.open(path)) {
+            assertThat(store.get(PUZZLE)).isEmpty();
+
+            store.put(PUZZLE, SOLUTION);
+            store.put(OTHER, OTHER_SOLUTION);
+
+            assertThat(store.get(PUZZLE)).contains(SOLUTION);
+            assertThat(store.get(OTHER)).contains(OTHER_SOLUTION);
+        }
+
+        try (SolutionStore store = SolutionStore.open(path)) {
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(store.get(PUZZLE)).contains(SOLUTION);
+            assertThat(store.get(OTHER)).contains(OTHER_SOLUTION);
+        }
+    }
+
+    @Test
+    public void ignoresSolutionsThatDontMatch() throws IOException {
+        try (SolutionStore store = SolutionStore.open(folder.getRoot().toPath().resolve("solutions"))) {
+            store.put(PUZZLE, SOLUTION.copy().setSquare(1, 1, Square.FILLED).build());
+
+            assertThat(store.get(PUZZLE)).isEmpty();
+        }
+    }
+
+    @Test
+    public void compacts() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("solutions");
+
+        try (SolutionStore store = SolutionStore.open(path)) {
+            for (int i = 0; i < 10; i ++) {
+                store.put(PUZZLE, SOLUTION);
+            }
+            store.put(OTHER, OTHER_SOLUTION);
+            assertThat(store.garbage()).isEqualTo(9);
+
+            long before = Files.size(path);
+            store.compact();
+
+            assertThat(store.garbage()).isZero();
+            assertThat(Files.size(path)).isLessThan(before);
+            assertThat(store.get(PUZZLE)).contains(SOLUTION);
+
+            // The store keeps appending after compacting.
+            store.put(PUZZLE, SOLUTION);
+            assertThat(store.garbage()).isEqualTo(1);
+        }
+
+        try (SolutionStore store = SolutionStore.open(path)) {
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(store.get(OTHER)).contains(OTHER_SOLUTION);
+        }
+    }
+
+    @Test
+    public void cutsOffTornRecord() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("solutions");
+
+        try (SolutionStore store = SolutionStore.open(path)) {
+            store.put(PUZZLE, SOLUTION);
+            store.put(OTHER, OTHER_SOLUTION);
+        }
+
+        // Lose the last few bytes, as if the process died while appending.
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (SolutionStore store = SolutionStore.open(path)) {
+            assertThat(store.get(PUZZLE)).contains(SOLUTION);
+            assertThat(store.get(OTHER)).isEmpty();
+
+            store.put(OTHER, OTHER_SOLUTION);
+        }
+
+        try (SolutionStore store = SolutionStore.open(path)) {
+            assertThat(store.get(OTHER)).contains(OTHER_SOLUTION);
+        }
+    }
+
+    @Test
+    public void skipsCorruptRecord() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("solutions");
+        Puzzle<PicrossRule> single = Puzzle.<PicrossRule>newBuilder(PICROSS, 1, 1)
+                .addRowRule(PicrossRule.forSegments(1))
+                .addColumnRule(PicrossRule.forSegments(1))
+                .build();
+        Grid singleSolution = Grid.parse(ImmutableList.of("1x1", ".")).build();
+
+        long middle;
+        try (SolutionStore store = SolutionStore.open(path)) {
+            store.put(OTHER, OTHER_SOLUTION);
+            middle = Files.size(path);
+            store.put(PUZZLE, SOLUTION);
+            store.put(single, singleSolution);
+        }
+
+        // Flip a square in the middle record, so only its checksum is wrong.
+        long size = Files.size(path);
+        flipByte(path, middle + Long.BYTES + 2 * Integer.BYTES);
+
+        try (SolutionStore store = SolutionStore.open(path)) {
+            assertThat(Files.size(path)).isEqualTo(size);
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(store.garbage()).isEqualTo(1);
+            assertThat(store.get(OTHER)).contains(OTHER_SOLUTION);
+            assertThat(store.get(PUZZLE)).isEmpty();
+            assertThat(store.get(single)).contains(singleSolution);
+
+            store.compact();
+            assertThat(store.garbage()).isZero();
+            assertThat(store.get(single)).contains(singleSolution);
+        }
+    }
+
+    @Test
+    public void failsOnRecordWithoutLength() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("solutions");
+
+        long first;
+        try (SolutionStore store = SolutionStore.open(path)) {
+            first = Files.size(path);
+            store.put(PUZZLE, SOLUTION);
+            store.put(OTHER, OTHER_SOLUTION);
+        }
+
+        // A negative height leaves no way to find the next record.
+        flipByte(path, first + Long.BYTES);
+        long size = Files.size(path);
+
+        assertThatThrownBy(() -> SolutionStore.open(path)).isInstanceOf(IOException.class);
+        assertThat(Files.size(path)).isEqualTo(size);
+    }
+
+    @Test
+    public void notAStore() throws IOException {
+        Path path = folder.newFile("not-a-store").toPath();
+        Files.write(path, new byte[] {1, 2, 3, 4, 5});
+
+        assertThatThrownBy(() -> SolutionStore.open(path)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void storedSolverSkipsStoredPuzzles() throws IOException {
+        AtomicInteger solves = new AtomicInteger();
+        Solver<PicrossRule> solver = puzzle -> {
+            solves.incrementAndGet();
+            return SOLUTION;
+        };
+
+        try (SolutionStore store = SolutionStore.open(folder.getRoot().toPath().resolve("solutions"))) {
+            StoredSolver stored = new StoredSolver(solver, store);
+
+            assertThat(stored.solve(PUZZLE)).isEqualTo(SOLUTION);
+            assertThat(stored.solve(PUZZLE)).isEqualTo(SOLUTION);
+            assertThat(solves.get()).isEqualTo(1);
+        }
+    }
+
+    private static void flipByte(Path path, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, offset);
+            buffer.put(0, (byte) ~buffer.get(0));
+            channel.write(buffer.flip(), offset);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package dev.jh.solver.trace;
+
+import com.google.common.collect.ImmutableList;
+import dev.jh.solver.Grid;
+import dev.jh.solver.LineType;
+import dev.jh.solver.PicrossSolver;
+import dev.jh.solver.Puzzle;
+import dev.jh.solver.Square;
+import dev.jh.solver.approach.Status;
+import dev.jh.solver.line.BatchLineSolver;
+import dev.jh.solver.rules.picross.PicrossRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.function.IntFunction;
+
+import static dev.jh.solver.PuzzleType.PICROSS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TraceRecorderTest {
+
+    private static final Grid SOLUTION = Grid.parse(ImmutableList.of(
+            "6x12",
+            "...x..xx....",
+            ".x.x...xx.x.",
+            "xxx....x..x.",
+            "..........xx",
+            "x.x.x.x.x.x.",
+            ".xxxxxx.xxx."
+    )).build();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replayRebuildsBoard() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PicrossSolver solver = PicrossSolver.newBuilder()
+                .tracerFactory((puzzle, approaches) -> new TraceRecorder(out, puzzle, approaches))
+                .build();
+
+        Grid solution = solver.solve(puzzle(SOLUTION));
+        TraceReport report = TraceReplay.replay(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(report.board).isEqualTo(solution);
+        assertThat(report.approaches).startsWith("SEGMENT_RANGES", "LINE_TABLE", "BATCH", "FULL_LINE");
+
+        // Rows are too long for line tables, but columns aren't.
+        assertThat(report.calls(Tracer.SEGMENT_RANGES)).isPositive();
+        assertThat(report.calls(Tracer.LINE_TABLE)).isPositive();
+        assertThat(report.calls(Tracer.FIRST_APPROACH)).isEqualTo(report.calls(Tracer.SEGMENT_RANGES));
+        for (int approach = 0; approach < report.approaches.size(); approach ++) {
+            assertThat(report.wasted(approach)).isLessThanOrEqualTo(report.calls(approach));
+        }
+
+        ImmutableList<TraceReport.HotLine> hotLines = report.hotLines(3);
+        assertThat(hotLines).hasSize(3);
+        assertThat(hotLines.get(0).visits).isGreaterThanOrEqualTo(hotLines.get(2).visits);
+        assertThat(report.visits(hotLines.get(0).type, hotLines.get(0).index)).isEqualTo(hotLines.get(0).visits);
+    }
+
+    @Test
+    public void replayBatchLines() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PicrossSolver solver = PicrossSolver.newBuilder()
+                .batchLineSolver(BatchLineSolver.create())
+                .tracerFactory((puzzle, approaches) -> new TraceRecorder(out, puzzle, approaches))
+                .build();
+
+        Grid solution = solver.solve(puzzle(SOLUTION));
+
+        assertThat(TraceReplay.replay(new ByteArrayInputStream(out.toByteArray())).board).isEqualTo(solution);
+    }
+
+    @Test
+    public void flushesFullBuffers() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TraceRecorder recorder = new TraceRecorder(out, puzzle(SOLUTION), ImmutableList.of("A"));
+
+        for (int i = 0; i < 100_000; i ++) {
+            recorder.line(LineType.COLUMN, i % 12);
+            recorder.approach(0, i % 2 == 0 ? Status.UNCHANGED : Status.CHANGED);
+        }
+        recorder.line(LineType.COLUMN, 11);
+        recorder.approach(0, Status.CHANGED);
+        recorder.change(5, Square.GAP);
+        recorder.close();
+
+        TraceReport report = TraceReplay.replay(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(report.calls(0)).isEqualTo(100_001);
+        assertThat(report.wasted(0)).isEqualTo(50_000);
+        assertThat(report.squaresChanged(0)).isEqualTo(1);
+        assertThat(report.board.get(5, 11)).isEqualTo(Square.GAP);
+    }
+
+    @Test
+    public void sampling() throws IOException {
+        PicrossSolver never = PicrossSolver.newBuilder()
+                .tracerFactory(TraceRecorder.sampling(folder.getRoot().toPath(), 0))
+                .build();
+        never.solve(puzzle(SOLUTION));
+        assertThat(Files.list(folder.getRoot().toPath())).isEmpty();
+
+        PicrossSolver always = PicrossSolver.newBuilder()
+                .tracerFactory(TraceRecorder.sampling(folder.getRoot().toPath(), 1))
+                .build();
+        always.solve(puzzle(SOLUTION));
+        assertThat(Files.list(folder.getRoot().toPath())).hasSize(1);
+    }
+
+    /**
+     * Builds a puzzle with the rules that the given solution satisfies.
+     */
+    private static Puzzle<PicrossRule> puzzle(Grid solution) {
+        Puzzle.Builder<PicrossRule> puzzle = Puzzle.newBuilder(PICROSS, solution.height, solution.width);
+        for (int row = 0; row < solution.height; row ++) {
+            int r = row;
+            puzzle.addRowRule(rule(solution.width, i -> solution.get(r, i)));
+        }
+        for (int column = 0; column < solution.width; column ++) {
+            int c = column;
+            puzzle.addColumnRule(rule(solution.height, i -> solution.get(i, c)));
+        }
+
+        return puzzle.build();
+    }
+
+    private static PicrossRule rule(int length, IntFunction<Square> squares) {
+        ImmutableList.Builder<Integer> segments = ImmutableList.builder();
+        int run = 0;
+        for (int i = 0; i <= length; i ++) {
+            if (i < length && squares.apply(i) == Square.FILLED) {
+                run ++;
+            } else if (run > 0) {
+                segments.add(run);
+                run = 0;
+            }
+        }
+
+        return new PicrossRule(segments.build());
+    }
+}